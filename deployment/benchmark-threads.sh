@@ -0,0 +1,31 @@
+#!/bin/bash
+
+# ==========================================
+# Throughput / p99 latency of the public search and image endpoints.
+#
+# Run once against a backend started with VIRTUAL_THREADS_ENABLED=false and once with =true
+# (e.g. change deployment/.env and `docker-compose up -d --build backend`), then compare the output.
+# Requires 'hey' (https://github.com/rakyll/hey) on the PATH.
+# ==========================================
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+IMAGE_ID="${IMAGE_ID:-1}"
+CONCURRENCY="${CONCURRENCY:-200}"
+DURATION="${DURATION:-60s}"
+LABEL="${1:-$(date +%H%M%S)}"
+
+if ! command -v hey > /dev/null; then
+    echo "'hey' not found on PATH."
+    exit 1
+fi
+
+run() {
+    local name="$1"
+    local url="$2"
+    echo "== [$LABEL] $name: $url (c=$CONCURRENCY, z=$DURATION)"
+    # warm-up: JIT, connection pool, caches
+    hey -z 10s -c "$CONCURRENCY" "$url" > /dev/null
+    hey -z "$DURATION" -c "$CONCURRENCY" "$url" | grep -E "Requests/sec|99% in|Status code distribution|\[[0-9]{3}\]"
+}
+
+run "search" "$BASE_URL/api/real-estates?page=0&size=20&sort=currentPrice,asc"
+run "image" "$BASE_URL/api/images/$IMAGE_ID"
@@ -1,8 +1,10 @@
 package fei.upce.nnpro.remax.address.entity;
 
+import fei.upce.nnpro.remax.address.geo.GeoHash;
 import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -48,4 +50,19 @@ public class Address {
 
     @Column(name = "longitude")
     private Double longitude;
-}
\ No newline at end of file
+
+    /**
+     * {@link GeoHash} of the coordinates, indexed for radius and bounding-box searches; null without coordinates.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "geohash", length = 12)
+    private String geohash;
+
+    @PrePersist
+    @PreUpdate
+    void refreshGeohash() {
+        geohash = latitude != null && longitude != null
+                ? GeoHash.encode(latitude, longitude, GeoHash.PRECISION)
+                : null;
+    }
+}
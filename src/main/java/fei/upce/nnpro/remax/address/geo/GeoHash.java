@@ -0,0 +1,129 @@
+package fei.upce.nnpro.remax.address.geo;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Geohash encoding of coordinates. Every extra character splits a cell into 32 sub-cells, so addresses in the
+ * same area share a prefix and an area search becomes a few {@code LIKE 'prefix%'} ranges over an index.
+ */
+public final class GeoHash {
+
+    /** Characters stored in {@code address.geohash}, cells of roughly 5 x 5 m. */
+    public static final int PRECISION = 9;
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and 12: " + precision);
+        }
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean lonBit = true;
+        int bits = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (lonBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            lonBit = !lonBit;
+            if (++bits == 5) {
+                hash.append(BASE32[ch]);
+                bits = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /** Height of a cell in degrees of latitude. */
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    /** Width of a cell in degrees of longitude. */
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((5 * precision + 1) / 2));
+    }
+
+    /**
+     * Cells of the finest precision (up to {@link #PRECISION}) for which at most {@code maxCells} cells cover the
+     * box; every point inside the box has a geohash starting with one of them. An empty prefix means the box is too
+     * large to prune and every coordinate matches.
+     */
+    public static Set<String> cover(double minLat, double minLon, double maxLat, double maxLon, int maxCells) {
+        double south = Math.clamp(minLat, -90.0, 90.0);
+        double north = Math.clamp(maxLat, -90.0, 90.0);
+        double west = Math.clamp(minLon, -180.0, 180.0);
+        double east = Math.clamp(maxLon, -180.0, 180.0);
+        for (int precision = PRECISION; precision >= 1; precision--) {
+            double height = cellHeight(precision);
+            double width = cellWidth(precision);
+            long firstRow = cellIndex(south + 90, 180, height);
+            long lastRow = cellIndex(north + 90, 180, height);
+            long firstCol = cellIndex(west + 180, 360, width);
+            long lastCol = cellIndex(east + 180, 360, width);
+            long cells = (lastRow - firstRow + 1) * (lastCol - firstCol + 1);
+            if (cells > maxCells) {
+                continue;
+            }
+            Set<String> prefixes = new LinkedHashSet<>();
+            for (long row = firstRow; row <= lastRow; row++) {
+                for (long col = firstCol; col <= lastCol; col++) {
+                    // Encode the centre of the cell, which lies safely inside it
+                    prefixes.add(encode(-90 + (row + 0.5) * height, -180 + (col + 0.5) * width, precision));
+                }
+            }
+            return prefixes;
+        }
+        return Set.of("");
+    }
+
+    /** Number of cells of {@code precision} needed to cover the box. */
+    public static long cellCount(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        long rows = cellIndex(Math.clamp(maxLat, -90.0, 90.0) + 90, 180, height)
+                - cellIndex(Math.clamp(minLat, -90.0, 90.0) + 90, 180, height) + 1;
+        long cols = cellIndex(Math.clamp(maxLon, -180.0, 180.0) + 180, 360, width)
+                - cellIndex(Math.clamp(minLon, -180.0, 180.0) + 180, 360, width) + 1;
+        return Math.max(rows, 0) * Math.max(cols, 0);
+    }
+
+    /** Great-circle distance in kilometres. */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Offset from the south or west edge of the world; the north and east edges belong to the last cell
+    private static long cellIndex(double offset, double span, double size) {
+        return Math.min((long) Math.floor(offset / size), Math.round(span / size) - 1);
+    }
+}
@@ -0,0 +1,63 @@
+package fei.upce.nnpro.remax.address.geo;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Liquibase task filling {@code address.geohash} for addresses geocoded before the column existed.
+ * Geohash encoding has no portable SQL form, so it runs through {@link GeoHash} over JDBC.
+ */
+public class GeoHashBackfill implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private int updated;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, latitude, longitude FROM address WHERE latitude IS NOT NULL AND longitude IS NOT NULL");
+             PreparedStatement update = connection.prepareStatement("UPDATE address SET geohash = ? WHERE id = ?");
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                update.setString(1, GeoHash.encode(rows.getDouble(2), rows.getDouble(3), GeoHash.PRECISION));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+                if (++updated % BATCH_SIZE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        } catch (DatabaseException | SQLException e) {
+            throw new CustomChangeException("Failed to backfill address geohashes", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Geohash filled for " + updated + " addresses";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,51 @@
+package fei.upce.nnpro.remax.images.config;
+
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "remax.images")
+public class ImageProperties {
+
+    /** Storage used for new uploads. Existing images are read from wherever they were stored. */
+    private ImageStorageType storage = ImageStorageType.FILESYSTEM;
+    private String storageRoot = "data/images";
+    private Migration migration = new Migration();
+    private Variants variants = new Variants();
+    private Sweep sweep = new Sweep();
+
+    @Setter
+    @Getter
+    public static class Migration {
+        private boolean enabled = false;
+        private int batchSize = 50;
+        private long delayMs = 60 * 1000L;
+    }
+
+    @Setter
+    @Getter
+    public static class Variants {
+        private boolean enabled = true;
+        /** Worker threads resizing images; {@code 0} means one per available core. */
+        private int threads = 0;
+        /** Uploads waiting for resizing; when full, new uploads are served in original size only. */
+        private int queueCapacity = 100;
+        /** Larger originals (width x height, as declared in the header) are not decoded and get no variants. */
+        private long maxPixels = 40_000_000L;
+    }
+
+    @Setter
+    @Getter
+    public static class Sweep {
+        private String cron = "0 45 3 * * *";
+        /** Files written or reused more recently are kept; must exceed the longest upload transaction. */
+        private Duration gracePeriod = Duration.ofHours(1);
+    }
+}
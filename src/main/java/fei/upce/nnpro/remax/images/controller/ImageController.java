@@ -1,19 +1,24 @@
 package fei.upce.nnpro.remax.images.controller;
 
 import fei.upce.nnpro.remax.images.dto.ImageDto;
-import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
 import fei.upce.nnpro.remax.images.service.ImageService;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -21,6 +26,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/images")
@@ -28,6 +35,11 @@ import java.io.IOException;
 @Tag(name = "Images", description = "Endpoints for uploading, retrieving, and deleting images")
 public class ImageController {
 
+    /** Content behind an image id never changes, so it may be cached for a year without revalidation. */
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    /** Used while a requested variant is still being generated, so clients pick it up later. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final ImageService imageService;
 
     /**
@@ -72,10 +84,14 @@ public class ImageController {
     /**
      * Retrieve the raw image data.
      * This endpoint is used in HTML <img src="/api/images/{id}"> tags.
+     * Only the metadata is loaded up front; the content is streamed straight from its storage.
+     * Conditional requests (If-None-Match / If-Modified-Since) are answered from the metadata alone.
+     * A single byte range (Range header) is answered with 206 Partial Content.
      */
     @Operation(
             summary = "Get image content",
-            description = "Returns the raw binary data of the image. Suitable for HTML <img src='...'> tags."
+            description = "Returns the raw binary data of the image. Suitable for HTML <img src='...'> tags. " +
+                    "Use 'size' to get a downscaled variant; the original is returned until the variant is generated."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -83,18 +99,93 @@ public class ImageController {
                     description = "Image retrieved successfully",
                     content = @Content(mediaType = "image/jpeg", schema = @Schema(type = "string", format = "binary"))
             ),
-            @ApiResponse(responseCode = "404", description = "Image not found for the given ID")
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the image"),
+            @ApiResponse(responseCode = "304", description = "Cached copy is still valid"),
+            @ApiResponse(responseCode = "404", description = "Image not found for the given ID"),
+            @ApiResponse(responseCode = "416", description = "Requested range is outside of the image")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> getImage(
+    public ResponseEntity<StreamingResponseBody> getImage(
             @Parameter(description = "ID of the image to retrieve", example = "1")
-            @PathVariable Long id) {
-        Image image = imageService.getImageEntity(id);
+            @PathVariable Long id,
+            @Parameter(description = "Requested size: THUMBNAIL (320 px), MEDIUM (1024 px) or FULL (original)")
+            @RequestParam(defaultValue = "FULL") ImageVariant size,
+            WebRequest webRequest) {
+        ImageMetadata image = imageService.getImageMetadata(id, size);
+        // An original standing in for a variant is final once generation finished without producing one
+        CacheControl cacheControl = image.getVariant() == size || image.isVariantsGenerated() ? IMMUTABLE : REVALIDATE;
+
+        // Sets ETag and Last-Modified on the response and evaluates the request preconditions
+        String etag = image.getContentHash() != null ? "\"" + image.getContentHash() + "\"" : null;
+        long lastModified = image.getCreatedAt() != null ? image.getCreatedAt().toInstant().toEpochMilli() : -1;
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+
+        String range = webRequest.getHeader(HttpHeaders.RANGE);
+        String ifRange = webRequest.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && image.getSizeBytes() != null && (ifRange == null || ifRange.equals(etag))) {
+            ResponseEntity<StreamingResponseBody> partial = rangeResponse(image, range, cacheControl);
+            if (partial != null) {
+                return partial;
+            }
+        }
+
+        StreamingResponseBody body = out -> imageService.writeImageData(image, out);
+        ResponseEntity.BodyBuilder response = contentResponse(HttpStatus.OK, image, cacheControl);
+        if (image.getSizeBytes() != null) {
+            response.contentLength(image.getSizeBytes());
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Answers a single byte range with 206, reading only that slice from storage.
+     * Returns {@code null} for multi-range requests and syntactically invalid headers, which are served as the
+     * full content; only a well-formed range outside of the image is answered with 416.
+     */
+    private ResponseEntity<StreamingResponseBody> rangeResponse(ImageMetadata image, String rangeHeader,
+                                                                CacheControl cacheControl) {
+        long size = image.getSizeBytes();
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // RFC 9110: an invalid Range header is ignored
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+
+        HttpRange range = ranges.get(0);
+        long start = range.getRangeStart(size);
+        long end = range.getRangeEnd(size);
+        if (start >= size || end < start) {
+            return rangeNotSatisfiable(size);
+        }
+
+        long length = end - start + 1;
+        StreamingResponseBody body = out -> imageService.writeImageData(image, start, length, out);
+        return contentResponse(HttpStatus.PARTIAL_CONTENT, image, cacheControl)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size)
+                .contentLength(length)
+                .body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
+    }
 
-        return ResponseEntity.ok()
+    private static ResponseEntity.BodyBuilder contentResponse(HttpStatus status, ImageMetadata image,
+                                                              CacheControl cacheControl) {
+        return ResponseEntity.status(status)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + image.getFilename() + "\"")
-                .contentType(MediaType.parseMediaType(image.getContentType()))
-                .body(image.getData());
+                .contentType(MediaType.parseMediaType(image.getContentType()));
     }
 
     /**
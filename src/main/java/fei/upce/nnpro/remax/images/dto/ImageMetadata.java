@@ -0,0 +1,29 @@
+package fei.upce.nnpro.remax.images.dto;
+
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Closed projection over {@link fei.upce.nnpro.remax.images.entity.Image} without the binary content.
+ */
+public interface ImageMetadata {
+    Long getId();
+
+    String getFilename();
+
+    String getContentType();
+
+    String getContentHash();
+
+    Long getSizeBytes();
+
+    ImageStorageType getStorage();
+
+    ZonedDateTime getCreatedAt();
+
+    ImageVariant getVariant();
+
+    boolean isVariantsGenerated();
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.ZonedDateTime;
+
 @Getter
 @Setter
 @Entity
@@ -23,10 +25,50 @@ public class Image {
     @Column(name = "content_type", nullable = false)
     private String contentType;
 
+    /**
+     * Content never changes after upload, so this doubles as the Last-Modified value.
+     */
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt = ZonedDateTime.now();
+
+    /**
+     * Content of images kept in the database; {@code null} once the content lives in another storage.
+     */
     @Lob
-    @Column(name = "data", nullable = false)
+    @Column(name = "data")
     private byte[] data;
 
+    /**
+     * Hex-encoded SHA-256 of the content. Filesystem storage uses it as the file key.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage", nullable = false, length = 20)
+    private ImageStorageType storage = ImageStorageType.DATABASE;
+
+    /**
+     * Uploaded image this row is a downscaled copy of; {@code null} for originals.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "original_image_id")
+    private Image originalImage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant", nullable = false, length = 20)
+    private ImageVariant variant = ImageVariant.FULL;
+
+    /**
+     * Set on an original once variant generation has finished; sizes without a variant row are then served by the
+     * original for good (it is already small enough, cannot be decoded or exceeds the pixel limit).
+     */
+    @Column(name = "variants_generated", nullable = false)
+    private boolean variantsGenerated;
+
     @ManyToOne
     @JoinColumn(name = "real_estate_id")
     private RealEstate realEstate;
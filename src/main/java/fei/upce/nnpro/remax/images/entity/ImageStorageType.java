@@ -0,0 +1,11 @@
+package fei.upce.nnpro.remax.images.entity;
+
+/**
+ * Where the binary content of an {@link Image} lives.
+ */
+public enum ImageStorageType {
+    /** Legacy storage in the {@code image.data} large object column. */
+    DATABASE,
+    /** Content-addressed file on the local filesystem, keyed by SHA-256 hash. */
+    FILESYSTEM
+}
@@ -0,0 +1,25 @@
+package fei.upce.nnpro.remax.images.entity;
+
+import lombok.Getter;
+
+/**
+ * Sizes an image can be served in. {@link #FULL} is the uploaded original, the others are
+ * downscaled copies generated after upload.
+ */
+@Getter
+public enum ImageVariant {
+    THUMBNAIL(320),
+    MEDIUM(1024),
+    FULL(0);
+
+    /** Longest edge in pixels; {@code 0} means the original size. */
+    private final int maxDimension;
+
+    ImageVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public boolean isResized() {
+        return maxDimension > 0;
+    }
+}
@@ -0,0 +1,28 @@
+package fei.upce.nnpro.remax.images.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+
+/**
+ * Custom repository fragment for reading image content without materialising it in the heap.
+ */
+public interface ImageContentRepository {
+
+    /**
+     * Copies the stored content of the image to {@code out} through a fixed-size buffer.
+     * Runs in its own read-only transaction, which PostgreSQL large objects require.
+     *
+     * @return {@code false} when no image with the given id exists
+     */
+    @Transactional(readOnly = true)
+    boolean copyDataTo(Long id, OutputStream out);
+
+    /**
+     * Copies {@code length} bytes starting at the zero-based offset {@code start}.
+     *
+     * @return {@code false} when no image with the given id exists
+     */
+    @Transactional(readOnly = true)
+    boolean copyDataRangeTo(Long id, long start, long length, OutputStream out);
+}
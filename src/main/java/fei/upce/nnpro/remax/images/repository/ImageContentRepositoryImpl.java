@@ -0,0 +1,60 @@
+package fei.upce.nnpro.remax.images.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.sql.SQLException;
+
+public class ImageContentRepositoryImpl implements ImageContentRepository {
+
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImageContentRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean copyDataTo(Long id, OutputStream out) {
+        return copy(id, out, Blob::getBinaryStream);
+    }
+
+    @Override
+    public boolean copyDataRangeTo(Long id, long start, long length, OutputStream out) {
+        // Blob positions are 1-based; only the requested slice is fetched from the large object
+        return copy(id, out, blob -> blob.getBinaryStream(start + 1, length));
+    }
+
+    private boolean copy(Long id, OutputStream out, BlobReader reader) {
+        Boolean found = jdbcTemplate.query("SELECT data FROM image WHERE id = ?", rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            // getBlob resolves PostgreSQL large objects as well as plain BLOB columns; the content is read lazily
+            Blob blob = rs.getBlob(1);
+            try (InputStream in = reader.open(blob)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                blob.free();
+            }
+            return true;
+        }, id);
+        return Boolean.TRUE.equals(found);
+    }
+
+    @FunctionalInterface
+    private interface BlobReader {
+        InputStream open(Blob blob) throws SQLException;
+    }
+}
@@ -1,7 +1,35 @@
 package fei.upce.nnpro.remax.images.repository;
 
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
 import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ImageRepository extends JpaRepository<Image, Long> {
+import java.util.List;
+import java.util.Optional;
+
+public interface ImageRepository extends JpaRepository<Image, Long>, ImageContentRepository {
+
+    Optional<ImageMetadata> findMetadataById(Long id);
+
+    Optional<ImageMetadata> findMetadataByOriginalImageIdAndVariant(Long originalImageId, ImageVariant variant);
+
+    List<ImageMetadata> findMetadataByOriginalImageId(Long originalImageId);
+
+    boolean existsByOriginalImageIdAndVariant(Long originalImageId, ImageVariant variant);
+
+    boolean existsByContentHashAndStorage(String contentHash, ImageStorageType storage);
+
+    /**
+     * Records that no further variant of the original will be generated.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.variantsGenerated = true where i.id = :id")
+    int markVariantsGenerated(@Param("id") Long id);
 }
\ No newline at end of file
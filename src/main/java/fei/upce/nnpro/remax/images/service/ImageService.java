@@ -1,24 +1,38 @@
 package fei.upce.nnpro.remax.images.service;
 
+import fei.upce.nnpro.remax.images.config.ImageProperties;
 import fei.upce.nnpro.remax.images.dto.ImageDto;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
 import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
 import fei.upce.nnpro.remax.images.repository.ImageRepository;
+import fei.upce.nnpro.remax.images.storage.ImageContentSweepJob;
+import fei.upce.nnpro.remax.images.storage.ImageStorage;
+import fei.upce.nnpro.remax.images.storage.ImageStorages;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class ImageService {
 
     private final ImageRepository imageRepository;
+    private final ImageStorages imageStorages;
+    private final ImageVariantService imageVariantService;
+    private final ImageProperties imageProperties;
     private static final Logger log = LoggerFactory.getLogger(ImageService.class);
 
     @Transactional
@@ -32,11 +46,21 @@ public class ImageService {
         Image image = new Image();
         image.setFilename(file.getOriginalFilename());
         image.setContentType(file.getContentType());
-        image.setData(file.getBytes());
+        ImageStorage storage = imageStorages.forUploads();
+        try (InputStream content = file.getInputStream()) {
+            storage.store(image, content);
+        }
+        image.setStorage(storage.getType());
 
         Image savedImage = imageRepository.save(image);
         log.info("Uploaded image id={} filename={}", savedImage.getId(), savedImage.getFilename());
 
+        if (imageProperties.getVariants().isEnabled()
+                && savedImage.getContentType() != null && savedImage.getContentType().startsWith("image/")) {
+            Long id = savedImage.getId();
+            runAfterCommit(() -> imageVariantService.generateVariantsAsync(id));
+        }
+
         return mapToDto(savedImage);
     }
 
@@ -52,17 +76,80 @@ public class ImageService {
         return found;
     }
 
+    @Transactional(readOnly = true)
+    public ImageMetadata getImageMetadata(Long id) {
+        log.debug("Fetching image metadata id={}", id);
+        return imageRepository.findMetadataById(id)
+                .orElseThrow(() -> {
+                    log.warn("Image not found id={}", id);
+                    return new EntityNotFoundException("Image not found with id: " + id);
+                });
+    }
+
+    /**
+     * Metadata of the requested variant, or of the original when the variant does not exist
+     * (small originals, non-image content or generation still pending).
+     */
+    @Transactional(readOnly = true)
+    public ImageMetadata getImageMetadata(Long id, ImageVariant variant) {
+        if (variant != null && variant.isResized()) {
+            Optional<ImageMetadata> found = imageRepository.findMetadataByOriginalImageIdAndVariant(id, variant);
+            if (found.isPresent()) {
+                return found.get();
+            }
+            log.debug("Variant {} of image id={} not available, serving original", variant, id);
+        }
+        return getImageMetadata(id);
+    }
+
+    /**
+     * Streams the image content to {@code out} from the storage that holds it, without loading
+     * the whole content into memory. Deliberately not transactional, so serving a file to a slow
+     * client does not hold a database connection.
+     */
+    public void writeImageData(ImageMetadata image, OutputStream out) throws IOException {
+        imageStorages.get(image.getStorage()).copyTo(image, out);
+    }
+
+    /**
+     * Streams {@code length} bytes of the content starting at the zero-based offset {@code start}.
+     */
+    public void writeImageData(ImageMetadata image, long start, long length, OutputStream out) throws IOException {
+        imageStorages.get(image.getStorage()).copyRangeTo(image, start, length, out);
+    }
+
+    /**
+     * Deletes the image and its variants. Their stored files are reclaimed by {@link ImageContentSweepJob},
+     * which also covers rows removed through orphan removal or cascades.
+     */
     @Transactional
     public void deleteImage(Long id) {
         log.info("Deleting image id={}", id);
-        if (!imageRepository.existsById(id)) {
-            log.warn("Attempted to delete non-existing image id={}", id);
-            throw new EntityNotFoundException("Image not found with id: " + id);
+        ImageMetadata image = imageRepository.findMetadataById(id)
+                .orElseThrow(() -> {
+                    log.warn("Attempted to delete non-existing image id={}", id);
+                    return new EntityNotFoundException("Image not found with id: " + id);
+                });
+        for (ImageMetadata variant : imageRepository.findMetadataByOriginalImageId(id)) {
+            imageRepository.deleteById(variant.getId());
         }
-        imageRepository.deleteById(id);
+        imageRepository.deleteById(image.getId());
         log.info("Deleted image id={}", id);
     }
 
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private ImageDto mapToDto(Image image) {
         String downloadUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path("/api/images/")
@@ -73,7 +160,7 @@ public class ImageService {
                 .id(image.getId())
                 .filename(image.getFilename())
                 .contentType(image.getContentType())
-                .size(image.getData() != null ? image.getData().length : 0)
+                .size(image.getSizeBytes() != null ? image.getSizeBytes() : 0)
                 .downloadUrl(downloadUrl)
                 .build();
 
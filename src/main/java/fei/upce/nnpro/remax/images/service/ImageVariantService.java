@@ -0,0 +1,173 @@
+package fei.upce.nnpro.remax.images.service;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
+import fei.upce.nnpro.remax.images.repository.ImageRepository;
+import fei.upce.nnpro.remax.images.storage.ImageStorage;
+import fei.upce.nnpro.remax.images.storage.ImageStorages;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the downscaled {@link ImageVariant}s of uploaded images on a bounded pool of worker threads.
+ * Until a variant exists the original is served in its place; once generation has finished the original is marked,
+ * so sizes that got no variant are served by it as final. Images with more pixels than
+ * {@code remax.images.variants.max-pixels} are never decoded, so a small file declaring huge dimensions cannot
+ * exhaust the heap.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private final ImageRepository imageRepository;
+    private final ImageStorages imageStorages;
+    private final Executor executor;
+    private final long maxPixels;
+
+    @Autowired
+    public ImageVariantService(ImageRepository imageRepository, ImageStorages imageStorages, ImageProperties imageProperties) {
+        this(imageRepository, imageStorages, createExecutor(imageProperties.getVariants()),
+                imageProperties.getVariants().getMaxPixels());
+    }
+
+    ImageVariantService(ImageRepository imageRepository, ImageStorages imageStorages, Executor executor, long maxPixels) {
+        this.imageRepository = imageRepository;
+        this.imageStorages = imageStorages;
+        this.executor = executor;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Queues variant generation for an image. Never blocks the caller: when the queue is full the
+     * image simply keeps being served in its original size.
+     */
+    public void generateVariantsAsync(Long imageId) {
+        try {
+            executor.execute(() -> generateVariants(imageId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Variant queue full, image id={} will be served in original size only", imageId);
+        }
+    }
+
+    void generateVariants(Long imageId) {
+        try {
+            ImageMetadata original = imageRepository.findMetadataById(imageId).orElse(null);
+            if (original == null) {
+                log.debug("Image id={} deleted before its variants were generated", imageId);
+                return;
+            }
+
+            BufferedImage source = decode(original);
+            if (source == null) {
+                imageRepository.markVariantsGenerated(imageId);
+                return;
+            }
+
+            int longest = Math.max(source.getWidth(), source.getHeight());
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (!variant.isResized() || longest <= variant.getMaxDimension()
+                        || imageRepository.existsByOriginalImageIdAndVariant(imageId, variant)) {
+                    continue;
+                }
+                saveVariant(original, variant, ImageResizer.resize(source, variant.getMaxDimension()));
+            }
+            imageRepository.markVariantsGenerated(imageId);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate variants of image id={}", imageId, e);
+        }
+    }
+
+    /**
+     * Decodes the original after checking the dimensions declared in its header.
+     *
+     * @return {@code null} when the content is not a readable image or exceeds the pixel limit
+     */
+    private BufferedImage decode(ImageMetadata original) throws IOException {
+        // The compressed content is bounded by the upload size limit; only the decoded pixels can explode
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        imageStorages.get(original.getStorage()).copyTo(original, content);
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content.toByteArray()))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                log.info("Image id={} with content type {} cannot be decoded, skipping variants",
+                        original.getId(), original.getContentType());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Image id={} has {}x{} pixels, more than the limit of {}, skipping variants",
+                            original.getId(), reader.getWidth(0), reader.getHeight(0), maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void saveVariant(ImageMetadata original, ImageVariant variant, BufferedImage resized) throws IOException {
+        Image image = new Image();
+        image.setFilename(variant.name().toLowerCase() + "-" + original.getFilename());
+        image.setContentType(ImageResizer.contentType(resized));
+        image.setOriginalImage(imageRepository.getReferenceById(original.getId()));
+        image.setVariant(variant);
+
+        ImageStorage storage = imageStorages.forUploads();
+        try (InputStream content = new ByteArrayInputStream(ImageResizer.encode(resized))) {
+            storage.store(image, content);
+        }
+        image.setStorage(storage.getType());
+
+        Image saved = imageRepository.save(image);
+        log.info("Generated {} variant id={} of image id={} size={}B",
+                variant, saved.getId(), original.getId(), saved.getSizeBytes());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private static Executor createExecutor(ImageProperties.Variants properties) {
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
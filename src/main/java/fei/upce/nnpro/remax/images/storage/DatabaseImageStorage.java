@@ -0,0 +1,61 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import fei.upce.nnpro.remax.images.repository.ImageRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps the content in the {@code image.data} column. Still needed for reading images that were not migrated yet.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseImageStorage implements ImageStorage {
+
+    private final ImageRepository imageRepository;
+
+    @Override
+    public ImageStorageType getType() {
+        return ImageStorageType.DATABASE;
+    }
+
+    @Override
+    public void store(Image image, InputStream content) throws IOException {
+        byte[] data = content.readAllBytes();
+        StoredContent stored = StoredContent.of(data);
+        image.setData(data);
+        image.setContentHash(stored.hash());
+        image.setSizeBytes(stored.size());
+    }
+
+    @Override
+    public void copyTo(ImageMetadata image, OutputStream out) throws IOException {
+        copy(image, () -> imageRepository.copyDataTo(image.getId(), out));
+    }
+
+    @Override
+    public void copyRangeTo(ImageMetadata image, long start, long length, OutputStream out) throws IOException {
+        copy(image, () -> imageRepository.copyDataRangeTo(image.getId(), start, length, out));
+    }
+
+    private static void copy(ImageMetadata image, BooleanSupplier copy) throws IOException {
+        boolean found;
+        try {
+            found = copy.getAsBoolean();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (!found) {
+            throw new EntityNotFoundException("Image not found with id: " + image.getId());
+        }
+    }
+}
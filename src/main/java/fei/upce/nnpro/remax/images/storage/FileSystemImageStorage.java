@@ -0,0 +1,229 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage on the local filesystem. Files are named by the SHA-256 of their content
+ * ({@code <root>/ab/cd/abcd...}), so identical uploads share a single file.
+ * <p>
+ * Files are never deleted together with image rows; {@link #sweep} removes the ones no row references any more,
+ * whichever way the rows disappeared (explicit delete, orphan removal, cascades, rolled back uploads).
+ */
+@Component
+public class FileSystemImageStorage implements ImageStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemImageStorage.class);
+    private static final Pattern SHA_256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final String TEMP_PREFIX = "upload-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** Suffix of a file set aside by the sweep while it re-checks that nobody started using it. */
+    private static final String PARKED_SUFFIX = ".sweep";
+
+    private final Path root;
+
+    public FileSystemImageStorage(ImageProperties properties) {
+        this.root = Path.of(properties.getStorageRoot()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public ImageStorageType getType() {
+        return ImageStorageType.FILESYSTEM;
+    }
+
+    @Override
+    public void store(Image image, InputStream content) throws IOException {
+        StoredContent stored = write(content);
+        image.setData(null);
+        image.setContentHash(stored.hash());
+        image.setSizeBytes(stored.size());
+    }
+
+    /**
+     * Writes the content to a temporary file while hashing it, then moves it under its hash.
+     * When a file with the same hash already exists the new copy is discarded and the existing file is touched,
+     * which keeps a concurrent {@link #sweep} from deleting it before the new row commits.
+     */
+    public StoredContent write(InputStream content) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            MessageDigest digest = StoredContent.sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            Path target = resolve(hash);
+            if (touch(target)) {
+                log.debug("Content {} already stored, skipping write", hash);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    log.debug("Content {} stored concurrently, skipping write", hash);
+                }
+            }
+            return new StoredContent(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Copies the file with {@link FileChannel#transferTo}, which lets the JDK move the bytes
+     * without staging them in heap arrays.
+     */
+    @Override
+    public void copyTo(ImageMetadata image, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(image.getContentHash()), StandardOpenOption.READ)) {
+            transfer(channel, 0, channel.size(), out);
+        }
+    }
+
+    @Override
+    public void copyRangeTo(ImageMetadata image, long start, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(image.getContentHash()), StandardOpenOption.READ)) {
+            transfer(channel, start, Math.min(length, channel.size() - start), out);
+        }
+    }
+
+    private static void transfer(FileChannel channel, long start, long length, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long end = start + length;
+        long position = start;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred == 0 && position >= channel.size()) {
+                throw new EOFException("Stored content ended at " + position + " of " + end + " bytes");
+            }
+            position += transferred;
+        }
+    }
+
+    /**
+     * Deletes stored files that {@code referenced} reports as unused and that were last written or reused before
+     * {@code cutoff}, together with temporary files older than it. The cutoff has to lie further back than the
+     * longest upload transaction, so content of uploads that are not committed yet is left alone.
+     * <p>
+     * A candidate is first renamed aside and only deleted if it still looks unused afterwards. An upload of the same
+     * content either touched the file before the rename (the sweep then sees the new timestamp and puts it back) or
+     * finds it missing and writes a new copy, so content referenced by a committed row is never lost.
+     *
+     * @return number of deleted content files
+     */
+    public int sweep(Predicate<String> referenced, Instant cutoff) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+
+        int deleted = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+                if (name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX)) {
+                    if (isOlderThan(file, cutoff)) {
+                        Files.deleteIfExists(file);
+                    }
+                } else if (SHA_256_HEX.matcher(name).matches()) {
+                    if (isOlderThan(file, cutoff) && !referenced.test(name) && release(file, name, referenced, cutoff)) {
+                        deleted++;
+                    }
+                } else if (name.endsWith(PARKED_SUFFIX)) {
+                    // Left behind by an interrupted sweep
+                    String hash = name.substring(0, name.length() - PARKED_SUFFIX.length());
+                    if (SHA_256_HEX.matcher(hash).matches() && settle(file, hash, referenced, cutoff)) {
+                        deleted++;
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                log.debug("Stored file {} disappeared during the sweep", file);
+            }
+        }
+        return deleted;
+    }
+
+    private boolean release(Path file, String hash, Predicate<String> referenced, Instant cutoff) throws IOException {
+        Path parked = file.resolveSibling(hash + PARKED_SUFFIX);
+        Files.move(file, parked, StandardCopyOption.ATOMIC_MOVE);
+        return settle(parked, hash, referenced, cutoff);
+    }
+
+    /**
+     * Deletes a parked file, or puts it back when an upload touched it or a row references it by now.
+     */
+    private boolean settle(Path parked, String hash, Predicate<String> referenced, Instant cutoff) throws IOException {
+        if (isOlderThan(parked, cutoff) && !referenced.test(hash)) {
+            Files.deleteIfExists(parked);
+            log.info("Deleted unreferenced stored content {}", hash);
+            return true;
+        }
+        try {
+            // Identical content may have been written again meanwhile; replacing it changes nothing
+            Files.move(parked, resolve(hash), StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(parked);
+        }
+        return false;
+    }
+
+    /**
+     * Marks existing content as just used.
+     *
+     * @return {@code false} when the file does not exist
+     */
+    private static boolean touch(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+    }
+
+    Path resolve(String hash) {
+        if (hash == null || !SHA_256_HEX.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
@@ -0,0 +1,52 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import fei.upce.nnpro.remax.images.repository.ImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Periodically deletes files of the filesystem storage that no image row references. Rows can disappear in many
+ * ways (explicit delete, orphan removal from a gallery, user and estate cascades, variants cascading with their
+ * original, rolled back uploads), so the content is reclaimed here rather than on each of those paths.
+ */
+@Component
+public class ImageContentSweepJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageContentSweepJob.class);
+
+    private final FileSystemImageStorage fileSystemStorage;
+    private final ImageRepository imageRepository;
+    private final ImageProperties imageProperties;
+
+    public ImageContentSweepJob(FileSystemImageStorage fileSystemStorage,
+                                ImageRepository imageRepository,
+                                ImageProperties imageProperties) {
+        this.fileSystemStorage = fileSystemStorage;
+        this.imageRepository = imageRepository;
+        this.imageProperties = imageProperties;
+    }
+
+    /**
+     * @return number of deleted files
+     */
+    @Scheduled(cron = "${remax.images.sweep.cron:0 45 3 * * *}")
+    public int sweep() {
+        Instant cutoff = Instant.now().minus(imageProperties.getSweep().getGracePeriod());
+        try {
+            int deleted = fileSystemStorage.sweep(
+                    hash -> imageRepository.existsByContentHashAndStorage(hash, ImageStorageType.FILESYSTEM), cutoff);
+            log.info("Image content sweep deleted {} unreferenced files", deleted);
+            return deleted;
+        } catch (IOException e) {
+            log.error("Image content sweep failed", e);
+            return 0;
+        }
+    }
+}
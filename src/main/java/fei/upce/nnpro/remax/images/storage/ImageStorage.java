@@ -0,0 +1,34 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Backend holding the binary content of images. The {@code image} table always keeps the metadata,
+ * {@link Image#getStorage()} tells which backend owns the content of a particular row.
+ */
+public interface ImageStorage {
+
+    ImageStorageType getType();
+
+    /**
+     * Stores the content and fills {@link Image#getContentHash()} and {@link Image#getSizeBytes()}.
+     */
+    void store(Image image, InputStream content) throws IOException;
+
+    /**
+     * Writes the stored content of the image to {@code out}.
+     */
+    void copyTo(ImageMetadata image, OutputStream out) throws IOException;
+
+    /**
+     * Writes {@code length} bytes of the content starting at the zero-based offset {@code start},
+     * reading only that slice from the backend.
+     */
+    void copyRangeTo(ImageMetadata image, long start, long length, OutputStream out) throws IOException;
+}
@@ -0,0 +1,109 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.util.List;
+
+/**
+ * Moves image content from the {@code image.data} column to the filesystem storage, one batch per run.
+ * <p>
+ * Every image is migrated in its own short transaction: the file is written first and only then the row
+ * is switched to {@code FILESYSTEM}, so readers see either the old or the new location and the
+ * application keeps serving images while the job runs. Rows that fail are skipped and retried on the next pass.
+ */
+@Component
+@ConditionalOnProperty(prefix = "remax.images.migration", name = "enabled", havingValue = "true")
+public class ImageStorageMigrationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStorageMigrationJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileSystemImageStorage fileSystemStorage;
+    private final ImageProperties imageProperties;
+
+    private volatile long lastProcessedId = 0;
+
+    public ImageStorageMigrationJob(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    FileSystemImageStorage fileSystemStorage,
+                                    ImageProperties imageProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fileSystemStorage = fileSystemStorage;
+        this.imageProperties = imageProperties;
+    }
+
+    /**
+     * @return number of images moved to the filesystem in this run
+     */
+    @Scheduled(fixedDelayString = "${remax.images.migration.delay-ms:60000}")
+    public int migrateBatch() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM image WHERE storage = 'DATABASE' AND id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                Long.class, lastProcessedId, imageProperties.getMigration().getBatchSize());
+        if (ids.isEmpty()) {
+            if (lastProcessedId != 0) {
+                log.info("Image storage migration pass finished, restarting from the beginning");
+                lastProcessedId = 0;
+            }
+            return 0;
+        }
+
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrate(id)))) {
+                    migrated++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to migrate content of image id={}", id, e);
+            }
+            lastProcessedId = id;
+        }
+        log.info("Migrated {} of {} images to filesystem storage", migrated, ids.size());
+        return migrated;
+    }
+
+    private boolean migrate(Long id) {
+        // FOR UPDATE keeps the row from being deleted or re-uploaded while the file is written
+        StoredContent stored = jdbcTemplate.query(
+                "SELECT data FROM image WHERE id = ? AND storage = 'DATABASE' FOR UPDATE", rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Blob blob = rs.getBlob(1);
+                    if (blob == null) {
+                        return null;
+                    }
+                    try (InputStream in = blob.getBinaryStream()) {
+                        return fileSystemStorage.write(in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        blob.free();
+                    }
+                }, id);
+        if (stored == null) {
+            return false;
+        }
+
+        int updated = jdbcTemplate.update(
+                "UPDATE image SET storage = 'FILESYSTEM', content_hash = ?, size_bytes = ?, data = NULL "
+                        + "WHERE id = ? AND storage = 'DATABASE'",
+                stored.hash(), stored.size(), id);
+        return updated == 1;
+    }
+}
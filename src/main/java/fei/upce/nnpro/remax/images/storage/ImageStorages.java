@@ -0,0 +1,36 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the {@link ImageStorage} owning a given image and the one configured for new content.
+ */
+@Component
+public class ImageStorages {
+
+    private final Map<ImageStorageType, ImageStorage> storages = new EnumMap<>(ImageStorageType.class);
+    private final ImageProperties imageProperties;
+
+    public ImageStorages(List<ImageStorage> storages, ImageProperties imageProperties) {
+        storages.forEach(storage -> this.storages.put(storage.getType(), storage));
+        this.imageProperties = imageProperties;
+    }
+
+    public ImageStorage get(ImageStorageType type) {
+        ImageStorage storage = storages.get(type);
+        if (storage == null) {
+            throw new IllegalStateException("No image storage registered for " + type);
+        }
+        return storage;
+    }
+
+    public ImageStorage forUploads() {
+        return get(imageProperties.getStorage());
+    }
+}
@@ -0,0 +1,23 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identity of stored content: hex-encoded SHA-256 hash and size in bytes.
+ */
+public record StoredContent(String hash, long size) {
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static StoredContent of(byte[] content) {
+        return new StoredContent(HexFormat.of().formatHex(sha256().digest(content)), content.length);
+    }
+}
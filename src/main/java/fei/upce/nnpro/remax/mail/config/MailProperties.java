@@ -3,11 +3,14 @@ package fei.upce.nnpro.remax.mail.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @ConfigurationProperties(prefix = "remax.mail")
 public class MailProperties {
     private String from;
     private String replyTo;
+    private Outbox outbox = new Outbox();
 
     public String getFrom() {
         return from;
@@ -24,5 +27,106 @@ public class MailProperties {
     public void setReplyTo(String replyTo) {
         this.replyTo = replyTo;
     }
-}
 
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(Outbox outbox) {
+        this.outbox = outbox;
+    }
+
+    public static class Outbox {
+        /** Mails claimed by one dispatcher pass. */
+        private int batchSize = 50;
+        /** SMTP connections used in parallel by one pass; each sends its share of the batch over one connection. */
+        private int connections = 2;
+        /** Attempts before a mail is marked as failed. */
+        private int maxAttempts = 6;
+        /** Delay before the first retry, doubled for every further attempt up to {@link #maxBackoff}. */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+        private Duration maxBackoff = Duration.ofHours(1);
+        /**
+         * How long a claimed mail is hidden from other dispatchers; a crashed send is retried after it. Must be
+         * longer than sending one connection's share of a batch, otherwise a slow share is claimed and sent again.
+         */
+        private Duration lease = Duration.ofMinutes(15);
+        /** Longest time one mail may take to send; keep in line with {@code spring.mail.properties.mail.smtp.timeout}. */
+        private Duration sendTimeout = Duration.ofSeconds(30);
+        private long pollIntervalMs = 10 * 1000L;
+        /** How long sent and failed mails are kept before the purge deletes them. */
+        private Duration retention = Duration.ofDays(30);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            this.connections = connections;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package fei.upce.nnpro.remax.mail.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * E-mail waiting in the outbox. Rows are written in the transaction that produces the mail and
+ * delivered later by {@link fei.upce.nnpro.remax.mail.service.MailOutboxDispatcher}, so request
+ * handling never waits for the SMTP server.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "outbound_mail")
+public class OutboundMail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(nullable = false)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false, length = 320)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    /**
+     * Rendered message. Cleared in the update that marks the mail {@code SENT} or {@code FAILED}, since it may
+     * carry a secret such as a password reset code.
+     */
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "html", nullable = false)
+    private boolean html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OutboundMailStatus status = OutboundMailStatus.PENDING;
+
+    /** Delivery attempts started so far, counted when a dispatcher claims the mail. */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private ZonedDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private ZonedDateTime sentAt;
+}
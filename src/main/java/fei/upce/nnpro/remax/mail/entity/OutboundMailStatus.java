@@ -0,0 +1,9 @@
+package fei.upce.nnpro.remax.mail.entity;
+
+public enum OutboundMailStatus {
+    /** Waiting for (another) delivery attempt at {@code nextAttemptAt}. */
+    PENDING,
+    SENT,
+    /** Gave up after the configured number of attempts. */
+    FAILED
+}
@@ -0,0 +1,58 @@
+package fei.upce.nnpro.remax.mail.repository;
+
+import fei.upce.nnpro.remax.mail.entity.OutboundMail;
+import fei.upce.nnpro.remax.mail.entity.OutboundMailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+
+    /**
+     * Pending mails due at {@code now}, oldest first, locked for the current transaction. Rows already locked
+     * by another dispatcher are skipped (lock timeout -2 is Hibernate's SKIP LOCKED), so several application
+     * instances can drain the outbox without waiting on each other or sending a mail twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select m from OutboundMail m
+            where m.status = :status and m.nextAttemptAt <= :now
+            order by m.nextAttemptAt, m.id
+            """)
+    List<OutboundMail> findDueForUpdate(@Param("status") OutboundMailStatus status,
+                                        @Param("now") ZonedDateTime now,
+                                        Limit limit);
+
+    @Modifying
+    @Query("""
+            update OutboundMail m
+            set m.status = fei.upce.nnpro.remax.mail.entity.OutboundMailStatus.SENT,
+                m.sentAt = :sentAt, m.lastError = null, m.body = null
+            where m.id in :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") ZonedDateTime sentAt);
+
+    /**
+     * Deletes sent and failed mails created before {@code cutoff}.
+     */
+    @Modifying
+    @Query("""
+            delete from OutboundMail m
+            where m.status <> fei.upce.nnpro.remax.mail.entity.OutboundMailStatus.PENDING
+              and m.createdAt < :cutoff
+            """)
+    int deleteFinishedBefore(@Param("cutoff") ZonedDateTime cutoff);
+
+    long countByStatus(OutboundMailStatus status);
+}
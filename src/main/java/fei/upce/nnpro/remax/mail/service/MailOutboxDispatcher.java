@@ -0,0 +1,279 @@
+package fei.upce.nnpro.remax.mail.service;
+
+import fei.upce.nnpro.remax.mail.config.MailProperties;
+import fei.upce.nnpro.remax.mail.entity.OutboundMail;
+import fei.upce.nnpro.remax.mail.entity.OutboundMailStatus;
+import fei.upce.nnpro.remax.mail.repository.OutboundMailRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers mails from the outbox.
+ * <p>
+ * A pass claims a batch of due mails in a short transaction (rows locked by another instance are skipped) and
+ * pushes their next attempt one lease into the future, so the SMTP conversation itself runs outside any
+ * transaction. The batch is split between {@code connections} threads, each sending its share over a
+ * single SMTP connection. Sent mails are marked as such; failed ones are rescheduled with exponential backoff
+ * until they run out of attempts. A mail whose sender crashed is picked up again once its lease expires.
+ * The body of a sent or failed mail is cleared right away and the row itself is purged after
+ * {@code remax.mail.outbox.retention}.
+ */
+@Component
+public class MailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundMailRepository outboundMailRepository;
+    private final JavaMailSender mailSender;
+    private final MailProperties mailProperties;
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * Platform threads, not virtual ones: Jakarta Mail's SMTPTransport sends inside {@code synchronized} methods,
+     * which would pin the carrier thread for the whole SMTP conversation. At most {@code connections} + 1
+     * threads exist at a time.
+     */
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofPlatform().name("mail-outbox-", 0).daemon().factory());
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public MailOutboxDispatcher(OutboundMailRepository outboundMailRepository,
+                                JavaMailSender mailSender,
+                                MailProperties mailProperties,
+                                PlatformTransactionManager transactionManager) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.mailSender = mailSender;
+        this.mailProperties = mailProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        validateLease(mailProperties.getOutbox());
+    }
+
+    /**
+     * The mails of one share are sent one after another, so the lease has to outlast the whole share at the
+     * configured send timeout. A shorter lease would let the next pass claim mails that are still being sent.
+     */
+    static void validateLease(MailProperties.Outbox config) {
+        int shareSize = Math.ceilDiv(config.getBatchSize(), Math.max(1, config.getConnections()));
+        Duration longestShare = config.getSendTimeout().multipliedBy(shareSize);
+        if (config.getLease().compareTo(longestShare) <= 0) {
+            throw new IllegalStateException("remax.mail.outbox.lease (" + config.getLease()
+                    + ") must be longer than sending a share of " + shareSize + " mails at send-timeout "
+                    + config.getSendTimeout() + " (" + longestShare + ")");
+        }
+    }
+
+    /**
+     * Starts draining the outbox on a background thread, unless a drain is already running. Never blocks the caller.
+     */
+    public void requestDispatch() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.debug("Mail outbox dispatcher is shut down, dispatch request ignored");
+        }
+    }
+
+    /**
+     * Picks up retries that became due and anything a missed dispatch request left behind.
+     */
+    @Scheduled(fixedDelayString = "${remax.mail.outbox.poll-interval-ms:10000}")
+    public void poll() {
+        requestDispatch();
+    }
+
+    /**
+     * Deletes sent and failed mails older than the configured retention.
+     *
+     * @return number of deleted mails
+     */
+    @Scheduled(cron = "${remax.mail.outbox.purge-cron:0 15 4 * * *}")
+    public int purgeFinished() {
+        ZonedDateTime cutoff = ZonedDateTime.now().minus(mailProperties.getOutbox().getRetention());
+        Integer purged = transactionTemplate.execute(status -> outboundMailRepository.deleteFinishedBefore(cutoff));
+        log.info("Purged {} finished mails created before {}", purged, cutoff);
+        return purged == null ? 0 : purged;
+    }
+
+    private void drain() {
+        try {
+            int batchSize = mailProperties.getOutbox().getBatchSize();
+            while (dispatchDue() >= batchSize) {
+                log.debug("Mail outbox batch full, dispatching next batch");
+            }
+        } catch (RuntimeException e) {
+            log.error("Mail outbox dispatch failed", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Claims one batch of due mails, sends it and records the outcome.
+     *
+     * @return number of claimed mails
+     */
+    public int dispatchDue() {
+        MailProperties.Outbox config = mailProperties.getOutbox();
+        List<OutboundMail> claimed = transactionTemplate.execute(status -> claim(ZonedDateTime.now(), config));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<Map<Long, Exception>>> results = new ArrayList<>();
+        for (List<OutboundMail> share : split(claimed, config.getConnections())) {
+            results.add(executor.submit(() -> send(share)));
+        }
+        Map<Long, Exception> failures = new HashMap<>();
+        for (Future<Map<Long, Exception>> result : results) {
+            failures.putAll(await(result));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> record(claimed, failures, config));
+        log.info("Mail outbox pass sent {} of {} mails", claimed.size() - failures.size(), claimed.size());
+        return claimed.size();
+    }
+
+    private List<OutboundMail> claim(ZonedDateTime now, MailProperties.Outbox config) {
+        List<OutboundMail> due = outboundMailRepository.findDueForUpdate(
+                OutboundMailStatus.PENDING, now, Limit.of(config.getBatchSize()));
+        for (OutboundMail mail : due) {
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setNextAttemptAt(now.plus(config.getLease()));
+        }
+        return due;
+    }
+
+    /**
+     * Sends the mails over one connection.
+     *
+     * @return errors of the mails that were not accepted, by mail id
+     */
+    private Map<Long, Exception> send(List<OutboundMail> mails) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> messages = new IdentityHashMap<>();
+        for (OutboundMail mail : mails) {
+            try {
+                messages.put(toMessage(mail), mail.getId());
+            } catch (MessagingException | MailException e) {
+                failures.put(mail.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Messages missing from the map were delivered (e.g. only closing the connection failed)
+            e.getFailedMessages().forEach((message, error) -> failures.put(messages.get(message), error));
+        } catch (MailException e) {
+            messages.values().forEach(id -> failures.put(id, e));
+        }
+        return failures;
+    }
+
+    private MimeMessage toMessage(OutboundMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody(), mail.isHtml());
+        if (mailProperties.getFrom() != null) helper.setFrom(mailProperties.getFrom());
+        if (mailProperties.getReplyTo() != null) helper.setReplyTo(mailProperties.getReplyTo());
+        return message;
+    }
+
+    private void record(List<OutboundMail> claimed, Map<Long, Exception> failures, MailProperties.Outbox config) {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<Long> sent = claimed.stream()
+                .map(OutboundMail::getId)
+                .filter(id -> !failures.containsKey(id))
+                .toList();
+        if (!sent.isEmpty()) {
+            outboundMailRepository.markSent(sent, now);
+        }
+
+        failures.forEach((id, error) -> outboundMailRepository.findById(id).ifPresent(mail -> {
+            mail.setLastError(truncate(String.valueOf(error.getMessage())));
+            if (mail.getAttempts() >= config.getMaxAttempts()) {
+                mail.setStatus(OutboundMailStatus.FAILED);
+                mail.setBody(null);
+                log.error("Giving up on mail id={} to={} after {} attempts", id, mail.getRecipient(), mail.getAttempts(), error);
+            } else {
+                Duration backoff = backoff(mail.getAttempts(), config);
+                mail.setNextAttemptAt(now.plus(backoff));
+                log.warn("Sending mail id={} to={} failed (attempt {}), retrying in {}: {}",
+                        id, mail.getRecipient(), mail.getAttempts(), backoff, error.getMessage());
+            }
+        }));
+    }
+
+    static Duration backoff(int attempts, MailProperties.Outbox config) {
+        Duration delay = config.getInitialBackoff().multipliedBy(1L << Math.clamp(attempts - 1, 0, 20));
+        return delay.compareTo(config.getMaxBackoff()) > 0 ? config.getMaxBackoff() : delay;
+    }
+
+    private static List<List<OutboundMail>> split(List<OutboundMail> mails, int connections) {
+        int shares = Math.clamp(connections, 1, mails.size());
+        List<List<OutboundMail>> result = new ArrayList<>(shares);
+        for (int i = 0; i < shares; i++) {
+            result.add(new ArrayList<>());
+        }
+        for (int i = 0; i < mails.size(); i++) {
+            result.get(i % shares).add(mails.get(i));
+        }
+        return result;
+    }
+
+    private static Map<Long, Exception> await(Future<Map<Long, Exception>> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending mails", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sending mails failed", e.getCause());
+        }
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+}
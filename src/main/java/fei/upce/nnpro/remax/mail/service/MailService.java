@@ -1,74 +1,84 @@
 package fei.upce.nnpro.remax.mail.service;
 
-import fei.upce.nnpro.remax.mail.config.MailProperties;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import fei.upce.nnpro.remax.mail.entity.OutboundMail;
+import fei.upce.nnpro.remax.mail.entity.OutboundMailStatus;
+import fei.upce.nnpro.remax.mail.repository.OutboundMailRepository;
+import fei.upce.nnpro.remax.mail.template.MailTemplate;
+import fei.upce.nnpro.remax.mail.template.MailTemplateEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.Optional;
 
+/**
+ * Composes application e-mails and puts them into the outbox; {@link MailOutboxDispatcher} delivers them
+ * after the surrounding transaction commits.
+ */
 @Service
 public class MailService {
     private static final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private final JavaMailSender mailSender;
-    private final MailProperties mailProperties;
+    private final OutboundMailRepository outboundMailRepository;
+    private final MailOutboxDispatcher dispatcher;
+    private final MailTemplateEngine templateEngine;
 
-    public MailService(JavaMailSender mailSender, MailProperties mailProperties) {
-        this.mailSender = mailSender;
-        this.mailProperties = mailProperties;
+    public MailService(OutboundMailRepository outboundMailRepository, MailOutboxDispatcher dispatcher,
+                       MailTemplateEngine templateEngine) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.dispatcher = dispatcher;
+        this.templateEngine = templateEngine;
     }
 
+    @Transactional
     public void sendPasswordResetCode(String to, String code) {
         log.info("Preparing password reset email to={}", to);
         String subject = "Žádost o obnovení hesla";
-        try {
-            String body = renderTemplate("templates/password-reset.html", Map.of("code", code, "email", to));
+        String body = renderTemplate("templates/password-reset.html", Map.of("code", code, "email", to));
+        OutboundMail mail = enqueue(to, subject, body, true);
+        log.info("Password reset email queued id={} to={}", mail.getId(), to);
+    }
 
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, true);
-            if (mailProperties.getFrom() != null) helper.setFrom(mailProperties.getFrom());
-            if (mailProperties.getReplyTo() != null) helper.setReplyTo(mailProperties.getReplyTo());
+    private OutboundMail enqueue(String to, String subject, String body, boolean html) {
+        ZonedDateTime now = ZonedDateTime.now();
+        OutboundMail mail = new OutboundMail();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setHtml(html);
+        mail.setStatus(OutboundMailStatus.PENDING);
+        mail.setCreatedAt(now);
+        mail.setNextAttemptAt(now);
+        OutboundMail saved = outboundMailRepository.save(mail);
+        runAfterCommit(dispatcher::requestDispatch);
+        return saved;
+    }
 
-            mailSender.send(message);
-            log.info("Password reset email sent to={}", to);
-        } catch (MessagingException ex) {
-            log.error("Failed to prepare or send password reset email to={}", to, ex);
-        } catch (Exception ex) {
-            log.error("Unexpected error while sending password reset email to={}", to, ex);
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private String renderTemplate(String resourcePath, Map<String, String> params) {
-        // resourcePath is relative to classpath, allow with or without leading '/'
-        String cp = resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath;
-        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(cp)) {
-            if (in == null) {
-                log.warn("Email template not found: {}", resourcePath);
-                return fallbackPasswordResetText(params.get("code"));
-            }
-            try (Scanner s = new Scanner(in, StandardCharsets.UTF_8.name())) {
-                s.useDelimiter("\\A");
-                String template = s.hasNext() ? s.next() : "";
-                for (Map.Entry<String, String> e : params.entrySet()) {
-                    template = template.replace("{{" + e.getKey() + "}}", e.getValue() == null ? "" : e.getValue());
-                }
-                return template;
-            }
-        } catch (Exception ex) {
-            log.error("Failed to render email template {}", resourcePath, ex);
+        Optional<MailTemplate> template = templateEngine.find(resourcePath);
+        if (template.isEmpty()) {
+            log.warn("Email template not found: {}", resourcePath);
             return fallbackPasswordResetText(params.get("code"));
         }
+        return template.get().render(params);
     }
 
     private String fallbackPasswordResetText(String code) {
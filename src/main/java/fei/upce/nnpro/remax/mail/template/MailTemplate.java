@@ -0,0 +1,94 @@
+package fei.upce.nnpro.remax.mail.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * E-mail template parsed into alternating literal and {@code {{placeholder}}} segments. Rendering only appends
+ * the segments to a builder sized up front; parameter values are HTML-escaped, missing ones render as empty.
+ * Immutable and safe to share between threads.
+ */
+public final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    /** Room reserved per placeholder when sizing the output, so typical values do not grow the builder. */
+    private static final int PARAMETER_ALLOWANCE = 64;
+
+    private final String name;
+    /** {@code literals[i]} precedes {@code placeholders[i]}; the last literal ends the template. */
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private MailTemplate(String name, String[] literals, String[] placeholders) {
+        this.name = name;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                // no further (complete) placeholder, the rest is literal text
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        return new MailTemplate(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String render(Map<String, String> params) {
+        StringBuilder out = new StringBuilder(literalLength + placeholders.length * PARAMETER_ALLOWANCE);
+        renderTo(out, params);
+        return out.toString();
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> params) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            appendEscaped(out, params.get(placeholders[i]));
+        }
+        out.append(literals[placeholders.length]);
+    }
+
+    static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String entity = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(value, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+}
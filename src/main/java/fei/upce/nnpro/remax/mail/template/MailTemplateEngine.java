@@ -0,0 +1,56 @@
+package fei.upce.nnpro.remax.mail.template;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiles all e-mail templates ({@code classpath:templates/*.html}) once at startup and keeps them in memory.
+ * Templates are looked up by their path relative to the classpath, e.g. {@code templates/password-reset.html}.
+ */
+@Component
+public class MailTemplateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MailTemplateEngine.class);
+    private static final String TEMPLATE_DIRECTORY = "templates/";
+
+    private final Map<String, MailTemplate> templates;
+
+    public MailTemplateEngine() {
+        this(new PathMatchingResourcePatternResolver(MailTemplateEngine.class.getClassLoader()));
+    }
+
+    MailTemplateEngine(ResourcePatternResolver resolver) {
+        Map<String, MailTemplate> compiled = new HashMap<>();
+        try {
+            for (Resource resource : resolver.getResources("classpath*:" + TEMPLATE_DIRECTORY + "*.html")) {
+                String name = TEMPLATE_DIRECTORY + resource.getFilename();
+                try (InputStream in = resource.getInputStream()) {
+                    compiled.put(name, MailTemplate.compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load e-mail templates", e);
+        }
+        this.templates = Map.copyOf(compiled);
+        log.info("Compiled {} e-mail templates", templates.size());
+    }
+
+    /**
+     * @param name classpath path of the template, with or without a leading '/'
+     */
+    public Optional<MailTemplate> find(String name) {
+        return Optional.ofNullable(templates.get(name.startsWith("/") ? name.substring(1) : name));
+    }
+}
@@ -1,5 +1,6 @@
 package fei.upce.nnpro.remax.meetings.controller;
 
+import fei.upce.nnpro.remax.meetings.dto.MeetingCalendarFilterDto;
 import fei.upce.nnpro.remax.meetings.dto.MeetingDto;
 import fei.upce.nnpro.remax.meetings.dto.MeetingMapper;
 import fei.upce.nnpro.remax.meetings.dto.RealEstateSimplifiedDto;
@@ -14,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -98,19 +100,24 @@ public class MeetingController {
         return ResponseEntity.ok(dtos);
     }
 
-    @Operation(summary = "Get all RealEstates simplified", description = "Retrieves a list of all RealEstates simplified.")
+    @Operation(summary = "Get RealEstates simplified",
+            description = "Retrieves a page of RealEstates (id and title) ordered by title. " +
+                    "Optional 'q' keeps only titles starting with it (case-insensitive). At most 100 items per page.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of simplified RealEstates retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Page of simplified RealEstates retrieved successfully"),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
     })
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping("/estates")
     @PreAuthorize("hasRole('ROLE_REALTOR') or hasRole('ROLE_USER')")
-    public ResponseEntity<List<RealEstateSimplifiedDto>> listRealEstates(Authentication authentication) {
+    public ResponseEntity<Page<RealEstateSimplifiedDto>> listRealEstates(
+            @Parameter(description = "Title prefix", example = "byt") @RequestParam(required = false) String q,
+            @ParameterObject @PageableDefault(size = 20) Pageable pageable,
+            Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(meetingService.listRealEstatesSimplified());
+        return ResponseEntity.ok(meetingService.listRealEstatesSimplified(q, pageable));
     }
 
     @Operation(summary = "List all meetings of current user",
@@ -129,5 +136,38 @@ public class MeetingController {
         }
         return ResponseEntity.ok(meetingService.listMyMeetings(authentication.getName()));
     }
-}
 
+    @Operation(summary = "Calendar of current user",
+            description = "Meetings of the current user (as realtor or client) in a time window, ordered by meeting time. " +
+                    "Optionally filtered by status and type. The window may span at most 366 days.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of meetings retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid time window", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token", content = @Content)
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/my/calendar")
+    @PreAuthorize("hasRole('ROLE_REALTOR') or hasRole('ROLE_USER')")
+    public ResponseEntity<Page<MeetingDto>> getMyCalendar(@ParameterObject @ModelAttribute MeetingCalendarFilterDto filter,
+                                                          @ParameterObject @PageableDefault(size = 50) Pageable pageable,
+                                                          Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(meetingService.getMyCalendar(authentication.getName(), filter, pageable));
+    }
+
+    @Operation(summary = "Calendar of all meetings",
+            description = "Meetings in a time window ordered by meeting time, optionally filtered by status and type.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of meetings retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid time window", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden - User does not have permission", content = @Content)
+    })
+    @GetMapping("/calendar")
+    @PreAuthorize("hasRole('ROLE_REALTOR') or hasRole('ROLE_USER')")
+    public ResponseEntity<Page<MeetingDto>> searchCalendar(@ParameterObject @ModelAttribute MeetingCalendarFilterDto filter,
+                                                           @ParameterObject @PageableDefault(size = 50) Pageable pageable) {
+        return ResponseEntity.ok(meetingService.searchCalendar(filter, pageable));
+    }
+}
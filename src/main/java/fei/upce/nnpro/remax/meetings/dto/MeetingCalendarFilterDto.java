@@ -0,0 +1,30 @@
+package fei.upce.nnpro.remax.meetings.dto;
+
+import fei.upce.nnpro.remax.meetings.entity.enums.MeetingStatus;
+import fei.upce.nnpro.remax.meetings.entity.enums.MeetingType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@Schema(description = "Time window and optional filters of a meeting calendar query")
+public class MeetingCalendarFilterDto {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Start of the window (inclusive), ISO-8601", example = "2025-10-01T00:00:00Z", type = "string", format = "date-time")
+    private ZonedDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "End of the window (exclusive), ISO-8601", example = "2025-11-01T00:00:00Z", type = "string", format = "date-time")
+    private ZonedDateTime to;
+
+    @Schema(description = "Only meetings with this status", example = "CONFIRMED")
+    private MeetingStatus status;
+
+    @Schema(description = "Only meetings of this type", example = "OFFLINE")
+    private MeetingType type;
+}
@@ -5,13 +5,17 @@ import fei.upce.nnpro.remax.meetings.entity.enums.MeetingType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.ZonedDateTime;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "Data Transfer Object representing a meeting appointment between a client and a realtor")
 public class MeetingDto {
 
@@ -1,9 +1,13 @@
 package fei.upce.nnpro.remax.meetings.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "Response object representing a simplified real estate")
 public class RealEstateSimplifiedDto {
     @Schema(description = "Unique identifier of the real estate", example = "10")
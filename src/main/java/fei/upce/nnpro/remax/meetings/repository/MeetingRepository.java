@@ -1,10 +1,63 @@
 package fei.upce.nnpro.remax.meetings.repository;
 
+import fei.upce.nnpro.remax.meetings.dto.MeetingDto;
 import fei.upce.nnpro.remax.meetings.entity.Meeting;
+import fei.upce.nnpro.remax.meetings.entity.enums.MeetingStatus;
+import fei.upce.nnpro.remax.meetings.entity.enums.MeetingType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
     List<Meeting> findAllByClientIdOrRealtorId(Long clientId, Long realtorId);
-}
\ No newline at end of file
+
+    String CALENDAR_SELECT = """
+            select new fei.upce.nnpro.remax.meetings.dto.MeetingDto(
+                m.id, m.meetingTime, m.title, m.description, m.meetingType, m.meetingStatus,
+                m.realEstate.id, m.realtor.id, m.client.id)
+            from Meeting m
+            """;
+
+    String CALENDAR_WINDOW = """
+            m.meetingTime >= :from and m.meetingTime < :to
+            and (:status is null or m.meetingStatus = :status)
+            and (:type is null or m.meetingType = :type)
+            """;
+
+    /**
+     * Calendar of one realtor, served by the (realtor_id, meeting_time) index.
+     */
+    @Query(value = CALENDAR_SELECT + "where m.realtor.id = :realtorId and " + CALENDAR_WINDOW,
+            countQuery = "select count(m) from Meeting m where m.realtor.id = :realtorId and " + CALENDAR_WINDOW)
+    Page<MeetingDto> findRealtorCalendar(@Param("realtorId") Long realtorId,
+                                         @Param("from") ZonedDateTime from,
+                                         @Param("to") ZonedDateTime to,
+                                         @Param("status") MeetingStatus status,
+                                         @Param("type") MeetingType type,
+                                         Pageable pageable);
+
+    /**
+     * Calendar of one client, served by the (client_id, meeting_time) index.
+     */
+    @Query(value = CALENDAR_SELECT + "where m.client.id = :clientId and " + CALENDAR_WINDOW,
+            countQuery = "select count(m) from Meeting m where m.client.id = :clientId and " + CALENDAR_WINDOW)
+    Page<MeetingDto> findClientCalendar(@Param("clientId") Long clientId,
+                                        @Param("from") ZonedDateTime from,
+                                        @Param("to") ZonedDateTime to,
+                                        @Param("status") MeetingStatus status,
+                                        @Param("type") MeetingType type,
+                                        Pageable pageable);
+
+    @Query(value = CALENDAR_SELECT + "where " + CALENDAR_WINDOW,
+            countQuery = "select count(m) from Meeting m where " + CALENDAR_WINDOW)
+    Page<MeetingDto> findCalendar(@Param("from") ZonedDateTime from,
+                                  @Param("to") ZonedDateTime to,
+                                  @Param("status") MeetingStatus status,
+                                  @Param("type") MeetingType type,
+                                  Pageable pageable);
+}
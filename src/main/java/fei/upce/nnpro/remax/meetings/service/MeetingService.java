@@ -1,5 +1,6 @@
 package fei.upce.nnpro.remax.meetings.service;
 
+import fei.upce.nnpro.remax.meetings.dto.MeetingCalendarFilterDto;
 import fei.upce.nnpro.remax.meetings.dto.MeetingDto;
 import fei.upce.nnpro.remax.meetings.dto.MeetingMapper;
 import fei.upce.nnpro.remax.meetings.dto.RealEstateSimplifiedDto;
@@ -17,12 +18,16 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +38,9 @@ public class MeetingService {
     private final RealEstateRepository realEstateRepository;
     private final RemaxUserRepository remaxUserRepository;
     private static final Logger log = LoggerFactory.getLogger(MeetingService.class);
+    private static final Duration MAX_CALENDAR_WINDOW = Duration.ofDays(366);
+    private static final int DEFAULT_CALENDAR_PAGE_SIZE = 50;
+    private static final int MAX_PICKER_PAGE_SIZE = 100;
 
     @Transactional
     public Meeting createMeeting(MeetingDto dto) {
@@ -131,15 +139,19 @@ public class MeetingService {
         return page;
     }
 
+    /**
+     * Page of real estates (id and name) for the meeting picker, ordered by name. A non-blank {@code query}
+     * keeps only names starting with it, ignoring case.
+     */
     @Transactional(readOnly = true)
-    public List<RealEstateSimplifiedDto> listRealEstatesSimplified() {
-        return realEstateRepository.findAll().stream()
-                .map((r) -> {
-                    RealEstateSimplifiedDto rs = new RealEstateSimplifiedDto();
-                    rs.setId(r.getId());
-                    rs.setTitle(r.getName());
-                    return rs;
-                }).toList();
+    public Page<RealEstateSimplifiedDto> listRealEstatesSimplified(String query, Pageable pageable) {
+        Pageable byName = inPickerOrder(pageable);
+        if (query == null || query.isBlank()) {
+            return realEstateRepository.findSimplified(byName);
+        }
+        String pattern = escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+        log.debug("Searching real estates for picker by prefix '{}'", query);
+        return realEstateRepository.findSimplifiedByNameLike(pattern, byName);
     }
 
     @Transactional(readOnly = true)
@@ -156,4 +168,65 @@ public class MeetingService {
         return meetingRepository.findAllByClientIdOrRealtorId(remaxUser.getId(), remaxUser.getId())
                 .stream().map(meetingMapper::toDto).toList();
     }
+
+    /**
+     * Meetings of the given user in the filter's time window, ordered by meeting time. Only the
+     * user's own side (realtor or client) is queried, so each lookup uses one composite index.
+     */
+    @Transactional(readOnly = true)
+    public Page<MeetingDto> getMyCalendar(String username, MeetingCalendarFilterDto filter, Pageable pageable) {
+        validateWindow(filter);
+        Pageable ordered = inCalendarOrder(pageable);
+        RemaxUser user = remaxUserRepository.findByUsername(username)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+
+        if (user instanceof Realtor) {
+            return meetingRepository.findRealtorCalendar(user.getId(), filter.getFrom(), filter.getTo(),
+                    filter.getStatus(), filter.getType(), ordered);
+        }
+        if (user instanceof Client) {
+            return meetingRepository.findClientCalendar(user.getId(), filter.getFrom(), filter.getTo(),
+                    filter.getStatus(), filter.getType(), ordered);
+        }
+        log.debug("User {} is neither a realtor nor a client, calendar is empty", username);
+        return Page.empty(ordered);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<MeetingDto> searchCalendar(MeetingCalendarFilterDto filter, Pageable pageable) {
+        validateWindow(filter);
+        return meetingRepository.findCalendar(filter.getFrom(), filter.getTo(),
+                filter.getStatus(), filter.getType(), inCalendarOrder(pageable));
+    }
+
+    private static void validateWindow(MeetingCalendarFilterDto filter) {
+        if (filter.getFrom() == null || filter.getTo() == null) {
+            throw new IllegalArgumentException("Calendar window requires both 'from' and 'to'");
+        }
+        if (!filter.getFrom().isBefore(filter.getTo())) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(filter.getFrom(), filter.getTo()).compareTo(MAX_CALENDAR_WINDOW) > 0) {
+            throw new IllegalArgumentException("Calendar window must not exceed " + MAX_CALENDAR_WINDOW.toDays() + " days");
+        }
+    }
+
+    // Calendar pages are always chronological; the id keeps meetings at the same time in a stable order
+    private static Pageable inCalendarOrder(Pageable pageable) {
+        Sort order = Sort.by(Sort.Order.asc("meetingTime"), Sort.Order.asc("id"));
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), order)
+                : PageRequest.of(0, DEFAULT_CALENDAR_PAGE_SIZE, order);
+    }
+
+    private static Pageable inPickerOrder(Pageable pageable) {
+        Sort order = Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id"));
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), Math.clamp(pageable.getPageSize(), 1, MAX_PICKER_PAGE_SIZE), order)
+                : PageRequest.of(0, MAX_PICKER_PAGE_SIZE, order);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
@@ -0,0 +1,20 @@
+package fei.upce.nnpro.remax.profile.dto;
+
+import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
+import fei.upce.nnpro.remax.profile.entity.enums.UserRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Filters of the admin user listing. All fields are optional and combined with AND.")
+public class RemaxUserFilterDto {
+
+    @Schema(description = "Role derived from the user type", example = "AGENT")
+    private UserRole role;
+
+    @Schema(description = "Account status", example = "BLOCKED")
+    private AccountStatus status;
+
+    @Schema(description = "Case-insensitive prefix of the username, first name or last name", example = "nov")
+    private String name;
+}
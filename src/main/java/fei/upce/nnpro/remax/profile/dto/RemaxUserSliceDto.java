@@ -0,0 +1,18 @@
+package fei.upce.nnpro.remax.profile.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "One slice of the admin user listing, ordered by id")
+public class RemaxUserSliceDto {
+    @Schema(description = "Users of this slice")
+    private List<RemaxUserSummaryDto> items;
+
+    @Schema(description = "Value of afterId for the next slice; null when this is the last one", example = "120")
+    private Long nextAfterId;
+}
@@ -0,0 +1,47 @@
+package fei.upce.nnpro.remax.profile.dto;
+
+import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Row of the admin user listing, selected by a constructor projection in RemaxUserSummaryRepositoryImpl.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lightweight user row returned by the admin user listing")
+public class RemaxUserSummaryDto {
+
+    @Schema(description = "Unique identifier of the user", example = "10")
+    private Long id;
+
+    @Schema(description = "Unique username used for login", example = "jan_novak")
+    private String username;
+
+    @Schema(description = "User's email address", example = "jan.novak@example.com")
+    private String email;
+
+    @Schema(description = "The role derived from the user type", example = "CLIENT", allowableValues = {"ADMIN", "AGENT", "CLIENT"})
+    private String role;
+
+    @Schema(description = "Account status", example = "NORMAL")
+    private AccountStatus accountStatus;
+
+    @Schema(description = "Timestamp until when the user is blocked. Null if account is active.", example = "2025-12-31T23:59:59Z")
+    private ZonedDateTime blockedUntil;
+
+    @Schema(description = "Timestamp when the account was created", example = "2024-01-01T12:00:00+01:00")
+    private OffsetDateTime createdAt;
+
+    @Schema(description = "First name", example = "Jan")
+    private String firstName;
+
+    @Schema(description = "Last name", example = "Novák")
+    private String lastName;
+}
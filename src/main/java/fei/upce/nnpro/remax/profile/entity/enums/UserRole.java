@@ -0,0 +1,10 @@
+package fei.upce.nnpro.remax.profile.entity.enums;
+
+/**
+ * Role derived from the concrete user type, named as in RemaxUserResponse.
+ */
+public enum UserRole {
+    ADMIN,
+    AGENT,
+    CLIENT;
+}
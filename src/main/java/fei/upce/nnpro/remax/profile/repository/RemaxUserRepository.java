@@ -2,16 +2,60 @@ package fei.upce.nnpro.remax.profile.repository;
 
 import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface RemaxUserRepository extends JpaRepository<RemaxUser, Long> {
+public interface RemaxUserRepository extends JpaRepository<RemaxUser, Long>, RemaxUserSummaryRepository {
     boolean existsByUsernameOrEmail(String username, String email);
     Optional<RemaxUser> findByUsername(String username);
     Optional<RemaxUser> findByEmail(String email);
 
     @Query("SELECT u FROM RemaxUser u WHERE TYPE(u) = Realtor")
     List<RemaxUser> findAllRealtors();
+
+    /**
+     * Ids of the listings the database deletes together with the realtor through the {@code realtor_id} cascade.
+     */
+    @Query("select r.id from RealEstate r where r.realtor.id = :realtorId")
+    List<Long> findListingIdsByRealtorId(@Param("realtorId") Long realtorId);
+
+    /**
+     * Counts a failed login and blocks the account until {@code blockedUntil} once the counter reaches
+     * {@code threshold}, in one statement, so concurrent failures are neither lost nor need a row lock.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update RemaxUser u
+            set u.failedLoginAttempts = u.failedLoginAttempts + 1,
+                u.accountStatus = case when u.failedLoginAttempts + 1 >= :threshold
+                    then fei.upce.nnpro.remax.profile.entity.enums.AccountStatus.BLOCKED else u.accountStatus end,
+                u.blockedUntil = case when u.failedLoginAttempts + 1 >= :threshold
+                    then :blockedUntil else u.blockedUntil end
+            where u.id = :id
+            """)
+    int recordFailedLogin(@Param("id") Long id,
+                          @Param("threshold") int threshold,
+                          @Param("blockedUntil") ZonedDateTime blockedUntil);
+
+    /**
+     * Current failed-login counter, read after {@link #recordFailedLogin} instead of deriving it from an entity
+     * loaded before the update; empty when the user no longer exists.
+     */
+    @Query("select u.failedLoginAttempts from RemaxUser u where u.id = :id")
+    Optional<Integer> findFailedLoginAttempts(@Param("id") Long id);
+
+    /**
+     * Clears the failed-login counter; does not write the row when it is already zero.
+     */
+    @Transactional
+    @Modifying
+    @Query("update RemaxUser u set u.failedLoginAttempts = 0 where u.id = :id and u.failedLoginAttempts <> 0")
+    int resetFailedLogins(@Param("id") Long id);
 }
@@ -0,0 +1,20 @@
+package fei.upce.nnpro.remax.profile.repository;
+
+import fei.upce.nnpro.remax.profile.dto.RemaxUserFilterDto;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSummaryDto;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for the admin user listing.
+ */
+public interface RemaxUserSummaryRepository {
+
+    /**
+     * Selects up to {@code limit} users matching the filter with an id greater than {@code afterId},
+     * ordered by id, directly into DTOs (keyset pagination, no entities are loaded).
+     *
+     * @param afterId last id of the previous slice, or {@code null} for the first slice
+     */
+    List<RemaxUserSummaryDto> findSummaries(RemaxUserFilterDto filter, Long afterId, int limit);
+}
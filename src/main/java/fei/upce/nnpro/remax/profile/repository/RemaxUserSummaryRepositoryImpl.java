@@ -0,0 +1,89 @@
+package fei.upce.nnpro.remax.profile.repository;
+
+import fei.upce.nnpro.remax.profile.dto.RemaxUserFilterDto;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSummaryDto;
+import fei.upce.nnpro.remax.profile.entity.Admin;
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.profile.entity.RemaxUser;
+import fei.upce.nnpro.remax.profile.entity.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class RemaxUserSummaryRepositoryImpl implements RemaxUserSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RemaxUserSummaryDto> findSummaries(RemaxUserFilterDto filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<RemaxUserSummaryDto> query = cb.createQuery(RemaxUserSummaryDto.class);
+        Root<RemaxUser> root = query.from(RemaxUser.class);
+        Join<RemaxUser, PersonalInformation> pi = root.join("personalInformation");
+
+        query.select(cb.construct(RemaxUserSummaryDto.class,
+                root.get("id"),
+                root.get("username"),
+                root.get("email"),
+                roleName(root, cb),
+                root.get("accountStatus"),
+                root.get("blockedUntil"),
+                root.get("createdAt"),
+                pi.get("firstName"),
+                pi.get("lastName")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(root.get("id"), afterId));
+        }
+        if (filter != null) {
+            if (filter.getRole() != null) {
+                predicates.add(cb.equal(root.type(), roleType(filter.getRole())));
+            }
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("accountStatus"), filter.getStatus()));
+            }
+            if (filter.getName() != null && !filter.getName().isBlank()) {
+                String pattern = escapeLike(filter.getName().trim().toLowerCase(Locale.ROOT)) + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("username")), pattern, '\\'),
+                        cb.like(cb.lower(pi.get("firstName")), pattern, '\\'),
+                        cb.like(cb.lower(pi.get("lastName")), pattern, '\\')));
+            }
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Same names as RemaxUserResponse.getRole, resolved from the discriminator in SQL
+    private static Expression<String> roleName(Root<RemaxUser> root, CriteriaBuilder cb) {
+        return cb.<String>selectCase()
+                .when(cb.equal(root.type(), Admin.class), "ADMIN")
+                .when(cb.equal(root.type(), Realtor.class), "AGENT")
+                .otherwise("CLIENT");
+    }
+
+    private static Class<? extends RemaxUser> roleType(UserRole role) {
+        return switch (role) {
+            case ADMIN -> Admin.class;
+            case AGENT -> Realtor.class;
+            case CLIENT -> Client.class;
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -4,14 +4,19 @@ import fei.upce.nnpro.remax.address.entity.Address;
 import fei.upce.nnpro.remax.address.service.AddressService;
 import fei.upce.nnpro.remax.profile.dto.ProfileUpdateRequest;
 import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
 import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
 import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -22,13 +27,19 @@ public class ProfileService {
     private final RemaxUserRepository userRepository;
     private final AddressService addressService;
     private final PersonalInformationService personalInformationService;
+    private final UserDetailsCache userDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProfileService(RemaxUserRepository userRepository,
                           AddressService addressService,
-                          PersonalInformationService personalInformationService) {
+                          PersonalInformationService personalInformationService,
+                          UserDetailsCache userDetailsCache,
+                          ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.addressService = addressService;
         this.personalInformationService = personalInformationService;
+        this.userDetailsCache = userDetailsCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<RemaxUser> getProfile(Long userId) {
@@ -86,14 +97,25 @@ public class ProfileService {
         user.setEmail(request.getEmail());
         user.setPersonalInformation(savedPi);
         RemaxUser savedUser = userRepository.save(user);
+        userDetailsCache.invalidate(username);
         log.info("Updated profile for username={}", username);
         return savedUser;
     }
 
+    /**
+     * Deletes the account; for a realtor publishes {@link RealtorDeletedEvent} with the listings deleted by the
+     * database cascade.
+     */
+    @Transactional
     public void deleteProfile(String username) {
         log.info("Deleting profile for username={}", username);
         RemaxUser user = userRepository.findByUsername(username).orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (user instanceof Realtor) {
+            List<Long> listingIds = userRepository.findListingIdsByRealtorId(user.getId());
+            eventPublisher.publishEvent(new RealtorDeletedEvent(user.getId(), listingIds));
+        }
         userRepository.delete(user);
+        userDetailsCache.invalidate(username);
         log.info("Deleted profile for username={}", username);
     }
 }
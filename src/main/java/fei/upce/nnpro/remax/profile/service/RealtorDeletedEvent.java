@@ -0,0 +1,12 @@
+package fei.upce.nnpro.remax.profile.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link ProfileService} when a realtor account is deleted. The database deletes the realtor's
+ * listings through the {@code realtor_id} cascade, so listeners learn their ids only from this event.
+ *
+ * @param listingIds listings deleted together with the account
+ */
+public record RealtorDeletedEvent(Long realtorId, List<Long> listingIds) {
+}
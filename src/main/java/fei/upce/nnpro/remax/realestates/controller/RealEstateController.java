@@ -1,13 +1,18 @@
 package fei.upce.nnpro.remax.realestates.controller;
 
+import fei.upce.nnpro.remax.realestates.dto.RealEstateClusterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateCountMode;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateDto;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateFilterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateListView;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateMapper;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateSliceSchemas;
 import fei.upce.nnpro.remax.realestates.entity.RealEstate;
 import fei.upce.nnpro.remax.realestates.service.RealEstateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -15,8 +20,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -82,20 +87,47 @@ public class RealEstateController {
     }
 
     @Operation(summary = "Search and filter properties",
-            description = "Public endpoint to list properties with dynamic filtering (price, region, parameters) and pagination.")
-    @ApiResponse(responseCode = "200", description = "Paginated list of properties retrieved")
+            description = "Public endpoint to list properties with dynamic filtering (price, region, parameters) and pagination. " +
+                    "With view=SUMMARY only the fields needed by listing grids are returned. " +
+                    "Broad searches can skip the total with count=NONE or bound it with count=ESTIMATED.")
+    @ApiResponse(responseCode = "200", description = "Paginated list of properties retrieved",
+            content = @Content(schema = @Schema(oneOf = {RealEstateSliceSchemas.Full.class,
+                    RealEstateSliceSchemas.Summary.class})))
     @GetMapping
-    public ResponseEntity<Page<RealEstateDto>> searchRealEstates(
+    public ResponseEntity<Slice<?>> searchRealEstates(
             @ModelAttribute RealEstateFilterDto filterDto,
+            @Parameter(description = "Row shape: FULL (RealEstateDto) or SUMMARY (RealEstateSummaryDto)")
+            @RequestParam(defaultValue = "FULL") RealEstateListView view,
+            @Parameter(description = "Total: EXACT, ESTIMATED (capped count) or NONE (slice without total)")
+            @RequestParam(defaultValue = "EXACT") RealEstateCountMode count,
             @ParameterObject Pageable pageable) {
 
-        Page<RealEstate> entities = realEstateService.searchRealEstates(filterDto, pageable);
+        if (view == RealEstateListView.SUMMARY) {
+            return ResponseEntity.ok(realEstateService.searchRealEstateSummaries(filterDto, pageable, count));
+        }
 
-        Page<RealEstateDto> dtos = entities.map(realEstateMapper::toDto);
+        Slice<RealEstate> entities = realEstateService.searchRealEstates(filterDto, pageable, count);
+
+        Slice<RealEstateDto> dtos = entities.map(realEstateMapper::toDto);
 
         return ResponseEntity.ok(dtos);
     }
 
+    @Operation(summary = "Map clusters of properties",
+            description = "Public endpoint for the map view. Listings matching the filter inside the viewport " +
+                    "(minLatitude, maxLatitude, minLongitude, maxLongitude) are aggregated per geohash cell " +
+                    "sized by the zoom level, coarser when the viewport would span too many cells.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clusters computed"),
+            @ApiResponse(responseCode = "400", description = "Missing viewport or invalid zoom", content = @Content)
+    })
+    @GetMapping("/clusters")
+    public ResponseEntity<List<RealEstateClusterDto>> getClusters(
+            @ModelAttribute RealEstateFilterDto filterDto,
+            @Parameter(description = "Map zoom level (0-22)") @RequestParam int zoom) {
+        return ResponseEntity.ok(realEstateService.getClusters(filterDto, zoom));
+    }
+
     @Operation(summary = "Get all properties of a given Realtor",
             description = "Public endpoint to retrieve details of properties of a given Realtor.")
     @ApiResponses(value = {
@@ -0,0 +1,31 @@
+package fei.upce.nnpro.remax.realestates.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Map marker aggregating all matching listings within one geohash cell.")
+public class RealEstateClusterDto {
+
+    @Schema(description = "Geohash cell of the cluster; its length follows the zoom level", example = "u2ghx")
+    private String cell;
+
+    @Schema(description = "Number of listings in the cluster", example = "42")
+    private Long count;
+
+    @Schema(description = "Latitude of the centroid of the clustered listings", example = "50.0371")
+    private Double latitude;
+
+    @Schema(description = "Longitude of the centroid of the clustered listings", example = "15.7790")
+    private Double longitude;
+
+    @Schema(description = "Lowest current price in the cluster", example = "2500000.00")
+    private Double minPrice;
+
+    @Schema(description = "Highest current price in the cluster", example = "12900000.00")
+    private Double maxPrice;
+}
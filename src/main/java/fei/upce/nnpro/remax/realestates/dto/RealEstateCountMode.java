@@ -0,0 +1,13 @@
+package fei.upce.nnpro.remax.realestates.dto;
+
+/**
+ * How GET /api/real-estates computes the total of the returned page.
+ */
+public enum RealEstateCountMode {
+    /** Exact count query, the response is a full page. */
+    EXACT,
+    /** Count that stops after a fixed number of matches; totals above it are reported as the cap. */
+    ESTIMATED,
+    /** No count query, the response is a slice that only tells whether a next page exists. */
+    NONE
+}
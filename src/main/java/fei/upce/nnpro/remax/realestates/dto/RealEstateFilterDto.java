@@ -12,6 +12,10 @@ import java.util.Set;
         "Filters are combined using AND logic.")
 public class RealEstateFilterDto {
 
+    @Schema(description = "Free-text search over name, description and address, diacritics-insensitive. " +
+            "Without an explicit sort, results are ordered by relevance.", example = "byt s balkonem Pardubice")
+    private String q;
+
     @Schema(description = "Filter by specific type of property", example = "APARTMENT")
     private RealEstateType realEstateType;
 
@@ -21,6 +25,28 @@ public class RealEstateFilterDto {
     @Schema(description = "Filter by city name (case-insensitive partial match)", example = "Brno")
     private String city;
 
+    @Schema(description = "Latitude of the radius search centre, used together with longitude and radiusKm",
+            example = "50.0343")
+    private Double latitude;
+
+    @Schema(description = "Longitude of the radius search centre", example = "15.7812")
+    private Double longitude;
+
+    @Schema(description = "Maximum great-circle distance from the centre in kilometres", example = "5")
+    private Double radiusKm;
+
+    @Schema(description = "Bounding box: southern edge (all four edges are required together)", example = "49.9")
+    private Double minLatitude;
+
+    @Schema(description = "Bounding box: northern edge", example = "50.2")
+    private Double maxLatitude;
+
+    @Schema(description = "Bounding box: western edge", example = "15.5")
+    private Double minLongitude;
+
+    @Schema(description = "Bounding box: eastern edge", example = "16.0")
+    private Double maxLongitude;
+
     @Schema(description = "Minimum price (in currency units)", example = "2000000")
     private Double minPrice;
 
@@ -0,0 +1,11 @@
+package fei.upce.nnpro.remax.realestates.dto;
+
+/**
+ * Shape of the rows returned by GET /api/real-estates.
+ */
+public enum RealEstateListView {
+    /** Full {@link RealEstateDto} per listing. */
+    FULL,
+    /** Projection-based {@link RealEstateSummaryDto} per listing, no entity hydration. */
+    SUMMARY
+}
@@ -7,7 +7,6 @@ import fei.upce.nnpro.remax.realestates.entity.enums.RealEstateType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -47,10 +46,7 @@ public class RealEstateMapper {
             dto.setRealtorId(entity.getRealtor().getId());
         }
 
-        List<PriceHistory> history = entity.getPriceHistory();
-        if (history != null && !history.isEmpty()) {
-            dto.setPrice(history.getLast().getPrice());
-        }
+        dto.setPrice(entity.getCurrentPrice());
 
         if (entity.getImages() != null && !entity.getImages().isEmpty()) {
             dto.setImages(entity.getImages().stream()
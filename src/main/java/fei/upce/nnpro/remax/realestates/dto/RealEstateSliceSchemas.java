@@ -0,0 +1,56 @@
+package fei.upce.nnpro.remax.realestates.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * OpenAPI schemas of GET /api/real-estates. The endpoint returns {@code Slice<?>} because the row type follows
+ * {@link RealEstateListView}, so springdoc cannot infer it; these classes only describe the JSON written for the
+ * Spring Data {@code Slice} or {@code Page} and are never instantiated.
+ */
+public final class RealEstateSliceSchemas {
+
+    private RealEstateSliceSchemas() {
+    }
+
+    @Getter
+    @Schema(name = "RealEstateSlice", description = "Search result in FULL view")
+    public static class Full extends SliceFields {
+        @Schema(description = "Listings of this slice")
+        private List<RealEstateDto> content;
+    }
+
+    @Getter
+    @Schema(name = "RealEstateSummarySlice", description = "Search result in SUMMARY view")
+    public static class Summary extends SliceFields {
+        @Schema(description = "Listing rows of this slice")
+        private List<RealEstateSummaryDto> content;
+    }
+
+    @Getter
+    abstract static class SliceFields {
+        @Schema(description = "Zero-based page number", example = "0")
+        private int number;
+
+        @Schema(description = "Requested page size", example = "20")
+        private int size;
+
+        @Schema(description = "Rows in this slice", example = "20")
+        private int numberOfElements;
+
+        private boolean first;
+
+        @Schema(description = "Whether no further slice follows")
+        private boolean last;
+
+        private boolean empty;
+
+        @Schema(description = "Matching listings; absent with count=NONE, capped with count=ESTIMATED", example = "137")
+        private Long totalElements;
+
+        @Schema(description = "Number of pages; absent with count=NONE", example = "7")
+        private Integer totalPages;
+    }
+}
@@ -0,0 +1,53 @@
+package fei.upce.nnpro.remax.realestates.dto;
+
+import fei.upce.nnpro.remax.realestates.entity.enums.RealEstateType;
+import fei.upce.nnpro.remax.realestates.entity.enums.Status;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Lightweight listing row returned by the search endpoint in SUMMARY view.")
+public class RealEstateSummaryDto {
+
+    @Schema(description = "Unique identifier of the property", example = "101")
+    private Long id;
+
+    @Schema(description = "Marketing title of the listing", example = "Sunny 3-bedroom apartment in Prague center")
+    private String name;
+
+    @Schema(description = "Type of the property", example = "APARTMENT")
+    private RealEstateType type;
+
+    @Schema(description = "Current listing price in local currency", example = "5500000.00")
+    private Double price;
+
+    @Schema(description = "City of the property address", example = "Praha")
+    private String city;
+
+    @Schema(description = "Internal usable area in square meters", example = "78.5")
+    private double usableArea;
+
+    @Schema(description = "Current availability status", example = "AVAILABLE")
+    private Status status;
+
+    @Schema(description = "ID of the first image of the listing, usable as a thumbnail", example = "10")
+    private Long thumbnailImageId;
+
+    /**
+     * Constructor used by the JPA constructor projection in RealEstateSummaryRepositoryImpl.
+     * The type is selected as its enum name because the polymorphic discriminator is resolved in SQL.
+     */
+    public RealEstateSummaryDto(Long id, String name, String type, Double price, String city,
+                                Double usableArea, Status status, Long thumbnailImageId) {
+        this.id = id;
+        this.name = name;
+        this.type = type != null ? RealEstateType.valueOf(type) : null;
+        this.price = price;
+        this.city = city;
+        this.usableArea = usableArea != null ? usableArea : 0.0;
+        this.status = status;
+        this.thumbnailImageId = thumbnailImageId;
+    }
+}
@@ -4,6 +4,7 @@ import fei.upce.nnpro.remax.realestates.entity.enums.CivicAmenity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -13,6 +14,7 @@ import java.util.Set;
 @Embeddable
 public class CivicAmenities {
 
+    @BatchSize(size = 50)
     @ElementCollection(targetClass = CivicAmenity.class, fetch = FetchType.LAZY)
     @CollectionTable(
             name = "real_estate_civic_amenities",
@@ -0,0 +1,33 @@
+package fei.upce.nnpro.remax.realestates.entity;
+
+import java.util.Collection;
+
+/**
+ * Packs enum sets into {@code long} bit masks, one bit per constant at its ordinal.
+ * The masks are persisted, so constants of the packed enums may only be appended, never reordered.
+ */
+public final class EnumMasks {
+
+    private EnumMasks() {
+    }
+
+    public static <E extends Enum<E>> long of(Collection<E> values) {
+        if (values == null) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (E value : values) {
+            mask |= bit(value);
+        }
+        return mask;
+    }
+
+    public static long bit(Enum<?> value) {
+        int ordinal = value.ordinal();
+        if (ordinal >= Long.SIZE) {
+            throw new IllegalArgumentException("Enum " + value.getDeclaringClass().getSimpleName()
+                    + " has more constants than fit into a bit mask: " + value);
+        }
+        return 1L << ordinal;
+    }
+}
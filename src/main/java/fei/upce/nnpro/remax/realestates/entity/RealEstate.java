@@ -5,11 +5,13 @@ import fei.upce.nnpro.remax.images.entity.Image;
 import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import fei.upce.nnpro.remax.realestates.entity.enums.*;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -22,8 +24,20 @@ import java.util.ArrayList;
 @SuperBuilder
 @NoArgsConstructor
 @Inheritance(strategy = InheritanceType.JOINED)
+@NamedEntityGraph(
+        name = RealEstate.SEARCH_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("address"),
+                @NamedAttributeNode("realtor")
+        }
+)
 public abstract class RealEstate {
 
+    /**
+     * Fetch plan for listing pages: to-one relations are joined, collections are batch loaded.
+     */
+    public static final String SEARCH_GRAPH = "RealEstate.search";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(nullable = false)
@@ -55,6 +69,7 @@ public abstract class RealEstate {
     private ContractType contractType;
 
     @Builder.Default
+    @BatchSize(size = 50)
     @OneToMany(
             mappedBy = "realEstate",
             cascade = CascadeType.ALL,
@@ -62,6 +77,13 @@ public abstract class RealEstate {
     )
     private List<PriceHistory> priceHistory = new ArrayList<>();
 
+    /**
+     * Latest entry of {@link #priceHistory}, denormalized so price filtering can use a plain indexed predicate.
+     * Maintained by RealEstatePriceHelper whenever a new price history entry is recorded.
+     */
+    @Column(name = "current_price")
+    private Double currentPrice;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "price_disclosure", nullable = false)
     private PriceDisclosure priceDisclosure;
@@ -97,14 +119,44 @@ public abstract class RealEstate {
     @Embedded
     private CivicAmenities civicAmenities;
 
+    /**
+     * {@link CivicAmenities#getAmenities()}, {@link TransportPossibilities#getPossibilities()} and
+     * {@link Utilities#getAvailableUtilities()} packed by {@link EnumMasks}, so "contains all" filters are a single
+     * bitwise predicate on this table. Derived state, kept in sync by {@link #refreshFeatureMasks()}.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "civic_amenities_mask", nullable = false)
+    private long civicAmenitiesMask;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "transport_mask", nullable = false)
+    private long transportMask;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "utilities_mask", nullable = false)
+    private long utilitiesMask;
+
     @Column(name = "basement", nullable = false)
     private boolean basement;
 
     @Builder.Default
+    @BatchSize(size = 50)
     @OneToMany(
             mappedBy = "realEstate",
             cascade = CascadeType.ALL,
             orphanRemoval = true
     )
     private List<Image> images = new ArrayList<>();
-}
\ No newline at end of file
+
+    /**
+     * Recomputes the feature masks from the embedded sets. Runs before every insert and update; call it
+     * explicitly after replacing or mutating the sets so the change also marks the entity dirty.
+     */
+    @PrePersist
+    @PreUpdate
+    public void refreshFeatureMasks() {
+        civicAmenitiesMask = civicAmenities != null ? EnumMasks.of(civicAmenities.getAmenities()) : 0L;
+        transportMask = transportPossibilities != null ? EnumMasks.of(transportPossibilities.getPossibilities()) : 0L;
+        utilitiesMask = utilities != null ? EnumMasks.of(utilities.getAvailableUtilities()) : 0L;
+    }
+}
@@ -5,6 +5,7 @@ import fei.upce.nnpro.remax.realestates.entity.enums.UtilityType;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -14,6 +15,7 @@ import java.util.Set;
 @Embeddable
 public class Utilities {
 
+    @BatchSize(size = 50)
     @ElementCollection(targetClass = UtilityType.class, fetch = FetchType.LAZY)
     @CollectionTable(
             name = "real_estate_utilities",
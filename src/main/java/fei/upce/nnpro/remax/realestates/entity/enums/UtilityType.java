@@ -1,5 +1,6 @@
 package fei.upce.nnpro.remax.realestates.entity.enums;
 
+// Ordinals are the bits of real_estate.utilities_mask: append new constants, never reorder
 public enum UtilityType {
     WATER,
     WELL,
@@ -1,11 +1,60 @@
 package fei.upce.nnpro.remax.realestates.repository;
 
+import fei.upce.nnpro.remax.meetings.dto.RealEstateSimplifiedDto;
 import fei.upce.nnpro.remax.realestates.entity.RealEstate;
+import fei.upce.nnpro.remax.realestates.search.RealEstateSearchDocument;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface RealEstateRepository extends JpaRepository<RealEstate, Long>, JpaSpecificationExecutor<RealEstate> {
+public interface RealEstateRepository extends JpaRepository<RealEstate, Long>, JpaSpecificationExecutor<RealEstate>,
+        RealEstateSummaryRepository {
     List<RealEstate> findAllByRealtorId(Long id);
+
+    /**
+     * Search page query. Address and realtor are joined by the entity graph, collections
+     * touched by the mapper are loaded in batches (see @BatchSize on RealEstate).
+     */
+    @Override
+    @EntityGraph(RealEstate.SEARCH_GRAPH)
+    Page<RealEstate> findAll(Specification<RealEstate> spec, Pageable pageable);
+
+    /**
+     * Id and name only, for pickers; no entities or relations are loaded.
+     */
+    @Query(value = "select new fei.upce.nnpro.remax.meetings.dto.RealEstateSimplifiedDto(r.id, r.name) from RealEstate r",
+            countQuery = "select count(r) from RealEstate r")
+    Page<RealEstateSimplifiedDto> findSimplified(Pageable pageable);
+
+    /**
+     * Like {@link #findSimplified(Pageable)}, restricted to names matching {@code namePattern}, a lower-case
+     * LIKE pattern with a backslash as the escape character.
+     */
+    @Query(value = """
+            select new fei.upce.nnpro.remax.meetings.dto.RealEstateSimplifiedDto(r.id, r.name) from RealEstate r
+            where lower(r.name) like :namePattern escape '\\'
+            """,
+            countQuery = "select count(r) from RealEstate r where lower(r.name) like :namePattern escape '\\'")
+    Page<RealEstateSimplifiedDto> findSimplifiedByNameLike(@Param("namePattern") String namePattern, Pageable pageable);
+
+    /**
+     * Text fields of listings with an id above {@code afterId}, in id order, for building the search index
+     * in batches without loading entities.
+     */
+    @Query("""
+            select new fei.upce.nnpro.remax.realestates.search.RealEstateSearchDocument(
+                r.id, r.name, r.description, a.street, a.city, a.postalCode, a.region)
+            from RealEstate r join r.address a
+            where r.id > :afterId
+            order by r.id
+            """)
+    List<RealEstateSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Limit limit);
 }
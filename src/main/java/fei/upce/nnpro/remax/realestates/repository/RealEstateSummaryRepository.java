@@ -0,0 +1,50 @@
+package fei.upce.nnpro.remax.realestates.repository;
+
+import fei.upce.nnpro.remax.realestates.dto.RealEstateClusterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateSummaryDto;
+import fei.upce.nnpro.remax.realestates.entity.RealEstate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for projection and count-free queries over {@link RealEstate}.
+ */
+public interface RealEstateSummaryRepository {
+
+    /**
+     * Selects listing summaries directly into DTOs, so no entities enter the persistence context.
+     */
+    Page<RealEstateSummaryDto> findSummaries(Specification<RealEstate> spec, Pageable pageable);
+
+    /**
+     * Like {@link #findSummaries}, but reads one extra row instead of running a count query.
+     */
+    Slice<RealEstateSummaryDto> findSummarySlice(Specification<RealEstate> spec, Pageable pageable);
+
+    /**
+     * Search page without the count query, fetched with {@link RealEstate#SEARCH_GRAPH}.
+     */
+    Slice<RealEstate> findSlice(Specification<RealEstate> spec, Pageable pageable);
+
+    /**
+     * Ids of all matching listings in {@code sort} order, unordered for {@link Sort#unsorted()}.
+     */
+    List<Long> findIds(Specification<RealEstate> spec, Sort sort);
+
+    /**
+     * Number of matching listings, counted by the database over at most {@code cap} rows: the result is exact
+     * below the cap and equal to it otherwise.
+     */
+    long countUpTo(Specification<RealEstate> spec, int cap);
+
+    /**
+     * Matching listings grouped by the first {@code cellLength} characters of their address geohash, one
+     * aggregated row per cell. Listings without coordinates are left out.
+     */
+    List<RealEstateClusterDto> findClusters(Specification<RealEstate> spec, int cellLength);
+}
@@ -0,0 +1,197 @@
+package fei.upce.nnpro.remax.realestates.repository;
+
+import fei.upce.nnpro.remax.address.entity.Address;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateClusterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateSummaryDto;
+import fei.upce.nnpro.remax.realestates.entity.Apartment;
+import fei.upce.nnpro.remax.realestates.entity.House;
+import fei.upce.nnpro.remax.realestates.entity.RealEstate;
+import fei.upce.nnpro.remax.realestates.entity.enums.RealEstateType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedRoot;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class RealEstateSummaryRepositoryImpl implements RealEstateSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<RealEstateSummaryDto> findSummaries(Specification<RealEstate> spec, Pageable pageable) {
+        TypedQuery<RealEstateSummaryDto> typedQuery = summaryQuery(spec, pageable);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<RealEstateSummaryDto> content = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<RealEstateSummaryDto> findSummarySlice(Specification<RealEstate> spec, Pageable pageable) {
+        return toSlice(summaryQuery(spec, pageable), pageable);
+    }
+
+    @Override
+    public Slice<RealEstate> findSlice(Specification<RealEstate> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RealEstate> query = cb.createQuery(RealEstate.class);
+        Root<RealEstate> root = query.from(RealEstate.class);
+        query.select(root);
+        applySpecification(spec, root, query, cb);
+        applySort(pageable.getSort(), root, query, cb);
+
+        TypedQuery<RealEstate> typedQuery = entityManager.createQuery(query)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(RealEstate.SEARCH_GRAPH));
+        return toSlice(typedQuery, pageable);
+    }
+
+    @Override
+    public List<Long> findIds(Specification<RealEstate> spec, Sort sort) {
+        return idQuery(spec, sort).getResultList();
+    }
+
+    @Override
+    public long countUpTo(Specification<RealEstate> spec, int cap) {
+        // select count(*) from (select id from ... fetch first :cap rows only), so only the number leaves the database
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+        JpaSubQuery<Tuple> ids = query.subquery(Tuple.class);
+        JpaRoot<RealEstate> root = ids.from(RealEstate.class);
+        ids.multiselect(root.get("id").alias("id"));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                ids.where(predicate);
+            }
+        }
+        ids.fetch(cap);
+        JpaDerivedRoot<Tuple> capped = query.from(ids);
+        query.select(cb.count(capped.get("id")));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private TypedQuery<Long> idQuery(Specification<RealEstate> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<RealEstate> root = query.from(RealEstate.class);
+        query.select(root.get("id"));
+        applySpecification(spec, root, query, cb);
+        applySort(sort, root, query, cb);
+        return entityManager.createQuery(query);
+    }
+
+    @Override
+    public List<RealEstateClusterDto> findClusters(Specification<RealEstate> spec, int cellLength) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RealEstateClusterDto> query = cb.createQuery(RealEstateClusterDto.class);
+        Root<RealEstate> root = query.from(RealEstate.class);
+        Join<RealEstate, Address> address = root.join("address");
+        // Literals rather than bind parameters, so the select and group by expressions are identical
+        Expression<String> cell = cb.substring(address.get("geohash"), cb.literal(1), cb.literal(cellLength));
+
+        query.select(cb.construct(RealEstateClusterDto.class,
+                cell,
+                cb.count(root),
+                cb.avg(address.get("latitude")),
+                cb.avg(address.get("longitude")),
+                cb.min(root.get("currentPrice")),
+                cb.max(root.get("currentPrice"))));
+        applySpecification(spec, root, query, cb);
+        query.where(query.getRestriction() != null
+                ? cb.and(query.getRestriction(), cb.isNotNull(address.get("geohash")))
+                : cb.isNotNull(address.get("geohash")));
+        query.groupBy(cell);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private TypedQuery<RealEstateSummaryDto> summaryQuery(Specification<RealEstate> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<RealEstateSummaryDto> query = cb.createQuery(RealEstateSummaryDto.class);
+        Root<RealEstate> root = query.from(RealEstate.class);
+        Join<RealEstate, Address> address = root.join("address");
+
+        Subquery<Long> thumbnail = query.subquery(Long.class);
+        Root<Image> image = thumbnail.from(Image.class);
+        thumbnail.select(cb.min(image.get("id")))
+                .where(cb.equal(image.get("realEstate"), root));
+
+        query.select(cb.construct(RealEstateSummaryDto.class,
+                root.get("id"),
+                root.get("name"),
+                typeName(root, cb),
+                root.get("currentPrice"),
+                address.get("city"),
+                root.get("usableArea"),
+                root.get("status"),
+                thumbnail));
+        applySpecification(spec, root, query, cb);
+        applySort(pageable.getSort(), root, query, cb);
+        return entityManager.createQuery(query);
+    }
+
+    // Reads one row past the page to find out whether a next one exists
+    private static <T> Slice<T> toSlice(TypedQuery<T> typedQuery, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = typedQuery.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private long count(Specification<RealEstate> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<RealEstate> root = query.from(RealEstate.class);
+        query.select(cb.count(root));
+        applySpecification(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(Specification<RealEstate> spec, Root<RealEstate> root,
+                                           CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) return;
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private static void applySort(Sort sort, Root<RealEstate> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+    }
+
+    // The JOINED discriminator is resolved in SQL and mapped back to RealEstateType by name
+    private static Expression<String> typeName(Root<RealEstate> root, CriteriaBuilder cb) {
+        return cb.<String>selectCase()
+                .when(cb.equal(root.type(), Apartment.class), RealEstateType.APARTMENT.name())
+                .when(cb.equal(root.type(), House.class), RealEstateType.HOUSE.name())
+                .otherwise(RealEstateType.LAND.name());
+    }
+}
@@ -0,0 +1,21 @@
+package fei.upce.nnpro.remax.realestates.search;
+
+import fei.upce.nnpro.remax.address.entity.Address;
+import fei.upce.nnpro.remax.realestates.entity.RealEstate;
+import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
+
+/**
+ * Text of a listing as seen by {@link RealEstateSearchIndex}.
+ */
+public record RealEstateSearchDocument(Long id, String name, String description,
+                                       String street, String city, String postalCode, AddressRegion region) {
+
+    public static RealEstateSearchDocument of(RealEstate realEstate) {
+        Address address = realEstate.getAddress();
+        return address == null
+                ? new RealEstateSearchDocument(realEstate.getId(), realEstate.getName(), realEstate.getDescription(),
+                        null, null, null, null)
+                : new RealEstateSearchDocument(realEstate.getId(), realEstate.getName(), realEstate.getDescription(),
+                        address.getStreet(), address.getCity(), address.getPostalCode(), address.getRegion());
+    }
+}
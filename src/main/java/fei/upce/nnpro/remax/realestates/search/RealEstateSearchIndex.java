@@ -0,0 +1,264 @@
+package fei.upce.nnpro.remax.realestates.search;
+
+import fei.upce.nnpro.remax.profile.service.RealtorDeletedEvent;
+import fei.upce.nnpro.remax.realestates.repository.RealEstateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over listing name, description and address. Built once at startup into fresh maps that
+ * replace the live ones only when complete, and kept up to date by RealEstateService after each committed create or
+ * update (address changes included, they go through the same update), and after each committed realtor account
+ * deletion, whose database cascade removes the listings. Every instance holds its own copy.
+ * <p>
+ * A listing matches when every query term is a prefix of one of its terms. Relevance is the sum over the query
+ * terms of field-weighted term frequency times inverse document frequency, with prefix-only matches counted at half.
+ */
+@Component
+public class RealEstateSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RealEstateSearchIndex.class);
+
+    static final int NAME_WEIGHT = 3;
+    static final int ADDRESS_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final int REBUILD_BATCH_SIZE = 1_000;
+
+    private final RealEstateRepository realEstateRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (listing id -> weighted term frequency), sorted for prefix lookups
+    private NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // listing id -> its terms, so an update can drop the old postings
+    private Map<Long, Set<String>> documentTerms = new HashMap<>();
+    // ids indexed or removed while a rebuild runs, null otherwise; guarded by the lock
+    private Set<Long> changedDuringRebuild;
+
+    public RealEstateSearchIndex(RealEstateRepository realEstateRepository) {
+        this.realEstateRepository = realEstateRepository;
+    }
+
+    /**
+     * Builds the index from the database into fresh maps and swaps them in, so searches keep using the previous
+     * index until the new one is complete. Listings indexed or removed meanwhile keep their live state, because a
+     * batch may have been read before their change committed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, Map<Long, Integer>> freshPostings = new TreeMap<>();
+        Map<Long, Set<String>> freshDocumentTerms = new HashMap<>();
+        long afterId = 0;
+        int indexed = 0;
+        try {
+            List<RealEstateSearchDocument> batch;
+            do {
+                batch = realEstateRepository.findSearchDocumentsAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (RealEstateSearchDocument document : batch) {
+                    put(freshPostings, freshDocumentTerms, document.id(), frequencies(document));
+                    afterId = document.id();
+                }
+                indexed += batch.size();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // A batch may have been read before one of these changes committed, so the live state wins
+            for (Long id : changedDuringRebuild) {
+                remove(freshPostings, freshDocumentTerms, id);
+                Set<String> terms = documentTerms.get(id);
+                if (terms != null) {
+                    Map<String, Integer> frequencies = new HashMap<>();
+                    terms.forEach(term -> frequencies.put(term, postings.get(term).get(id)));
+                    put(freshPostings, freshDocumentTerms, id, frequencies);
+                }
+            }
+            postings = freshPostings;
+            documentTerms = freshDocumentTerms;
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built documents={} terms={} in {} ms",
+                indexed, termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds the listing, replacing whatever was indexed for it before.
+     */
+    public void index(RealEstateSearchDocument document) {
+        Map<String, Integer> frequencies = frequencies(document);
+        lock.writeLock().lock();
+        try {
+            put(postings, documentTerms, document.id(), frequencies);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(document.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the listings the database cascade deleted with a realtor account, once the deletion has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void realtorDeleted(RealtorDeletedEvent event) {
+        removeAll(event.listingIds());
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                remove(postings, documentTerms, id);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Removed {} listings from the search index", ids.size());
+    }
+
+    /**
+     * All listings matching every term of {@code query} with their relevance, unordered. Callers that filter the
+     * matches further rank only what is left, so no match is lost to a cut-off.
+     */
+    public Map<Long, Double> match(String query) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return Map.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = score(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Map.of();
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders listing ids by descending score from {@link #match}, ties by id.
+     */
+    public static Comparator<Long> byRelevance(Map<Long, Double> scores) {
+        return Comparator.<Long>comparingDouble(scores::get).reversed().thenComparing(Comparator.naturalOrder());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private Map<Long, Double> score(String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documents = documentTerms.size();
+        for (Map.Entry<String, Map<Long, Integer>> posting
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            double idf = Math.log(1 + (double) documents / posting.getValue().size());
+            double match = posting.getKey().length() == queryTerm.length() ? 1.0 : PREFIX_MATCH_FACTOR;
+            posting.getValue().forEach((id, frequency) -> scores.merge(id, frequency * idf * match, Double::sum));
+        }
+        return scores;
+    }
+
+    // Caller holds the write lock when the maps are the live ones
+    private static void put(NavigableMap<String, Map<Long, Integer>> postings, Map<Long, Set<String>> documentTerms,
+                            Long id, Map<String, Integer> frequencies) {
+        remove(postings, documentTerms, id);
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+        documentTerms.put(id, frequencies.keySet());
+    }
+
+    // Caller holds the write lock when the maps are the live ones
+    private static void remove(NavigableMap<String, Map<Long, Integer>> postings, Map<Long, Set<String>> documentTerms,
+                               Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> documents = postings.get(term);
+            documents.remove(id);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static Map<String, Integer> frequencies(RealEstateSearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, document.name(), NAME_WEIGHT);
+        addTerms(frequencies, document.street(), ADDRESS_WEIGHT);
+        addTerms(frequencies, document.city(), ADDRESS_WEIGHT);
+        addTerms(frequencies, document.postalCode(), ADDRESS_WEIGHT);
+        addTerms(frequencies, document.region() != null ? document.region().name() : null, ADDRESS_WEIGHT);
+        addTerms(frequencies, document.description(), DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextTokenizer.tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package fei.upce.nnpro.remax.realestates.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into search terms: lower case, diacritics folded (so "Králové" and "kralove" are the same term),
+ * one-letter words and common Czech prepositions and conjunctions dropped.
+ */
+public final class TextTokenizer {
+
+    static final int MIN_TERM_LENGTH = 2;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "na", "ve", "do", "od", "po", "ze", "za", "se", "je", "to", "pro", "pri", "nad", "pod", "bez",
+            "ale", "nebo", "ani", "jak", "tak", "ten", "ta", "ty");
+
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
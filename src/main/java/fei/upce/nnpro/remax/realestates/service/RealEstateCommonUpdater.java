@@ -47,6 +47,7 @@ public class RealEstateCommonUpdater {
         updateIfNotNull(dto.getUtilities(), entity::setUtilities);
         updateIfNotNull(dto.getTransportPossibilities(), entity::setTransportPossibilities);
         updateIfNotNull(dto.getCivicAmenities(), entity::setCivicAmenities);
+        entity.refreshFeatureMasks();
     }
 
     /**
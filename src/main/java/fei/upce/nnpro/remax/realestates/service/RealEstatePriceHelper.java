@@ -20,6 +20,7 @@ public class RealEstatePriceHelper {
         PriceHistory history = new PriceHistory(price, realEstate);
 
         realEstate.setPriceHistory(new ArrayList<>(List.of(history)));
+        realEstate.setCurrentPrice(price);
         log.debug("Initialized price history for estate id={} with price={}", realEstate.getId(), price);
     }
 
@@ -35,12 +36,17 @@ public class RealEstatePriceHelper {
                 realEstate.setPriceHistory(new ArrayList<>());
             }
             realEstate.getPriceHistory().add(history);
+            realEstate.setCurrentPrice(newPrice);
 
             log.info("Price changed for estate id={} from={} to={}", realEstate.getId(), currentPrice, newPrice);
         }
     }
 
     private double getCurrentPrice(RealEstate realEstate) {
+        if (realEstate.getCurrentPrice() != null) {
+            return realEstate.getCurrentPrice();
+        }
+        // Entities created before the current_price column existed fall back to the history
         if (realEstate.getPriceHistory() != null && !realEstate.getPriceHistory().isEmpty()) {
             return realEstate.getPriceHistory().getLast().getPrice();
         }
@@ -3,26 +3,45 @@ package fei.upce.nnpro.remax.realestates.service;
 import fei.upce.nnpro.remax.address.dto.AddressDto;
 import fei.upce.nnpro.remax.address.dto.AddressMapper;
 import fei.upce.nnpro.remax.address.entity.Address;
+import fei.upce.nnpro.remax.address.geo.GeoHash;
 import fei.upce.nnpro.remax.address.service.AddressService;
 import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import fei.upce.nnpro.remax.profile.service.ProfileService;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateClusterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateCountMode;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateDto;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateFilterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateSummaryDto;
 import fei.upce.nnpro.remax.realestates.entity.*;
 import fei.upce.nnpro.remax.realestates.factory.RealEstateFactory;
 import fei.upce.nnpro.remax.realestates.factory.strategy.RealEstateUpdateStrategy;
 import fei.upce.nnpro.remax.realestates.repository.RealEstateRepository;
+import fei.upce.nnpro.remax.realestates.search.RealEstateSearchDocument;
+import fei.upce.nnpro.remax.realestates.search.RealEstateSearchIndex;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +49,37 @@ public class RealEstateService {
 
     private static final Logger log = LoggerFactory.getLogger(RealEstateService.class);
 
+    /**
+     * Matches counted by {@link RealEstateCountMode#ESTIMATED} before it stops and reports the cap.
+     */
+    static final int ESTIMATED_COUNT_CAP = 10_000;
+
+    /**
+     * Ids bound into one {@code IN} list when rows of text matches are loaded or clustered.
+     */
+    static final int ID_CHUNK_SIZE = 1_000;
+
+    /**
+     * Most text matches bound into the id query that intersects them with the other filters. Broader terms scan the
+     * ids passing the filters instead, which is cheaper than thousands of bound ids.
+     */
+    static final int CHUNKED_MATCH_LIMIT = 5_000;
+
+    static final int MAX_ZOOM = 22;
+
+    /**
+     * Longest geohash cell length used for map clusters at each zoom level (index). Up to zoom 19 a cluster cell is
+     * roughly 30 to 120 pixels wide on a web-mercator map; length 8 (about 38 x 19 m) is the finest, so from zoom 20
+     * on the cells only grow on screen.
+     */
+    private static final int[] CLUSTER_CELL_LENGTH = {1, 1, 2, 2, 2, 3, 3, 4, 4, 4, 5, 5, 6, 6, 6, 7, 7, 8, 8, 8, 8, 8, 8};
+
+    /**
+     * Most geohash cells a clustered viewport may span. A viewport larger than its zoom suggests is clustered with
+     * shorter cells, so the response never holds more groups than this.
+     */
+    static final int MAX_CLUSTER_CELLS = 512;
+
     // Core Dependencies
     private final RealEstateRepository realEstateRepository;
     private final ProfileService profileService;
@@ -42,6 +92,7 @@ public class RealEstateService {
     private final RealEstatePriceHelper priceHelper;
     private final RealEstateImageHelper imageHelper;
     private final List<RealEstateUpdateStrategy> updateStrategies;
+    private final RealEstateSearchIndex searchIndex;
 
     /**
      * Orchestrates the creation of a new Real Estate property.
@@ -65,7 +116,9 @@ public class RealEstateService {
         imageHelper.handleImages(saved, dto.getImages());
 
         // 5. Final Save to cascade updates
-        return realEstateRepository.save(saved);
+        RealEstate result = realEstateRepository.save(saved);
+        indexAfterCommit(result);
+        return result;
     }
 
     /**
@@ -91,7 +144,9 @@ public class RealEstateService {
             assignRealtor(existing, dto.getRealtorId());
         }
 
-        return realEstateRepository.save(existing);
+        RealEstate result = realEstateRepository.save(existing);
+        indexAfterCommit(result);
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -99,11 +154,84 @@ public class RealEstateService {
         return getByIdOrThrow(id);
     }
 
+    /**
+     * Search with an exact total, text query included.
+     */
     @Transactional(readOnly = true)
     public Page<RealEstate> searchRealEstates(RealEstateFilterDto filter, Pageable pageable) {
-        log.debug("Searching RealEstates with filter: {}", filter);
+        return (Page<RealEstate>) searchRealEstates(filter, pageable, RealEstateCountMode.EXACT);
+    }
+
+    /**
+     * Variant of {@link #searchRealEstates(RealEstateFilterDto, Pageable)} that lets broad searches skip or bound
+     * the count query. Returns a {@link Page} unless {@code countMode} is {@link RealEstateCountMode#NONE}.
+     */
+    @Transactional(readOnly = true)
+    public Slice<RealEstate> searchRealEstates(RealEstateFilterDto filter, Pageable pageable,
+                                              RealEstateCountMode countMode) {
+        log.debug("Searching RealEstates with filter: {} countMode={}", filter, countMode);
+        Specification<RealEstate> spec = RealEstateSpecification.filterBy(filter);
+        if (hasText(filter)) {
+            return searchByText(filter.getQ(), spec, pageable,
+                    (textSpec, page) -> realEstateRepository.findAll(textSpec, page), RealEstate::getId);
+        }
+        return withCountMode(countMode, spec, pageable,
+                () -> realEstateRepository.findAll(spec, pageable),
+                () -> realEstateRepository.findSlice(spec, pageable));
+    }
+
+    /**
+     * Listing variant of {@link #searchRealEstates} that projects straight into summary rows.
+     */
+    @Transactional(readOnly = true)
+    public Slice<RealEstateSummaryDto> searchRealEstateSummaries(RealEstateFilterDto filter, Pageable pageable,
+                                                                RealEstateCountMode countMode) {
+        log.debug("Searching RealEstate summaries with filter: {} countMode={}", filter, countMode);
+        Specification<RealEstate> spec = RealEstateSpecification.filterBy(filter);
+        if (hasText(filter)) {
+            return searchByText(filter.getQ(), spec, pageable,
+                    (textSpec, page) -> realEstateRepository.findSummaries(textSpec, page), RealEstateSummaryDto::getId);
+        }
+        return withCountMode(countMode, spec, pageable,
+                () -> realEstateRepository.findSummaries(spec, pageable),
+                () -> realEstateRepository.findSummarySlice(spec, pageable));
+    }
+
+    /**
+     * Map markers for the viewport given by the bounding box of {@code filter}: matching listings aggregated
+     * per geohash cell, with the cell size following {@code zoom} and coarsened until the viewport spans at most
+     * {@link #MAX_CLUSTER_CELLS} cells.
+     */
+    @Transactional(readOnly = true)
+    public List<RealEstateClusterDto> getClusters(RealEstateFilterDto filter, int zoom) {
+        if (filter.getMinLatitude() == null || filter.getMaxLatitude() == null
+                || filter.getMinLongitude() == null || filter.getMaxLongitude() == null) {
+            throw new IllegalArgumentException(
+                    "Clusters need the viewport: minLatitude, maxLatitude, minLongitude and maxLongitude");
+        }
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        log.debug("Clustering RealEstates zoom={} filter: {}", zoom, filter);
         Specification<RealEstate> spec = RealEstateSpecification.filterBy(filter);
-        return realEstateRepository.findAll(spec, pageable);
+        int cellLength = clusterCellLength(filter, zoom);
+        if (!hasText(filter)) {
+            return realEstateRepository.findClusters(spec, cellLength);
+        }
+
+        Map<Long, Double> scores = searchIndex.match(filter.getQ());
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        // Cells of each chunk are merged, so every matching listing in the viewport is counted
+        Map<String, RealEstateClusterDto> clusters = new LinkedHashMap<>();
+        for (List<Long> chunk : chunks(textMatches(scores, spec, Sort.unsorted()))) {
+            for (RealEstateClusterDto cluster
+                    : realEstateRepository.findClusters(RealEstateSpecification.withIds(chunk), cellLength)) {
+                clusters.merge(cluster.getCell(), cluster, RealEstateService::mergeClusters);
+            }
+        }
+        return new ArrayList<>(clusters.values());
     }
 
     @Transactional(readOnly = true)
@@ -115,6 +243,123 @@ public class RealEstateService {
     // PRIVATE HELPER METHODS (Orchestration Logic)
     // =========================================================================
 
+    /**
+     * Full-text search combined with the other filters. All index matches are intersected with the listings passing
+     * {@code spec} before anything is ordered or cut, so the page and the total are exact. An explicit sort is applied
+     * by the id query; otherwise the matches are ranked by relevance. Only the rows of the requested page are loaded.
+     */
+    private <T> Page<T> searchByText(String text, Specification<RealEstate> spec, Pageable pageable,
+                                     PageLoader<T> loader, Function<T, Long> idOf) {
+        Map<Long, Double> scores = searchIndex.match(text);
+        if (scores.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        List<Long> matching = textMatches(scores, spec, pageable.getSort());
+        List<Long> pageIds = pageable.isPaged()
+                ? matching.subList(Math.min((int) pageable.getOffset(), matching.size()),
+                        Math.min((int) pageable.getOffset() + pageable.getPageSize(), matching.size()))
+                : matching;
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, matching.size());
+        }
+
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < pageIds.size(); i++) {
+            position.put(pageIds.get(i), i);
+        }
+        List<T> rows = new ArrayList<>(pageIds.size());
+        for (List<Long> chunk : chunks(pageIds)) {
+            rows.addAll(loader.load(RealEstateSpecification.withIds(chunk), Pageable.unpaged()).getContent());
+        }
+        rows.sort(Comparator.comparingInt(row -> position.get(idOf.apply(row))));
+        return new PageImpl<>(rows, pageable, matching.size());
+    }
+
+    /**
+     * Ids of the listings that pass {@code spec} and match the text, in {@code sort} order or by relevance when
+     * unsorted. Up to {@link #CHUNKED_MATCH_LIMIT} matches are bound into the id query, so the cost follows the match
+     * set; a broader match set instead reads the ids of every listing passing the other filters and keeps the matches.
+     */
+    private List<Long> textMatches(Map<Long, Double> scores, Specification<RealEstate> spec, Sort sort) {
+        List<Long> passing;
+        if (scores.size() <= CHUNKED_MATCH_LIMIT) {
+            // One query for all chunks, so an explicit sort orders across them
+            Specification<RealEstate> matched = Specification.anyOf(chunks(new ArrayList<>(scores.keySet())).stream()
+                    .map(RealEstateSpecification::withIds)
+                    .toList());
+            passing = realEstateRepository.findIds(spec.and(matched), sort);
+        } else {
+            passing = realEstateRepository.findIds(spec, sort).stream().filter(scores::containsKey).toList();
+        }
+        return sort.isSorted() ? passing : passing.stream().sorted(RealEstateSearchIndex.byRelevance(scores)).toList();
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static int clusterCellLength(RealEstateFilterDto viewport, int zoom) {
+        int cellLength = CLUSTER_CELL_LENGTH[zoom];
+        while (cellLength > 1 && GeoHash.cellCount(viewport.getMinLatitude(), viewport.getMinLongitude(),
+                viewport.getMaxLatitude(), viewport.getMaxLongitude(), cellLength) > MAX_CLUSTER_CELLS) {
+            cellLength--;
+        }
+        return cellLength;
+    }
+
+    private static RealEstateClusterDto mergeClusters(RealEstateClusterDto a, RealEstateClusterDto b) {
+        long count = a.getCount() + b.getCount();
+        return new RealEstateClusterDto(a.getCell(), count,
+                (a.getLatitude() * a.getCount() + b.getLatitude() * b.getCount()) / count,
+                (a.getLongitude() * a.getCount() + b.getLongitude() * b.getCount()) / count,
+                a.getMinPrice() == null ? b.getMinPrice()
+                        : b.getMinPrice() == null ? a.getMinPrice() : Math.min(a.getMinPrice(), b.getMinPrice()),
+                a.getMaxPrice() == null ? b.getMaxPrice()
+                        : b.getMaxPrice() == null ? a.getMaxPrice() : Math.max(a.getMaxPrice(), b.getMaxPrice()));
+    }
+
+    @FunctionalInterface
+    private interface PageLoader<T> {
+        Page<T> load(Specification<RealEstate> spec, Pageable pageable);
+    }
+
+    private static boolean hasText(RealEstateFilterDto filter) {
+        return filter.getQ() != null && !filter.getQ().isBlank();
+    }
+
+    // The index only sees committed data, so a rolled-back write never becomes searchable
+    private void indexAfterCommit(RealEstate realEstate) {
+        RealEstateSearchDocument document = RealEstateSearchDocument.of(realEstate);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            searchIndex.index(document);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                searchIndex.index(document);
+            }
+        });
+    }
+
+    private <T> Slice<T> withCountMode(RealEstateCountMode countMode, Specification<RealEstate> spec, Pageable pageable,
+                                       Supplier<Page<T>> exact, Supplier<Slice<T>> slice) {
+        if (countMode == null || countMode == RealEstateCountMode.EXACT) {
+            return exact.get();
+        }
+        Slice<T> content = slice.get();
+        if (countMode == RealEstateCountMode.NONE) {
+            return content;
+        }
+        // A short last page already tells the exact total, otherwise count up to the cap
+        return PageableExecutionUtils.getPage(content.getContent(), pageable,
+                () -> realEstateRepository.countUpTo(spec, ESTIMATED_COUNT_CAP));
+    }
+
     private RealEstate getByIdOrThrow(Long id) {
         return realEstateRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("RealEstate with ID " + id + " not found"));
@@ -1,6 +1,7 @@
 package fei.upce.nnpro.remax.realestates.service;
 
 import fei.upce.nnpro.remax.address.entity.Address;
+import fei.upce.nnpro.remax.address.geo.GeoHash;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateFilterDto;
 import fei.upce.nnpro.remax.realestates.entity.*;
 import fei.upce.nnpro.remax.realestates.entity.enums.*;
@@ -11,14 +12,23 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
 
 public class RealEstateSpecification {
 
+    /** Geohash cells a geo filter may OR together before falling back to coarser cells. */
+    static final int MAX_GEO_CELLS = 32;
+
+    static final double MAX_RADIUS_KM = 500;
+
     // 1. Main Entry Point (The Orchestrator)
     public static Specification<RealEstate> filterBy(RealEstateFilterDto criteria) {
         return Specification
                 .where(withRealEstateType(criteria.getRealEstateType()))
                 .and(withLocation(criteria.getRegion(), criteria.getCity()))
+                .and(withinRadius(criteria.getLatitude(), criteria.getLongitude(), criteria.getRadiusKm()))
+                .and(withinBoundingBox(criteria.getMinLatitude(), criteria.getMinLongitude(),
+                        criteria.getMaxLatitude(), criteria.getMaxLongitude()))
                 .and(withPriceRange(criteria.getMinPrice(), criteria.getMaxPrice()))
                 .and(withAreaRange(criteria.getMinArea(), criteria.getMaxArea()))
                 .and(withStatus(criteria.getStatus()))
@@ -26,8 +36,14 @@ public class RealEstateSpecification {
                 .and(withCivicAmenities(criteria.getCivicAmenities()))
                 .and(withTransport(criteria.getTransportPossibilities()))
                 .and(withUtilities(criteria.getUtilityTypes()))
-                .and(withInternet(criteria.getInternetConnection()))
-                .and(applyDistinct());
+                .and(withInternet(criteria.getInternetConnection()));
+    }
+
+    /**
+     * Restricts the search to the given listings, e.g. the matches of the full-text index.
+     */
+    public static Specification<RealEstate> withIds(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
     }
 
     // ---------------------------------------------------------
@@ -47,7 +63,7 @@ public class RealEstateSpecification {
     }
 
     // ---------------------------------------------------------
-    // 3. Location Filters (Grouped to share the Join)
+    // 3. Location Filters (EXISTS semi-join, so no row multiplication and no DISTINCT)
     // ---------------------------------------------------------
     private static Specification<RealEstate> withLocation(AddressRegion region, String city) {
         return (root, query, cb) -> {
@@ -55,47 +71,133 @@ public class RealEstateSpecification {
                 return null;
             }
 
-            Join<RealEstate, Address> addressJoin = root.join("address", JoinType.LEFT);
+            Subquery<Long> matchingAddress = query.subquery(Long.class);
+            Root<Address> address = matchingAddress.from(Address.class);
             List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(address.get("id"), root.get("address").get("id")));
 
             if (region != null) {
-                predicates.add(cb.equal(addressJoin.get("region"), region));
+                predicates.add(cb.equal(address.get("region"), region));
             }
 
             if (city != null && !city.isBlank()) {
                 predicates.add(cb.like(
-                        cb.lower(addressJoin.get("city")),
+                        cb.lower(address.get("city")),
                         "%" + city.toLowerCase() + "%"
                 ));
             }
 
-            return cb.and(predicates.toArray(new Predicate[0]));
+            matchingAddress.select(address.get("id")).where(predicates.toArray(new Predicate[0]));
+            return cb.exists(matchingAddress);
         };
     }
 
     // ---------------------------------------------------------
-    // 4. Price Filter (Complex Subquery Logic)
+    // 3b. Geo Filters (geohash cell pruning over an index, then exact checks)
     // ---------------------------------------------------------
-    private static Specification<RealEstate> withPriceRange(Double minPrice, Double maxPrice) {
+    private static Specification<RealEstate> withinRadius(Double latitude, Double longitude, Double radiusKm) {
+        if (latitude == null && longitude == null && radiusKm == null) {
+            return (root, query, cb) -> null;
+        }
+        if (latitude == null || longitude == null || radiusKm == null) {
+            throw new IllegalArgumentException("Radius search needs latitude, longitude and radiusKm");
+        }
+        requireCoordinates(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("radiusKm must be greater than 0 and at most " + MAX_RADIUS_KM);
+        }
+
+        // Box around the circle for pruning; near the poles it spans every longitude
+        double angularRadius = radiusKm / GeoHash.EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius);
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double lonDelta = Math.sin(angularRadius) < cosLat
+                ? Math.toDegrees(Math.asin(Math.sin(angularRadius) / cosLat))
+                : 180;
+
+        // Haversine: sin²(Δφ/2) + cos φ0 · cos φ · sin²(Δλ/2) <= sin²(r / 2R), with no asin/sqrt in SQL
+        double centerLat = Math.toRadians(latitude);
+        double centerLon = Math.toRadians(longitude);
+        double maxHaversine = Math.pow(Math.sin(angularRadius / 2), 2);
+        return withinArea(latitude - latDelta, longitude - lonDelta, latitude + latDelta, longitude + lonDelta,
+                (address, cb) -> {
+                    Expression<Double> lat = cb.prod(address.<Double>get("latitude"), Math.PI / 180);
+                    Expression<Double> lon = cb.prod(address.<Double>get("longitude"), Math.PI / 180);
+                    Expression<Double> sinHalfDLat = sin(cb, cb.prod(cb.diff(lat, centerLat), 0.5));
+                    Expression<Double> sinHalfDLon = sin(cb, cb.prod(cb.diff(lon, centerLon), 0.5));
+                    Expression<Double> haversine = cb.sum(
+                            cb.prod(sinHalfDLat, sinHalfDLat),
+                            cb.prod(cb.prod(cb.function("cos", Double.class, lat), Math.cos(centerLat)),
+                                    cb.prod(sinHalfDLon, sinHalfDLon)));
+                    return cb.le(haversine, maxHaversine);
+                });
+    }
+
+    private static Specification<RealEstate> withinBoundingBox(Double minLat, Double minLon,
+                                                               Double maxLat, Double maxLon) {
+        if (minLat == null && minLon == null && maxLat == null && maxLon == null) {
+            return (root, query, cb) -> null;
+        }
+        if (minLat == null || minLon == null || maxLat == null || maxLon == null) {
+            throw new IllegalArgumentException(
+                    "Bounding box needs minLatitude, maxLatitude, minLongitude and maxLongitude");
+        }
+        requireCoordinates(minLat, minLon);
+        requireCoordinates(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box minimum must not exceed its maximum");
+        }
+        return withinArea(minLat, minLon, maxLat, maxLon, (address, cb) -> null);
+    }
+
+    // EXISTS over address: any of the covering cells (index range scans), the box, then the exact check
+    private static Specification<RealEstate> withinArea(
+            double minLat, double minLon, double maxLat, double maxLon,
+            BiFunction<Root<Address>, CriteriaBuilder, Predicate> exactCheck) {
+        Set<String> cells = GeoHash.cover(minLat, minLon, maxLat, maxLon, MAX_GEO_CELLS);
         return (root, query, cb) -> {
-            if (minPrice == null && maxPrice == null) return null;
+            Subquery<Long> matchingAddress = query.subquery(Long.class);
+            Root<Address> address = matchingAddress.from(Address.class);
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(address.get("id"), root.get("address").get("id")));
+            predicates.add(cb.or(cells.stream()
+                    .map(cell -> cb.like(address.get("geohash"), cell + "%"))
+                    .toArray(Predicate[]::new)));
+            predicates.add(cb.between(address.get("latitude"), minLat, maxLat));
+            predicates.add(cb.between(address.get("longitude"), minLon, maxLon));
+            Predicate exact = exactCheck.apply(address, cb);
+            if (exact != null) {
+                predicates.add(exact);
+            }
 
-            // Create Subquery
-            Subquery<Double> priceSubquery = query.subquery(Double.class);
-            Root<PriceHistory> priceRoot = priceSubquery.from(PriceHistory.class);
+            matchingAddress.select(address.get("id")).where(predicates.toArray(new Predicate[0]));
+            return cb.exists(matchingAddress);
+        };
+    }
 
-            priceSubquery.select(priceRoot.get("price"))
-                    .where(cb.equal(priceRoot.get("realEstate"), root));
+    private static Expression<Double> sin(CriteriaBuilder cb, Expression<Double> radians) {
+        return cb.function("sin", Double.class, radians);
+    }
+
+    private static void requireCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range: " + latitude + ", " + longitude);
+        }
+    }
 
+    // ---------------------------------------------------------
+    // 4. Price Filter (Denormalized current price column)
+    // ---------------------------------------------------------
+    private static Specification<RealEstate> withPriceRange(Double minPrice, Double maxPrice) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             if (minPrice != null) {
-                predicates.add(cb.greaterThanOrEqualTo(priceSubquery, minPrice));
+                predicates.add(cb.greaterThanOrEqualTo(root.get("currentPrice"), minPrice));
             }
             if (maxPrice != null) {
-                predicates.add(cb.lessThanOrEqualTo(priceSubquery, maxPrice));
+                predicates.add(cb.lessThanOrEqualTo(root.get("currentPrice"), maxPrice));
             }
-
-            return cb.and(predicates.toArray(new Predicate[0]));
+            return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
@@ -129,36 +231,28 @@ public class RealEstateSpecification {
     // 6. Embedded Collection Filters
     // ---------------------------------------------------------
 
-    // Helper method to reduce code duplication for "contains all" logic
-    private static <T> Specification<RealEstate> withCollectionAttribute(
-            String embeddableField, String collectionField, Collection<T> criteriaSet) {
+    // "Contains all" over the packed feature masks (see RealEstate#refreshFeatureMasks):
+    // (mask & required) = required, one predicate on real_estate instead of a subquery per item
+    private static <E extends Enum<E>> Specification<RealEstate> withAllFlags(String maskField, Collection<E> required) {
         return (root, query, cb) -> {
-            if (criteriaSet == null || criteriaSet.isEmpty()) return null;
-
-            List<Predicate> predicates = new ArrayList<>();
-
-            predicates.add(cb.isNotNull(root.get(embeddableField)));
-
-            Expression<Set<T>> collectionPath = root.get(embeddableField).get(collectionField);
+            if (required == null || required.isEmpty()) return null;
 
-            for (T item : criteriaSet) {
-                predicates.add(cb.isMember(item, collectionPath));
-            }
-
-            return cb.and(predicates.toArray(new Predicate[0]));
+            long requiredMask = EnumMasks.of(required);
+            Expression<Long> masked = cb.function("bitand", Long.class, root.get(maskField), cb.literal(requiredMask));
+            return cb.equal(masked, requiredMask);
         };
     }
 
     private static Specification<RealEstate> withCivicAmenities(Set<CivicAmenity> amenities) {
-        return withCollectionAttribute("civicAmenities", "amenities", amenities);
+        return withAllFlags("civicAmenitiesMask", amenities);
     }
 
     private static Specification<RealEstate> withTransport(Set<TransportPossibility> transport) {
-        return withCollectionAttribute("transportPossibilities", "possibilities", transport);
+        return withAllFlags("transportMask", transport);
     }
 
     private static Specification<RealEstate> withUtilities(Set<UtilityType> utilities) {
-        return withCollectionAttribute("utilities", "availableUtilities", utilities);
+        return withAllFlags("utilitiesMask", utilities);
     }
 
     private static Specification<RealEstate> withInternet(InternetConnectionType connection) {
@@ -170,16 +264,4 @@ public class RealEstateSpecification {
             );
         };
     }
-
-    // ---------------------------------------------------------
-    // 7. Utility / Config
-    // ---------------------------------------------------------
-    private static Specification<RealEstate> applyDistinct() {
-        return (root, query, cb) -> {
-            if (query != null && RealEstate.class.equals(query.getResultType())) {
-                query.distinct(true);
-            }
-            return null; // Return null creates no predicate, just modifies query side-effect
-        };
-    }
 }
@@ -2,6 +2,7 @@ package fei.upce.nnpro.remax.review.controller;
 
 import fei.upce.nnpro.remax.review.dto.RealtorSimplifiedDto;
 import fei.upce.nnpro.remax.review.dto.ReviewDto;
+import fei.upce.nnpro.remax.review.dto.ReviewSliceDto;
 import fei.upce.nnpro.remax.review.dto.ReviewStatisticsDto;
 import fei.upce.nnpro.remax.review.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,10 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -85,6 +90,30 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.getReviewsByRealtor(realtorId));
     }
 
+    @Operation(summary = "Get a page of reviews for a Realtor",
+            description = "Paginated reviews of a specific Realtor. Defaults to newest first; the id is always used as a tiebreaker.")
+    @ApiResponse(responseCode = "200", description = "Page of reviews retrieved")
+    @GetMapping("/realtor/{realtorId}/page")
+    public ResponseEntity<Page<ReviewDto>> getReviewPageByRealtor(
+            @Parameter(description = "ID of the realtor") @PathVariable Long realtorId,
+            @ParameterObject @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(reviewService.getReviewsByRealtor(realtorId, pageable));
+    }
+
+    @Operation(summary = "Get a slice of reviews for a Realtor",
+            description = "Cursor (keyset) pagination, newest first. Pass nextCursor of the previous response to get the next slice.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Slice of reviews retrieved"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    @GetMapping("/realtor/{realtorId}/slice")
+    public ResponseEntity<ReviewSliceDto> getReviewSliceByRealtor(
+            @Parameter(description = "ID of the realtor") @PathVariable Long realtorId,
+            @Parameter(description = "Cursor returned by the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(reviewService.getReviewSlice(realtorId, cursor, size));
+    }
+
     @Operation(summary = "Get all Realtors simplified", description = "Retrieves a list of all Realtors simplified.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of simplified Realtors retrieved"),
@@ -108,7 +137,27 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.getRealtorStatistics(realtorId));
     }
 
-    @Operation(summary = "List all reviews", description = "Retrieves all reviews in the system.")
+    @Operation(summary = "Get a page of all reviews", description = "Paginated reviews in the system. Defaults to newest first.")
+    @ApiResponse(responseCode = "200", description = "Page of reviews retrieved")
+    @GetMapping("/page")
+    public ResponseEntity<Page<ReviewDto>> getReviewPage(@ParameterObject @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(reviewService.listReviews(pageable));
+    }
+
+    @Operation(summary = "Get a slice of all reviews",
+            description = "Cursor (keyset) pagination over all reviews, newest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Slice of reviews retrieved"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    @GetMapping("/slice")
+    public ResponseEntity<ReviewSliceDto> getReviewSlice(
+            @Parameter(description = "Cursor returned by the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(reviewService.getReviewSlice(null, cursor, size));
+    }
+
+    @Operation(summary = "List all reviews", description = "Retrieves all reviews in the system. Prefer /page or /slice for large data sets.")
     @ApiResponse(responseCode = "200", description = "List of all reviews")
     @GetMapping
     public ResponseEntity<List<ReviewDto>> getAllReviews() {
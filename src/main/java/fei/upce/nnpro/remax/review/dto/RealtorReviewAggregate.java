@@ -0,0 +1,14 @@
+package fei.upce.nnpro.remax.review.dto;
+
+/**
+ * Review count and per-dimension averages of one realtor, computed by the database.
+ * Averages are {@code null} when the realtor has no reviews.
+ */
+public record RealtorReviewAggregate(
+        Long count,
+        Double averageOverall,
+        Double averageSpeed,
+        Double averageCommunication,
+        Double averageProfessionality,
+        Double averageFairness) {
+}
@@ -0,0 +1,18 @@
+package fei.upce.nnpro.remax.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "One slice of reviews, newest first, with the cursor of the next slice")
+public class ReviewSliceDto {
+    @Schema(description = "Reviews of this slice")
+    private List<ReviewDto> items;
+
+    @Schema(description = "Opaque cursor for the next slice; null when this is the last one", example = "aWQ6MTIz")
+    private String nextCursor;
+}
@@ -0,0 +1,76 @@
+package fei.upce.nnpro.remax.review.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Review count and running rating sums of one realtor, maintained by
+ * {@link fei.upce.nnpro.remax.review.service.RealtorRatingSummaryService} whenever a review changes,
+ * so statistics are read with a primary-key lookup instead of aggregating the review table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "realtor_rating_summary")
+public class RealtorRatingSummary {
+
+    @Id
+    @Column(name = "realtor_id", nullable = false)
+    private Long realtorId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "sum_overall", nullable = false)
+    private long sumOverall;
+
+    @Column(name = "sum_speed", nullable = false)
+    private long sumSpeed;
+
+    @Column(name = "sum_communication", nullable = false)
+    private long sumCommunication;
+
+    @Column(name = "sum_professionality", nullable = false)
+    private long sumProfessionality;
+
+    @Column(name = "sum_fairness", nullable = false)
+    private long sumFairness;
+
+    /**
+     * Used by aggregate queries computing the summary from review rows.
+     */
+    public RealtorRatingSummary(Long realtorId, Long reviewCount, Long sumOverall, Long sumSpeed,
+                                Long sumCommunication, Long sumProfessionality, Long sumFairness) {
+        this.realtorId = realtorId;
+        this.reviewCount = reviewCount;
+        this.sumOverall = sumOverall;
+        this.sumSpeed = sumSpeed;
+        this.sumCommunication = sumCommunication;
+        this.sumProfessionality = sumProfessionality;
+        this.sumFairness = sumFairness;
+    }
+
+    public boolean sameTotalsAs(RealtorRatingSummary other) {
+        return reviewCount == other.reviewCount
+                && sumOverall == other.sumOverall
+                && sumSpeed == other.sumSpeed
+                && sumCommunication == other.sumCommunication
+                && sumProfessionality == other.sumProfessionality
+                && sumFairness == other.sumFairness;
+    }
+
+    public void copyTotalsFrom(RealtorRatingSummary other) {
+        reviewCount = other.reviewCount;
+        sumOverall = other.sumOverall;
+        sumSpeed = other.sumSpeed;
+        sumCommunication = other.sumCommunication;
+        sumProfessionality = other.sumProfessionality;
+        sumFairness = other.sumFairness;
+    }
+}
@@ -0,0 +1,66 @@
+package fei.upce.nnpro.remax.review.repository;
+
+import fei.upce.nnpro.remax.review.entity.RealtorRatingSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RealtorRatingSummaryRepository extends JpaRepository<RealtorRatingSummary, Long> {
+
+    /**
+     * Adds the deltas in place, so concurrent review changes of the same realtor never lose an update.
+     *
+     * @return number of updated rows, {@code 0} when the realtor has no summary row yet
+     */
+    @Modifying
+    @Query("""
+            update RealtorRatingSummary s
+            set s.reviewCount = s.reviewCount + :count,
+                s.sumOverall = s.sumOverall + :overall,
+                s.sumSpeed = s.sumSpeed + :speed,
+                s.sumCommunication = s.sumCommunication + :communication,
+                s.sumProfessionality = s.sumProfessionality + :professionality,
+                s.sumFairness = s.sumFairness + :fairness
+            where s.realtorId = :realtorId
+            """)
+    int applyDelta(@Param("realtorId") Long realtorId,
+                   @Param("count") long count,
+                   @Param("overall") long overall,
+                   @Param("speed") long speed,
+                   @Param("communication") long communication,
+                   @Param("professionality") long professionality,
+                   @Param("fairness") long fairness);
+
+    /**
+     * Creates the summary of a realtor from the review rows unless a summary row exists already, including one
+     * inserted by a concurrent transaction that has not committed yet: the insert waits for it and then does nothing
+     * instead of failing on the primary key.
+     *
+     * @return number of inserted rows, {@code 0} when the row existed or the realtor has no reviews
+     */
+    @Modifying
+    @Query("""
+            insert into RealtorRatingSummary (realtorId, reviewCount, sumOverall, sumSpeed, sumCommunication,
+                sumProfessionality, sumFairness)
+            select r.realtor.id, count(r), sum(r.overall), sum(r.speed), sum(r.communication),
+                sum(r.professionality), sum(r.fairness)
+            from Review r
+            where r.realtor.id = :realtorId
+            group by r.realtor.id
+            on conflict (realtorId) do nothing
+            """)
+    int insertFromReviewsIfAbsent(@Param("realtorId") Long realtorId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from RealtorRatingSummary s where s.realtorId = :realtorId")
+    Optional<RealtorRatingSummary> findForUpdate(@Param("realtorId") Long realtorId);
+
+    @Query("select s.realtorId from RealtorRatingSummary s")
+    List<Long> findAllRealtorIds();
+}
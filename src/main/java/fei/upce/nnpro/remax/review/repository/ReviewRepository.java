@@ -1,10 +1,68 @@
 package fei.upce.nnpro.remax.review.repository;
 
+import fei.upce.nnpro.remax.review.dto.RealtorReviewAggregate;
+import fei.upce.nnpro.remax.review.dto.ReviewDto;
+import fei.upce.nnpro.remax.review.entity.RealtorRatingSummary;
 import fei.upce.nnpro.remax.review.entity.Review;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findAllByRealtorId(Long realtorId);
-}
\ No newline at end of file
+
+    @Query("""
+            select new fei.upce.nnpro.remax.review.dto.RealtorReviewAggregate(
+                count(r), avg(r.overall), avg(r.speed), avg(r.communication), avg(r.professionality), avg(r.fairness))
+            from Review r
+            where r.realtor.id = :realtorId
+            """)
+    RealtorReviewAggregate aggregateByRealtorId(@Param("realtorId") Long realtorId);
+
+    /**
+     * Rating summary computed from the review rows; empty when the realtor has no reviews.
+     */
+    @Query("""
+            select new fei.upce.nnpro.remax.review.entity.RealtorRatingSummary(
+                r.realtor.id, count(r), sum(r.overall), sum(r.speed), sum(r.communication),
+                sum(r.professionality), sum(r.fairness))
+            from Review r
+            where r.realtor.id = :realtorId
+            group by r.realtor.id
+            """)
+    Optional<RealtorRatingSummary> summarizeByRealtorId(@Param("realtorId") Long realtorId);
+
+    @Query("select distinct r.realtor.id from Review r")
+    List<Long> findReviewedRealtorIds();
+
+    String DTO_SELECT = """
+            select new fei.upce.nnpro.remax.review.dto.ReviewDto(
+                r.id, r.overall, r.speed, r.communication, r.professionality, r.fairness,
+                r.text, r.realtor.id, r.author.id, r.clientDisplayName)
+            from Review r
+            """;
+
+    @Query(value = DTO_SELECT, countQuery = "select count(r) from Review r")
+    Page<ReviewDto> findDtoPage(Pageable pageable);
+
+    @Query(value = DTO_SELECT + "where r.realtor.id = :realtorId",
+            countQuery = "select count(r) from Review r where r.realtor.id = :realtorId")
+    Page<ReviewDto> findDtoPageByRealtorId(@Param("realtorId") Long realtorId, Pageable pageable);
+
+    /**
+     * Newest reviews first; pass the id of the last review of the previous slice as {@code beforeId}.
+     */
+    @Query(DTO_SELECT + "where r.id < :beforeId order by r.id desc")
+    List<ReviewDto> findDtoSliceBefore(@Param("beforeId") Long beforeId, Limit limit);
+
+    @Query(DTO_SELECT + "where r.realtor.id = :realtorId and r.id < :beforeId order by r.id desc")
+    List<ReviewDto> findDtoSliceByRealtorIdBefore(@Param("realtorId") Long realtorId,
+                                                 @Param("beforeId") Long beforeId,
+                                                 Limit limit);
+}
@@ -0,0 +1,56 @@
+package fei.upce.nnpro.remax.review.service;
+
+import fei.upce.nnpro.remax.review.repository.RealtorRatingSummaryRepository;
+import fei.upce.nnpro.remax.review.repository.ReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Periodically rebuilds realtor rating summaries from the review rows, repairing drift caused by
+ * changes that bypassed {@link ReviewService} (manual SQL, restored backups). Each realtor is
+ * reconciled in its own short transaction.
+ */
+@Component
+public class RealtorRatingSummaryReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtorRatingSummaryReconciliationJob.class);
+
+    private final RealtorRatingSummaryService summaryService;
+    private final RealtorRatingSummaryRepository summaryRepository;
+    private final ReviewRepository reviewRepository;
+
+    public RealtorRatingSummaryReconciliationJob(RealtorRatingSummaryService summaryService,
+                                                 RealtorRatingSummaryRepository summaryRepository,
+                                                 ReviewRepository reviewRepository) {
+        this.summaryService = summaryService;
+        this.summaryRepository = summaryRepository;
+        this.reviewRepository = reviewRepository;
+    }
+
+    /**
+     * @return number of corrected summaries
+     */
+    @Scheduled(cron = "${remax.reviews.rating-summary-reconcile-cron:0 30 3 * * *}")
+    public int reconcileAll() {
+        Set<Long> realtorIds = new TreeSet<>(reviewRepository.findReviewedRealtorIds());
+        realtorIds.addAll(summaryRepository.findAllRealtorIds());
+
+        int corrected = 0;
+        for (Long realtorId : realtorIds) {
+            try {
+                if (summaryService.reconcile(realtorId)) {
+                    corrected++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to reconcile rating summary for realtor id={}", realtorId, e);
+            }
+        }
+        log.info("Reconciled {} realtor rating summaries, {} corrected", realtorIds.size(), corrected);
+        return corrected;
+    }
+}
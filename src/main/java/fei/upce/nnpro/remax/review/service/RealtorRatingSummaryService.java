@@ -0,0 +1,113 @@
+package fei.upce.nnpro.remax.review.service;
+
+import fei.upce.nnpro.remax.review.entity.RealtorRatingSummary;
+import fei.upce.nnpro.remax.review.entity.Review;
+import fei.upce.nnpro.remax.review.repository.RealtorRatingSummaryRepository;
+import fei.upce.nnpro.remax.review.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Keeps {@link RealtorRatingSummary} rows in step with the review table. Called from {@link ReviewService}
+ * inside the transaction that changes the review, so the summary commits or rolls back together with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class RealtorRatingSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtorRatingSummaryService.class);
+
+    private final RealtorRatingSummaryRepository summaryRepository;
+    private final ReviewRepository reviewRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<RealtorRatingSummary> getSummary(Long realtorId) {
+        return summaryRepository.findById(realtorId);
+    }
+
+    @Transactional
+    public void reviewAdded(Review review) {
+        apply(review.getRealtor().getId(), Ratings.of(review).delta(1));
+    }
+
+    @Transactional
+    public void reviewRemoved(Review review) {
+        apply(review.getRealtor().getId(), Ratings.of(review).delta(-1));
+    }
+
+    /**
+     * @param before ratings of the review before it was modified
+     */
+    @Transactional
+    public void reviewChanged(Ratings before, Review after) {
+        apply(after.getRealtor().getId(), Ratings.of(after).minus(before));
+    }
+
+    /**
+     * Recomputes the summary of one realtor from the review rows under a row lock, so reviews changed
+     * concurrently are either already counted or applied on top after this transaction commits.
+     *
+     * @return whether the stored summary was wrong
+     */
+    @Transactional
+    public boolean reconcile(Long realtorId) {
+        Optional<RealtorRatingSummary> stored = summaryRepository.findForUpdate(realtorId);
+        RealtorRatingSummary actual = reviewRepository.summarizeByRealtorId(realtorId)
+                .orElseGet(() -> new RealtorRatingSummary(realtorId, 0L, 0L, 0L, 0L, 0L, 0L));
+
+        if (stored.isEmpty()) {
+            if (actual.getReviewCount() == 0) {
+                return false;
+            }
+            summaryRepository.save(actual);
+            log.warn("Created missing rating summary for realtor id={}", realtorId);
+            return true;
+        }
+        if (stored.get().sameTotalsAs(actual)) {
+            return false;
+        }
+        stored.get().copyTotalsFrom(actual);
+        log.warn("Corrected rating summary for realtor id={}", realtorId);
+        return true;
+    }
+
+    private void apply(Long realtorId, long[] delta) {
+        int updated = summaryRepository.applyDelta(realtorId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]);
+        if (updated == 0) {
+            // First review of the realtor: build the row from the reviews, including the one just changed
+            reviewRepository.flush();
+            if (summaryRepository.insertFromReviewsIfAbsent(realtorId) > 0) {
+                log.debug("Created rating summary for realtor id={}", realtorId);
+                return;
+            }
+            // A concurrent first review created the row from its own snapshot, which misses this change
+            summaryRepository.applyDelta(realtorId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]);
+        }
+    }
+
+    /**
+     * Snapshot of the five ratings of a review.
+     */
+    public record Ratings(int overall, int speed, int communication, int professionality, int fairness) {
+
+        public static Ratings of(Review review) {
+            return new Ratings(review.getOverall(), review.getSpeed(), review.getCommunication(),
+                    review.getProfessionality(), review.getFairness());
+        }
+
+        long[] delta(int count) {
+            return new long[]{count, (long) count * overall, (long) count * speed, (long) count * communication,
+                    (long) count * professionality, (long) count * fairness};
+        }
+
+        long[] minus(Ratings before) {
+            return new long[]{0, overall - before.overall, speed - before.speed, communication - before.communication,
+                    professionality - before.professionality, fairness - before.fairness};
+        }
+    }
+}
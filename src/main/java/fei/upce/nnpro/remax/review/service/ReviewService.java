@@ -5,27 +5,46 @@ import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
 import fei.upce.nnpro.remax.profile.entity.Realtor;
 import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
+import fei.upce.nnpro.remax.review.dto.RealtorReviewAggregate;
 import fei.upce.nnpro.remax.review.dto.RealtorSimplifiedDto;
 import fei.upce.nnpro.remax.review.dto.ReviewDto;
 import fei.upce.nnpro.remax.review.dto.ReviewMapper;
+import fei.upce.nnpro.remax.review.dto.ReviewSliceDto;
 import fei.upce.nnpro.remax.review.dto.ReviewStatisticsDto;
+import fei.upce.nnpro.remax.review.entity.RealtorRatingSummary;
 import fei.upce.nnpro.remax.review.entity.Review;
 import fei.upce.nnpro.remax.review.repository.ReviewRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    static final int MAX_SLICE_SIZE = 100;
+    private static final String CURSOR_PREFIX = "id:";
+    /** Review columns the public pages may be sorted by; other paths would order by joined users' data. */
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "overall", "speed", "communication", "professionality", "fairness");
+
     private final ReviewRepository reviewRepository;
     private final RemaxUserRepository userRepository;
     private final ReviewMapper reviewMapper;
+    private final RealtorRatingSummaryService ratingSummaryService;
 
     @Transactional
     public ReviewDto createReview(ReviewDto dto, String authorUsername) {
@@ -51,6 +70,7 @@ public class ReviewService {
         review.setClientDisplayName(displayName);
 
         Review saved = reviewRepository.save(review);
+        ratingSummaryService.reviewAdded(saved);
         return reviewMapper.toDto(saved);
     }
 
@@ -64,6 +84,7 @@ public class ReviewService {
             throw new AccessDeniedException("You are not the author of this review.");
         }
 
+        RealtorRatingSummaryService.Ratings before = RealtorRatingSummaryService.Ratings.of(review);
         review.setOverall(dto.getOverall());
         review.setSpeed(dto.getSpeed());
         review.setCommunication(dto.getCommunication());
@@ -71,7 +92,9 @@ public class ReviewService {
         review.setFairness(dto.getFairness());
         review.setText(dto.getText());
 
-        return reviewMapper.toDto(reviewRepository.save(review));
+        Review saved = reviewRepository.save(review);
+        ratingSummaryService.reviewChanged(before, saved);
+        return reviewMapper.toDto(saved);
     }
 
     @Transactional
@@ -84,6 +107,7 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        ratingSummaryService.reviewRemoved(review);
     }
 
     @Transactional(readOnly = true)
@@ -107,6 +131,74 @@ public class ReviewService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public Page<ReviewDto> getReviewsByRealtor(Long realtorId, Pageable pageable) {
+        return reviewRepository.findDtoPageByRealtorId(realtorId, withStableOrder(pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ReviewDto> listReviews(Pageable pageable) {
+        return reviewRepository.findDtoPage(withStableOrder(pageable));
+    }
+
+    /**
+     * Keyset pagination, newest reviews first. Each slice seeks past the last id of the previous one,
+     * so the cost does not grow with depth and concurrent inserts never shift the following slices.
+     *
+     * @param realtorId only reviews of this realtor, or all reviews when {@code null}
+     * @param cursor    {@code nextCursor} of the previous slice, {@code null} for the first slice
+     */
+    @Transactional(readOnly = true)
+    public ReviewSliceDto getReviewSlice(Long realtorId, String cursor, int size) {
+        int limit = Math.clamp(size, 1, MAX_SLICE_SIZE);
+        long beforeId = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : decodeCursor(cursor);
+
+        List<ReviewDto> rows = realtorId == null
+                ? reviewRepository.findDtoSliceBefore(beforeId, Limit.of(limit + 1))
+                : reviewRepository.findDtoSliceByRealtorIdBefore(realtorId, beforeId, Limit.of(limit + 1));
+
+        if (rows.size() <= limit) {
+            return new ReviewSliceDto(rows, null);
+        }
+        List<ReviewDto> items = rows.subList(0, limit);
+        return new ReviewSliceDto(List.copyOf(items), encodeCursor(items.getLast().getId()));
+    }
+
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through; NumberFormatException is an IllegalArgumentException too
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    /**
+     * Appends the id as a tiebreaker, so rows with equal sort keys keep their order between pages.
+     *
+     * @throws IllegalArgumentException when the client sorts by anything but {@link #SORTABLE_PROPERTIES}
+     */
+    private static Pageable withStableOrder(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Reviews cannot be sorted by '" + order.getProperty() + "'");
+            }
+        }
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by(Sort.Direction.DESC, "id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
     @Transactional(readOnly = true)
     public List<ReviewDto> listAllReviews() {
         return reviewRepository.findAll().stream()
@@ -121,9 +213,14 @@ public class ReviewService {
             throw new EntityNotFoundException("Realtor not found");
         }
 
-        List<Review> reviews = reviewRepository.findAllByRealtorId(realtorId);
+        Optional<RealtorRatingSummary> summary = ratingSummaryService.getSummary(realtorId);
+        if (summary.isPresent()) {
+            return toStatistics(summary.get());
+        }
+
+        RealtorReviewAggregate aggregate = reviewRepository.aggregateByRealtorId(realtorId);
 
-        long count = reviews.size();
+        long count = aggregate.count() != null ? aggregate.count() : 0;
         if (count == 0) {
             return ReviewStatisticsDto.builder()
                     .realtorId(realtorId)
@@ -131,21 +228,31 @@ public class ReviewService {
                     .build(); // other doubles default to 0.0
         }
 
-        // Calculate averages
-        double avgOverall = reviews.stream().mapToInt(Review::getOverall).average().orElse(0.0);
-        double avgSpeed = reviews.stream().mapToInt(Review::getSpeed).average().orElse(0.0);
-        double avgComm = reviews.stream().mapToInt(Review::getCommunication).average().orElse(0.0);
-        double avgProf = reviews.stream().mapToInt(Review::getProfessionality).average().orElse(0.0);
-        double avgFair = reviews.stream().mapToInt(Review::getFairness).average().orElse(0.0);
-
         return ReviewStatisticsDto.builder()
                 .realtorId(realtorId)
                 .totalReviews(count)
-                .averageOverall(avgOverall)
-                .averageSpeed(avgSpeed)
-                .averageCommunication(avgComm)
-                .averageProfessionality(avgProf)
-                .averageFairness(avgFair)
+                .averageOverall(aggregate.averageOverall())
+                .averageSpeed(aggregate.averageSpeed())
+                .averageCommunication(aggregate.averageCommunication())
+                .averageProfessionality(aggregate.averageProfessionality())
+                .averageFairness(aggregate.averageFairness())
+                .build();
+    }
+
+    private static ReviewStatisticsDto toStatistics(RealtorRatingSummary summary) {
+        long count = summary.getReviewCount();
+        ReviewStatisticsDto.ReviewStatisticsDtoBuilder builder = ReviewStatisticsDto.builder()
+                .realtorId(summary.getRealtorId())
+                .totalReviews(count);
+        if (count == 0) {
+            return builder.build();
+        }
+        return builder
+                .averageOverall((double) summary.getSumOverall() / count)
+                .averageSpeed((double) summary.getSumSpeed() / count)
+                .averageCommunication((double) summary.getSumCommunication() / count)
+                .averageProfessionality((double) summary.getSumProfessionality() / count)
+                .averageFairness((double) summary.getSumFairness() / count)
                 .build();
     }
 }
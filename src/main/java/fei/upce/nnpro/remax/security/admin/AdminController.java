@@ -1,6 +1,9 @@
 package fei.upce.nnpro.remax.security.admin;
 
+import fei.upce.nnpro.remax.profile.dto.RemaxUserFilterDto;
 import fei.upce.nnpro.remax.profile.dto.RemaxUserResponse;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSliceDto;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -77,6 +81,20 @@ public class AdminController {
         return ResponseEntity.ok(adminService.listAllUsers());
     }
 
+    @Operation(summary = "Search users",
+            description = "Filtered user listing ordered by id with keyset pagination. " +
+                    "Pass nextAfterId of the previous response as afterId to get the next slice.")
+    @ApiResponse(responseCode = "200", description = "Slice of users retrieved",
+            content = @Content(schema = @Schema(implementation = RemaxUserSliceDto.class)))
+    @GetMapping("/users/search")
+    public ResponseEntity<RemaxUserSliceDto> searchUsers(
+            @ParameterObject @ModelAttribute RemaxUserFilterDto filter,
+            @Parameter(description = "Last id of the previous slice") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Slice size (1-200)") @RequestParam(defaultValue = "50") int size) {
+        log.info("Admin request to search users filter={} afterId={}", filter, afterId);
+        return ResponseEntity.ok(adminService.searchUsers(filter, afterId, size));
+    }
+
     @Operation(summary = "Delete a user", description = "Permanently deletes a user account.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "User deleted successfully"),
@@ -131,4 +149,13 @@ public class AdminController {
         log.info("Admin request to create admin {}", request.getUsername());
         return ResponseEntity.ok(adminService.createAdmin(request));
     }
+
+    @Operation(summary = "User details cache statistics",
+            description = "Size and hit/miss counters of the cache used to authenticate JWT requests.")
+    @ApiResponse(responseCode = "200", description = "Cache statistics",
+            content = @Content(schema = @Schema(implementation = UserDetailsCache.Stats.class)))
+    @GetMapping("/user-details-cache")
+    public ResponseEntity<UserDetailsCache.Stats> userDetailsCacheStats() {
+        return ResponseEntity.ok(adminService.userDetailsCacheStats());
+    }
 }
@@ -2,7 +2,10 @@ package fei.upce.nnpro.remax.security.admin;
 
 import fei.upce.nnpro.remax.address.entity.Address;
 import fei.upce.nnpro.remax.address.service.AddressService;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserFilterDto;
 import fei.upce.nnpro.remax.profile.dto.RemaxUserResponse;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSliceDto;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSummaryDto;
 import fei.upce.nnpro.remax.profile.entity.Admin;
 import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
 import fei.upce.nnpro.remax.profile.entity.Realtor;
@@ -10,8 +13,10 @@ import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
 import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
 import fei.upce.nnpro.remax.profile.service.PersonalInformationService;
+import fei.upce.nnpro.remax.profile.service.ProfileService;
 import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
 import fei.upce.nnpro.remax.security.auth.request.RegisterRequest;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,19 +34,27 @@ public class AdminService {
 
     private static final Logger log = LoggerFactory.getLogger(AdminService.class);
 
+    static final int MAX_USER_SLICE_SIZE = 200;
+
     private final RemaxUserRepository userRepository;
     private final AddressService addressService;
     private final PersonalInformationService personalInformationService;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final ProfileService profileService;
 
     public AdminService(RemaxUserRepository userRepository,
                         AddressService addressService,
                         PersonalInformationService personalInformationService,
-                        PasswordEncoder passwordEncoder) {
+                        PasswordEncoder passwordEncoder,
+                        UserDetailsCache userDetailsCache,
+                        ProfileService profileService) {
         this.userRepository = userRepository;
         this.addressService = addressService;
         this.personalInformationService = personalInformationService;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.profileService = profileService;
     }
 
     public RemaxUser blockUser(String username, ZonedDateTime until) {
@@ -51,6 +64,7 @@ public class AdminService {
         user.setAccountStatus(AccountStatus.BLOCKED);
         user.setBlockedUntil(until);
         RemaxUser saved = userRepository.save(user);
+        userDetailsCache.invalidate(username);
         log.info("Admin blocked user {} until {}", username, until);
         return saved;
     }
@@ -63,14 +77,13 @@ public class AdminService {
         user.setBlockedUntil(null);
         user.setFailedLoginAttempts(0);
         RemaxUser saved = userRepository.save(user);
+        userDetailsCache.invalidate(username);
         log.info("Admin unblocked user {}", username);
         return saved;
     }
 
     public void deleteUser(String username) {
-        Optional<RemaxUser> maybe = userRepository.findByUsername(username);
-        if (maybe.isEmpty()) throw new IllegalArgumentException("User not found");
-        userRepository.delete(maybe.get());
+        profileService.deleteProfile(username);
         log.info("Admin deleted user {}", username);
     }
 
@@ -123,6 +136,7 @@ public class AdminService {
         user.setEmail(req.getEmail());
         user.setPersonalInformation(savedPi);
         RemaxUser savedUser = userRepository.save(user);
+        userDetailsCache.invalidate(username);
         log.info("Updated profile for username={}", username);
         return savedUser;
     }
@@ -183,17 +197,34 @@ public class AdminService {
         return saved;
     }
 
+    public UserDetailsCache.Stats userDetailsCacheStats() {
+        return userDetailsCache.stats();
+    }
+
     @Transactional(readOnly = true)
     public List<RemaxUserResponse> listAllUsers() {
+        // createFrom masks the password; the managed entity must not be touched
         return userRepository.findAll()
                 .stream()
-                .map((user) -> {
-                    user.setPassword("********");
-                    return RemaxUserResponse.createFrom(user);
-                })
+                .map(RemaxUserResponse::createFrom)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One slice of users matching the filter, ordered by id. Pass {@code nextAfterId} of the
+     * previous slice as {@code afterId} to continue.
+     */
+    @Transactional(readOnly = true)
+    public RemaxUserSliceDto searchUsers(RemaxUserFilterDto filter, Long afterId, int size) {
+        int limit = Math.clamp(size, 1, MAX_USER_SLICE_SIZE);
+        List<RemaxUserSummaryDto> rows = userRepository.findSummaries(filter, afterId, limit + 1);
+        if (rows.size() <= limit) {
+            return new RemaxUserSliceDto(rows, null);
+        }
+        List<RemaxUserSummaryDto> items = List.copyOf(rows.subList(0, limit));
+        return new RemaxUserSliceDto(items, items.getLast().getId());
+    }
+
     private RegisterRequest mapToRegisterRequest(CreateUserRequest r) {
         RegisterRequest reg = new RegisterRequest();
         reg.setUsername(r.getUsername());
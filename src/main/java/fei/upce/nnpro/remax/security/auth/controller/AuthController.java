@@ -16,6 +16,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -44,11 +45,13 @@ public class AuthController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input format",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class))),
-            @ApiResponse(responseCode = "401", description = "Bad credentials or account blocked", content = @Content)
+            @ApiResponse(responseCode = "401", description = "Bad credentials or account blocked", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts for the username or client address",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class)))
     })
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-        AuthResponse response = authService.login(request.getUsername(), request.getPassword());
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        AuthResponse response = authService.login(request.getUsername(), request.getPassword(), httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
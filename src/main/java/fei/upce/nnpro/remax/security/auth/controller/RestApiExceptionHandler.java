@@ -1,5 +1,6 @@
 package fei.upce.nnpro.remax.security.auth.controller;
 
+import fei.upce.nnpro.remax.security.auth.service.LoginRateLimitedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,13 @@ public class RestApiExceptionHandler {
         return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<?> handleLoginRateLimited(LoginRateLimitedException ex) {
+        // expected under attack, no stack trace
+        log.warn("Login rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidation(MethodArgumentNotValidException ex) {
         log.error("Exception occurred in request", ex);
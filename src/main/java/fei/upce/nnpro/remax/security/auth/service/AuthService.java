@@ -23,6 +23,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
@@ -42,6 +43,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final SecurityProperties securityProperties;
     private final MailService mailService;
+    private final UserDetailsCache userDetailsCache;
+    private final LoginRateLimiter loginRateLimiter;
 
     public AuthService(RemaxUserRepository userRepository,
                        AddressService addressService,
@@ -53,13 +56,25 @@ public class AuthService {
         this(userRepository, addressService, personalInformationService, authenticationManager, jwtUtil, passwordEncoder, securityProperties, null);
     }
 
-    @Autowired
     public AuthService(RemaxUserRepository userRepository,
                        AddressService addressService,
                        PersonalInformationService personalInformationService,
                        AuthenticationManager authenticationManager,
                        JwtUtil jwtUtil,
                        PasswordEncoder passwordEncoder, SecurityProperties securityProperties, MailService mailService) {
+        // standalone cache and rate limiter for tests; nothing else reads them
+        this(userRepository, addressService, personalInformationService, authenticationManager, jwtUtil, passwordEncoder,
+                securityProperties, mailService, new UserDetailsCache(securityProperties), new LoginRateLimiter(securityProperties));
+    }
+
+    @Autowired
+    public AuthService(RemaxUserRepository userRepository,
+                       AddressService addressService,
+                       PersonalInformationService personalInformationService,
+                       AuthenticationManager authenticationManager,
+                       JwtUtil jwtUtil,
+                       PasswordEncoder passwordEncoder, SecurityProperties securityProperties, MailService mailService,
+                       UserDetailsCache userDetailsCache, LoginRateLimiter loginRateLimiter) {
         this.userRepository = userRepository;
         this.addressService = addressService;
         this.personalInformationService = personalInformationService;
@@ -68,10 +83,25 @@ public class AuthService {
         this.passwordEncoder = passwordEncoder;
         this.securityProperties = securityProperties;
         this.mailService = mailService;
+        this.userDetailsCache = userDetailsCache;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     public AuthResponse login(String username, String password) {
+        return login(username, password, null);
+    }
+
+    /**
+     * @param clientIp address the attempt came from, used for rate limiting; {@code null} when unknown
+     * @throws LoginRateLimitedException when the username or IP exceeded its attempts, before the password is checked
+     */
+    public AuthResponse login(String username, String password, String clientIp) {
         log.info("Attempting login for username={}", username);
+        // Throttle before any database access or BCrypt work
+        if (!loginRateLimiter.tryAcquire(username, clientIp)) {
+            throw new LoginRateLimitedException();
+        }
+
         Optional<RemaxUser> maybeUser = userRepository.findByUsername(username);
         if (maybeUser.isEmpty()) {
             log.warn("Login failed for unknown username={}", username);
@@ -87,30 +117,31 @@ public class AuthService {
 
         try {
             authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
-            // successful login -> reset failed attempts
-            user.setFailedLoginAttempts(0);
-            userRepository.save(user);
-
-            String token = jwtUtil.generateToken(username);
-            // compute expiry
-            long expiresAt = System.currentTimeMillis() + securityProperties.getJwtExpirationMs();
-            log.info("User {} logged in successfully", username);
-            return new AuthResponse(token, expiresAt, RemaxUserResponse.getRole(user));
         } catch (AuthenticationException ex) {
-            // failed login -> increment counter, possibly block
-            int attempts = user.getFailedLoginAttempts() + 1;
-            user.setFailedLoginAttempts(attempts);
-            if (attempts >= securityProperties.getFailedLoginThreshold()) {
-                // block for configured hours
-                user.setAccountStatus(AccountStatus.BLOCKED);
-                user.setBlockedUntil(ZonedDateTime.now().plusHours(securityProperties.getLockDurationHours()));
-                log.warn("User {} blocked due to too many failed attempts until {}", username, user.getBlockedUntil());
-            } else {
-                log.warn("Failed login attempt {} for user {}", attempts, username);
-            }
-            userRepository.save(user);
+            // failed login -> increment counter and possibly block, atomically in the database
+            ZonedDateTime blockedUntil = ZonedDateTime.now().plusHours(securityProperties.getLockDurationHours());
+            userRepository.recordFailedLogin(user.getId(), securityProperties.getFailedLoginThreshold(), blockedUntil);
+            // the account may have just been blocked, possibly by a concurrent attempt
+            userDetailsCache.invalidate(username);
+            userRepository.findFailedLoginAttempts(user.getId()).ifPresent(attempts -> {
+                if (attempts >= securityProperties.getFailedLoginThreshold()) {
+                    log.warn("User {} blocked due to too many failed attempts until {}", username, blockedUntil);
+                } else {
+                    log.warn("Failed login attempt {} for user {}", attempts, username);
+                }
+            });
             throw new BadCredentialsException("Bad credentials");
         }
+
+        // successful login -> reset failed attempts
+        userRepository.resetFailedLogins(user.getId());
+        loginRateLimiter.reset(username);
+
+        String token = jwtUtil.generateToken(username);
+        // compute expiry
+        long expiresAt = System.currentTimeMillis() + securityProperties.getJwtExpirationMs();
+        log.info("User {} logged in successfully", username);
+        return new AuthResponse(token, expiresAt, RemaxUserResponse.getRole(user));
     }
 
     public RemaxUser register(RegisterRequest request) {
@@ -142,6 +173,8 @@ public class AuthService {
         return savedUser;
     }
 
+    // The reset code and its mail are committed together
+    @Transactional
     public void requestPasswordReset(String email) {
         log.info("Password reset requested for email={}", email);
         Optional<RemaxUser> maybe = userRepository.findByEmail(email);
@@ -158,9 +191,9 @@ public class AuthService {
         userRepository.save(user);
 
         if (mailService != null) {
-            // send raw code to user via email
+            // send raw code to user via email (delivered from the outbox after commit)
             mailService.sendPasswordResetCode(user.getEmail(), rawCode);
-            log.info("Password reset code generated and email sent for email={}", email);
+            log.info("Password reset code generated and email queued for email={}", email);
         } else {
             // in absence of mail service log existence but avoid printing sensitive raw code in logs
             log.info("Password reset code generated but mailService not available for email={}", email);
@@ -189,6 +222,7 @@ public class AuthService {
         user.setPasswordResetCode(null);
         user.setPasswordResetCodeDeadline(null);
         userRepository.save(user);
+        userDetailsCache.invalidate(username);
         log.info("Password reset successful for user={}", user.getEmail());
     }
 }
@@ -48,7 +48,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         // also expose ROLE_ANONYMOUS so code can authorize against it if needed
         authorities.add(new SimpleGrantedAuthority("ROLE_ANONYMOUS"));
 
-        log.info("Loaded user {} with roles={}", username, authorities);
+        log.debug("Loaded user {} with roles={}", username, authorities);
 
         return User.builder()
                 .username(user.getUsername())
@@ -0,0 +1,11 @@
+package fei.upce.nnpro.remax.security.auth.service;
+
+/**
+ * Login attempt rejected by {@link LoginRateLimiter} before the credentials were checked.
+ */
+public class LoginRateLimitedException extends RuntimeException {
+
+    public LoginRateLimitedException() {
+        super("Too many login attempts, try again later");
+    }
+}
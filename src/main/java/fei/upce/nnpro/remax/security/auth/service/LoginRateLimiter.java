@@ -0,0 +1,157 @@
+package fei.upce.nnpro.remax.security.auth.service;
+
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets limiting login attempts per username and per client IP, checked before the
+ * password hash is verified so credential stuffing cannot burn CPU on BCrypt or write failed-attempt
+ * counters at the attacker's pace.
+ * <p>
+ * Each bucket holds up to {@code capacity} attempts and refills completely over
+ * {@code remax.security.login-rate-limit-refill-period}. Buckets are guarded by a fixed set of striped locks
+ * (not per-bucket monitors), so contention on one hot key does not serialize unrelated logins.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
+    private static final int STRIPES = 64;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final int usernameCapacity;
+    private final int ipCapacity;
+    private final long refillPeriodNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    /** Eviction scans the whole map, so when a scan frees nothing the next one waits a refill period. */
+    private volatile long nextEvictionAt;
+
+    @Autowired
+    public LoginRateLimiter(SecurityProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    LoginRateLimiter(SecurityProperties properties, LongSupplier nanoClock) {
+        this.usernameCapacity = properties.getLoginRateLimitUsernameCapacity();
+        this.ipCapacity = properties.getLoginRateLimitIpCapacity();
+        this.refillPeriodNanos = properties.getLoginRateLimitRefillPeriod().toNanos();
+        this.maxKeys = properties.getLoginRateLimitMaxKeys();
+        this.nanoClock = nanoClock;
+        this.nextEvictionAt = nanoClock.getAsLong();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Takes one attempt from the IP bucket and one from the username bucket.
+     *
+     * @param clientIp may be {@code null} when unknown, then only the username is limited
+     * @return {@code false} when either bucket is empty and the attempt must be rejected
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        if (refillPeriodNanos <= 0) {
+            return true;
+        }
+        if (clientIp != null && !tryAcquire("ip:" + clientIp, ipCapacity)) {
+            log.warn("Login rate limit exceeded for ip={}", clientIp);
+            return false;
+        }
+        if (username != null && !tryAcquire("user:" + username.toLowerCase(Locale.ROOT), usernameCapacity)) {
+            log.warn("Login rate limit exceeded for username={}", username);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Refills the username bucket after a successful login, so a user who mistyped a few times is not
+     * throttled for the rest of the period.
+     */
+    public void reset(String username) {
+        if (username != null) {
+            buckets.remove("user:" + username.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private boolean tryAcquire(String key, int capacity) {
+        if (capacity <= 0) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        ReentrantLock lock = locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+        lock.lock();
+        try {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys && now - nextEvictionAt >= 0) {
+                    evictFull(now);
+                }
+                bucket = new Bucket(capacity, now);
+                buckets.put(key, bucket);
+            }
+            bucket.refill(now, capacity, refillPeriodNanos);
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they behave exactly like missing ones. When all buckets
+     * are in use the map grows past {@code maxKeys} until the next scan. Reads the bucket
+     * state without its stripe lock, so it may keep or drop a bucket a concurrent attempt is just using,
+     * which at worst grants that key one extra attempt.
+     */
+    private void evictFull(long now) {
+        int removed = 0;
+        for (Iterator<Map.Entry<String, Bucket>> it = buckets.entrySet().iterator(); it.hasNext(); ) {
+            Bucket bucket = it.next().getValue();
+            if (now - bucket.updatedAt >= refillPeriodNanos) {
+                it.remove();
+                removed++;
+            }
+        }
+        // nothing was idle: do not rescan on every new key until buckets had time to refill
+        nextEvictionAt = removed == 0 ? now + refillPeriodNanos : now;
+        log.debug("Login rate limiter evicted {} idle buckets, {} left", removed, buckets.size());
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private volatile long updatedAt;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        private void refill(long now, int capacity, long refillPeriodNanos) {
+            long elapsed = now - updatedAt;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + (double) elapsed * capacity / refillPeriodNanos);
+                updatedAt = now;
+            }
+        }
+    }
+}
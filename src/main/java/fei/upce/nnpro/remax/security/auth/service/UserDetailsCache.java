@@ -0,0 +1,122 @@
+package fei.upce.nnpro.remax.security.auth.service;
+
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of {@link UserDetails} used to authenticate JWT requests without
+ * a database round trip per request.
+ * <p>
+ * Entries expire after {@code remax.security.user-details-cache-ttl}. Services changing anything a
+ * {@link UserDetails} is built from (status, password, roles, deletion) must call {@link #invalidate(String)}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    /** Bumped on every invalidation, so a load racing with an update does not cache stale details. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserDetailsCache(SecurityProperties properties) {
+        this.ttlNanos = properties.getUserDetailsCacheTtl().toNanos();
+        this.maxSize = properties.getUserDetailsCacheMaxSize();
+    }
+
+    public UserDetails getOrLoad(String username, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt - now > 0) {
+            hits.increment();
+            return entry.userDetails;
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        UserDetails loaded = loader.apply(username);
+        if (ttlNanos > 0 && maxSize > 0 && generation == invalidations.get()) {
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            entries.put(username, new Entry(loaded, now + ttlNanos));
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes the cached details of {@code username}. Inside a transaction the entry is removed again
+     * after commit, so a request that loaded the old row in the meantime cannot keep it cached.
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(username);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    private void remove(String username) {
+        invalidations.incrementAndGet();
+        if (entries.remove(username) != null) {
+            log.debug("Invalidated cached user details for {}", username);
+        }
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        double hitRatio = requests == 0 ? 0.0 : (double) hitCount / requests;
+        return new Stats(entries.size(), hitCount, missCount, evictions.sum(), hitRatio);
+    }
+
+    /**
+     * Drops expired entries; if the cache is still full, drops arbitrary entries until there is room.
+     */
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+
+    public record Stats(int size, long hits, long misses, long evictions, double hitRatio) {
+    }
+}
@@ -52,7 +52,7 @@ public class SecurityConfig {
                         // Public GET endpoints requested by the anonymous users
                         .requestMatchers(HttpMethod.GET, "/api/profile/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/images/*").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/reviews", "/api/reviews/realtor/*", "/api/reviews/realtors", "/api/reviews/stats/*").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/reviews", "/api/reviews/page", "/api/reviews/slice", "/api/reviews/realtor/*", "/api/reviews/realtor/*/page", "/api/reviews/realtor/*/slice", "/api/reviews/realtors", "/api/reviews/stats/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/real-estates/*", "/api/real-estates", "/api/real-estates/by-realtor/*").permitAll()
 
                         .anyRequest().authenticated()
@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
 
 
@@ -20,4 +21,13 @@ public class SecurityProperties {
     private int failedLoginThreshold = 3;
     private long lockDurationHours = 24;
     private long passwordResetTokenExpirationMs = 10 * 60 * 1000L;
+    private Duration userDetailsCacheTtl = Duration.ofMinutes(5);
+    private int userDetailsCacheMaxSize = 10_000;
+    /** Login attempts per username allowed within one refill period; {@code 0} disables the limit. */
+    private int loginRateLimitUsernameCapacity = 10;
+    /** Login attempts per client IP allowed within one refill period; {@code 0} disables the limit. */
+    private int loginRateLimitIpCapacity = 60;
+    private Duration loginRateLimitRefillPeriod = Duration.ofMinutes(1);
+    /** Tracked usernames and IPs before idle buckets are evicted. */
+    private int loginRateLimitMaxKeys = 100_000;
 }
@@ -3,27 +3,52 @@ package fei.upce.nnpro.remax.security.jwt;
 import fei.upce.nnpro.remax.security.config.SecurityProperties;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Clock;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
     private final String secretBytes;
     private final long expirationMs;
+    private final Clock clock;
+
+    /**
+     * Key and parser are thread-safe and built once. Built on first use rather than in the
+     * constructor, so contexts that never issue tokens do not need a valid secret.
+     */
+    private volatile Signing signing;
 
+    @Autowired
     public JwtUtil(SecurityProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock time used for issuing tokens and checking their expiration
+     */
+    JwtUtil(SecurityProperties properties, Clock clock) {
         this.secretBytes = properties.getJwtSecret();
         this.expirationMs = properties.getJwtExpirationMs();
+        this.clock = clock;
     }
 
 
@@ -36,15 +61,51 @@ public class JwtUtil {
         return Jwts.builder()
                 .claims(claims)
                 .subject(username)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSignKey())
+                .issuedAt(new Date(clock.millis()))
+                .expiration(new Date(clock.millis() + expirationMs))
+                .signWith(signing().key())
                 .compact();
     }
 
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretBytes);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Signing signing() {
+        Signing current = signing;
+        if (current == null) {
+            synchronized (this) {
+                current = signing;
+                if (current == null) {
+                    SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretBytes));
+                    current = new Signing(key, Jwts.parser()
+                            .verifyWith(key)
+                            .clock(() -> new Date(clock.millis()))
+                            .build());
+                    signing = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Verifies the token signature and expiration once and returns its claims, or empty when the
+     * token is malformed, forged or expired. Callers should reuse the result instead of calling
+     * the {@code extract*} methods, each of which verifies the token again.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        try {
+            return Optional.of(extractAllClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks already verified claims against the loaded user.
+     */
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        Date expiration = claims.getExpiration();
+        return (expiration == null || expiration.after(new Date(clock.millis())))
+                && userDetails.getUsername().equals(claims.getSubject());
     }
 
     public String extractUsername(String token) {
@@ -61,22 +122,19 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
+        return signing().parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
+    public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            return extractExpiration(token).before(new Date());
+            return validateClaims(extractAllClaims(token), userDetails);
         } catch (ExpiredJwtException e) {
-            return true;
+            return false;
         }
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        return (!isTokenExpired(token) && extractUsername(token).equals(userDetails.getUsername()));
+    private record Signing(SecretKey key, JwtParser parser) {
     }
 }
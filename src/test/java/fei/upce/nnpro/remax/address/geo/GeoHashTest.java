@@ -0,0 +1,78 @@
+package fei.upce.nnpro.remax.address.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoHashTest {
+
+    @Test
+    @DisplayName("Encode: matches the reference geohash")
+    void encode_KnownValue() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(50.0343, 15.7812, 5)).isEqualTo("u2ghx");
+    }
+
+    @Test
+    @DisplayName("Cover: every point of the box, edges included, falls into a covering cell")
+    void cover_ContainsEveryPointOfTheBox() {
+        Random random = new Random(42);
+        for (int box = 0; box < 500; box++) {
+            double minLat = random.nextDouble() * 170 - 85;
+            double minLon = random.nextDouble() * 350 - 175;
+            double maxLat = minLat + random.nextDouble() * random.nextDouble() * 2;
+            double maxLon = minLon + random.nextDouble() * random.nextDouble() * 3;
+            Set<String> cells = GeoHash.cover(minLat, minLon, maxLat, maxLon, 32);
+
+            assertThat(cells).hasSizeLessThanOrEqualTo(32);
+            for (int point = 0; point < 40; point++) {
+                double lat = point == 0 ? minLat : point == 1 ? maxLat : minLat + random.nextDouble() * (maxLat - minLat);
+                double lon = point == 0 ? minLon : point == 1 ? maxLon : minLon + random.nextDouble() * (maxLon - minLon);
+                String hash = GeoHash.encode(lat, lon, GeoHash.PRECISION);
+                assertThat(cells).anyMatch(hash::startsWith);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Cover: small boxes get fine cells, the whole world is not pruned")
+    void cover_PrecisionFollowsBoxSize() {
+        Set<String> street = GeoHash.cover(50.033, 15.780, 50.035, 15.782, 32);
+        Set<String> world = GeoHash.cover(-90, -180, 90, 180, 32);
+        Set<String> unpruned = GeoHash.cover(-90, -180, 90, 180, 16);
+
+        assertThat(street).allMatch(cell -> cell.length() == 7);
+        assertThat(world).hasSize(32).allMatch(cell -> cell.length() == 1);
+        assertThat(unpruned).containsExactly("");
+    }
+
+    @Test
+    @DisplayName("Cell count: equals the number of covering cells")
+    void cellCount_MatchesCover() {
+        Random random = new Random(7);
+        for (int box = 0; box < 200; box++) {
+            double minLat = random.nextDouble() * 170 - 85;
+            double minLon = random.nextDouble() * 350 - 175;
+            double maxLat = minLat + random.nextDouble() * 2;
+            double maxLon = minLon + random.nextDouble() * 3;
+            Set<String> cells = GeoHash.cover(minLat, minLon, maxLat, maxLon, 64);
+
+            assertThat(GeoHash.cellCount(minLat, minLon, maxLat, maxLon, cells.iterator().next().length()))
+                    .isEqualTo(cells.size());
+        }
+        assertThat(GeoHash.cellCount(-90, -180, 90, 180, 1)).isEqualTo(32);
+        assertThat(GeoHash.cellCount(-90, -180, 90, 180, 2)).isEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("Distance: Pardubice to Praha is about 96 km")
+    void distanceKm_Haversine() {
+        assertThat(GeoHash.distanceKm(50.0343, 15.7812, 50.0755, 14.4378)).isCloseTo(96.0, within(0.5));
+        assertThat(GeoHash.distanceKm(50.0343, 15.7812, 50.0343, 15.7812)).isZero();
+    }
+}
@@ -2,7 +2,8 @@ package fei.upce.nnpro.remax.images.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import fei.upce.nnpro.remax.images.dto.ImageDto;
-import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
 import fei.upce.nnpro.remax.images.service.ImageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,9 +16,16 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,6 +33,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class ImageControllerTest {
 
+    private static final String HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+    private static final ZonedDateTime CREATED_AT = ZonedDateTime.of(2024, 6, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
     private MockMvc mockMvc;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -54,17 +65,185 @@ class ImageControllerTest {
     }
 
     @Test
-    void getImage_returnsByteArray_andHeaders() throws Exception {
-        Image img = new Image();
-        img.setFilename("f.jpg");
-        img.setContentType("image/jpeg");
-        img.setData("bytes".getBytes());
-        Mockito.when(imageService.getImageEntity(1L)).thenReturn(img);
-
-        mockMvc.perform(get("/api/images/1"))
+    void getImage_streamsContent_andHeaders() throws Exception {
+        ImageMetadata metadata = metadata("f.jpg", ImageVariant.FULL);
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata);
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("bytes".getBytes());
+            return null;
+        }).when(imageService).writeImageData(eq(metadata), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/images/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("f.jpg")))
-                .andExpect(content().contentType("image/jpeg"));
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().longValue("Content-Length", 5L))
+                .andExpect(header().string("ETag", "\"" + HASH + "\""))
+                .andExpect(header().dateValue("Last-Modified", CREATED_AT.toInstant().toEpochMilli()))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(content().bytes("bytes".getBytes()));
+    }
+
+    @Test
+    void getImage_ifNoneMatch_returnsNotModifiedWithoutReadingContent() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata("f.jpg", ImageVariant.FULL));
+
+        mockMvc.perform(get("/api/images/1").header("If-None-Match", "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"" + HASH + "\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(content().bytes(new byte[0]));
+
+        Mockito.verify(imageService, Mockito.never()).writeImageData(any(), any());
+    }
+
+    @Test
+    void getImage_ifModifiedSince_returnsNotModifiedWithoutReadingContent() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata("f.jpg", ImageVariant.FULL));
+
+        mockMvc.perform(get("/api/images/1").header("If-Modified-Since", "Wed, 01 Jan 2025 12:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(imageService, Mockito.never()).writeImageData(any(), any());
+    }
+
+    @Test
+    void getImage_staleEtag_streamsContent() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata("f.jpg", ImageVariant.FULL));
+
+        mockMvc.perform(get("/api/images/1").header("If-None-Match", "\"other\""))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void getImage_sizeParam_requestsVariant() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.THUMBNAIL))
+                .thenReturn(metadata("thumbnail-f.jpg", ImageVariant.THUMBNAIL));
+
+        MvcResult result = mockMvc.perform(get("/api/images/1").param("size", "THUMBNAIL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("immutable")));
+    }
+
+    @Test
+    void getImage_pendingVariant_servesOriginalWithoutLongCaching() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.THUMBNAIL))
+                .thenReturn(metadata("f.jpg", ImageVariant.FULL));
+
+        MvcResult result = mockMvc.perform(get("/api/images/1").param("size", "THUMBNAIL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getImage_originalWithoutVariant_isImmutable() throws Exception {
+        ImageMetadata original = metadata("f.jpg", ImageVariant.FULL);
+        Mockito.when(original.isVariantsGenerated()).thenReturn(true);
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.MEDIUM)).thenReturn(original);
+
+        MvcResult result = mockMvc.perform(get("/api/images/1").param("size", "MEDIUM"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("immutable")));
+    }
+
+    @Test
+    void getImage_singleRange_returnsPartialContent() throws Exception {
+        ImageMetadata metadata = metadata("f.jpg", ImageVariant.FULL);
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata);
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgument(3, OutputStream.class).write("yte".getBytes());
+            return null;
+        }).when(imageService).writeImageData(eq(metadata), eq(1L), eq(3L), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/images/1").header("Range", "bytes=1-3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 1-3/5"))
+                .andExpect(header().longValue("Content-Length", 3L))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().bytes("yte".getBytes()));
+        Mockito.verify(imageService, Mockito.never()).writeImageData(any(), any());
+    }
+
+    @Test
+    void getImage_suffixRange_returnsLastBytes() throws Exception {
+        ImageMetadata metadata = metadata("f.jpg", ImageVariant.FULL);
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata);
+
+        MvcResult result = mockMvc.perform(get("/api/images/1").header("Range", "bytes=-2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 3-4/5"))
+                .andExpect(header().longValue("Content-Length", 2L));
+        Mockito.verify(imageService).writeImageData(eq(metadata), eq(3L), eq(2L), any(OutputStream.class));
+    }
+
+    @Test
+    void getImage_rangeBeyondEnd_returnsNotSatisfiable() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata("f.jpg", ImageVariant.FULL));
+
+        mockMvc.perform(get("/api/images/1").header("Range", "bytes=5-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */5"));
+
+        Mockito.verify(imageService, Mockito.never()).writeImageData(any(), Mockito.anyLong(), Mockito.anyLong(), any());
+    }
+
+    @Test
+    void getImage_malformedRange_returnsFullContent() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata("f.jpg", ImageVariant.FULL));
+
+        for (String range : List.of("bytes=4-1", "items=0-1", "bytes=x")) {
+            MvcResult result = mockMvc.perform(get("/api/images/1").header("Range", range))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Range"));
+        }
+
+        Mockito.verify(imageService, Mockito.never()).writeImageData(any(), Mockito.anyLong(), Mockito.anyLong(), any());
+    }
+
+    @Test
+    void getImage_multiRangeOrStaleIfRange_returnsFullContent() throws Exception {
+        Mockito.when(imageService.getImageMetadata(1L, ImageVariant.FULL)).thenReturn(metadata("f.jpg", ImageVariant.FULL));
+
+        MvcResult multi = mockMvc.perform(get("/api/images/1").header("Range", "bytes=0-1,3-4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(multi))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Range"));
+
+        MvcResult stale = mockMvc.perform(get("/api/images/1")
+                        .header("Range", "bytes=0-1")
+                        .header("If-Range", "\"other\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(stale))
+                .andExpect(status().isOk());
+
+        Mockito.verify(imageService, Mockito.never()).writeImageData(any(), Mockito.anyLong(), Mockito.anyLong(), any());
     }
 
     @Test
@@ -74,4 +253,15 @@ class ImageControllerTest {
 
         Mockito.verify(imageService).deleteImage(1L);
     }
+
+    private static ImageMetadata metadata(String filename, ImageVariant variant) {
+        ImageMetadata metadata = Mockito.mock(ImageMetadata.class);
+        Mockito.lenient().when(metadata.getFilename()).thenReturn(filename);
+        Mockito.lenient().when(metadata.getContentType()).thenReturn("image/jpeg");
+        Mockito.lenient().when(metadata.getSizeBytes()).thenReturn(5L);
+        Mockito.lenient().when(metadata.getContentHash()).thenReturn(HASH);
+        Mockito.lenient().when(metadata.getCreatedAt()).thenReturn(CREATED_AT);
+        Mockito.lenient().when(metadata.getVariant()).thenReturn(variant);
+        return metadata;
+    }
 }
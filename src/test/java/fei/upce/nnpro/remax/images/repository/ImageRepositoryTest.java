@@ -0,0 +1,121 @@
+package fei.upce.nnpro.remax.images.repository;
+
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.testutil.CapturingStatementInspector;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "fei.upce.nnpro.remax.testutil.CapturingStatementInspector")
+class ImageRepositoryTest {
+
+    private static final int IMAGE_SIZE = 3 * 1024 * 1024;
+
+    @Autowired private ImageRepository imageRepository;
+    @Autowired private TestEntityManager em;
+
+    private byte[] content;
+    private Long imageId;
+
+    @BeforeEach
+    void setUp() {
+        content = new byte[IMAGE_SIZE];
+        new Random(42).nextBytes(content);
+
+        Image image = new Image();
+        image.setFilename("large.jpg");
+        image.setContentType("image/jpeg");
+        image.setData(content);
+        imageId = em.persistAndFlush(image).getId();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Metadata: projection does not load the image entity")
+    void findMetadataById_DoesNotManageEntity() {
+        ImageMetadata metadata = imageRepository.findMetadataById(imageId).orElseThrow();
+
+        assertThat(metadata.getFilename()).isEqualTo("large.jpg");
+        assertThat(metadata.getContentType()).isEqualTo("image/jpeg");
+        assertThat(metadata.getCreatedAt()).isNotNull();
+        assertThat(em.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Metadata: conditional GET lookup never selects the content column")
+    void findMetadataById_DoesNotSelectData() {
+        CapturingStatementInspector.clear();
+
+        imageRepository.findMetadataById(imageId).orElseThrow();
+
+        assertThat(CapturingStatementInspector.statements())
+                .isNotEmpty()
+                .noneMatch(sql -> sql.matches("(?is).*\\bdata\\b.*"));
+    }
+
+    @Test
+    @DisplayName("Metadata: finished variant generation is visible in the projection")
+    void markVariantsGenerated_SetsFlag() {
+        assertThat(imageRepository.findMetadataById(imageId).orElseThrow().isVariantsGenerated()).isFalse();
+
+        assertThat(imageRepository.markVariantsGenerated(imageId)).isEqualTo(1);
+        em.clear();
+
+        assertThat(imageRepository.findMetadataById(imageId).orElseThrow().isVariantsGenerated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Content: copied in bounded chunks and byte-for-byte identical")
+    void copyDataTo_WritesInBoundedChunks() {
+        ChunkRecordingStream out = new ChunkRecordingStream();
+
+        boolean found = imageRepository.copyDataTo(imageId, out);
+
+        assertThat(found).isTrue();
+        assertThat(out.toByteArray()).isEqualTo(content);
+        assertThat(out.largestWrite).isLessThanOrEqualTo(ImageContentRepositoryImpl.BUFFER_SIZE);
+        assertThat(em.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Content: range copy returns only the requested slice")
+    void copyDataRangeTo_WritesSlice() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        boolean found = imageRepository.copyDataRangeTo(imageId, 1000, 20_000, out);
+
+        assertThat(found).isTrue();
+        assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(content, 1000, 21_000));
+    }
+
+    @Test
+    @DisplayName("Content: missing image reports not found")
+    void copyDataTo_MissingImage() {
+        OutputStream out = new ByteArrayOutputStream();
+
+        assertThat(imageRepository.copyDataTo(imageId + 1000, out)).isFalse();
+    }
+
+    private static class ChunkRecordingStream extends ByteArrayOutputStream {
+        private int largestWrite;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            largestWrite = Math.max(largestWrite, len);
+            super.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package fei.upce.nnpro.remax.images.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageResizerTest {
+
+    @Test
+    void resize_shouldFitLongestEdgeAndKeepAspectRatio() {
+        BufferedImage source = new BufferedImage(3000, 2000, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage resized = ImageResizer.resize(source, 320);
+
+        assertThat(resized.getWidth()).isEqualTo(320);
+        assertThat(resized.getHeight()).isEqualTo(213);
+    }
+
+    @Test
+    void resize_portrait_shouldFitHeight() {
+        BufferedImage source = new BufferedImage(600, 1200, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage resized = ImageResizer.resize(source, 1024);
+
+        assertThat(resized.getWidth()).isEqualTo(512);
+        assertThat(resized.getHeight()).isEqualTo(1024);
+    }
+
+    @Test
+    void encode_shouldProduceDecodableJpegOrPng() throws IOException {
+        BufferedImage opaque = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        BufferedImage transparent = new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage jpeg = ImageIO.read(new ByteArrayInputStream(ImageResizer.encode(opaque)));
+        BufferedImage png = ImageIO.read(new ByteArrayInputStream(ImageResizer.encode(transparent)));
+
+        assertThat(ImageResizer.contentType(opaque)).isEqualTo("image/jpeg");
+        assertThat(ImageResizer.contentType(transparent)).isEqualTo("image/png");
+        assertThat(jpeg.getWidth()).isEqualTo(40);
+        assertThat(png.getColorModel().hasAlpha()).isTrue();
+    }
+}
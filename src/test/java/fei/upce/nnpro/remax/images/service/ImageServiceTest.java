@@ -1,8 +1,14 @@
 package fei.upce.nnpro.remax.images.service;
 
+import fei.upce.nnpro.remax.images.config.ImageProperties;
 import fei.upce.nnpro.remax.images.dto.ImageDto;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
 import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
 import fei.upce.nnpro.remax.images.repository.ImageRepository;
+import fei.upce.nnpro.remax.images.storage.ImageStorage;
+import fei.upce.nnpro.remax.images.storage.ImageStorages;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +19,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,11 +36,24 @@ class ImageServiceTest {
     @Mock
     private ImageRepository imageRepository;
 
+    @Mock
+    private ImageStorage databaseStorage;
+
+    @Mock
+    private ImageStorage fileSystemStorage;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
     private ImageService sut;
 
     @BeforeEach
     void setUp() {
-        sut = new ImageService(imageRepository);
+        when(databaseStorage.getType()).thenReturn(ImageStorageType.DATABASE);
+        when(fileSystemStorage.getType()).thenReturn(ImageStorageType.FILESYSTEM);
+        ImageProperties properties = new ImageProperties();
+        ImageStorages storages = new ImageStorages(List.of(databaseStorage, fileSystemStorage), properties);
+        sut = new ImageService(imageRepository, storages, imageVariantService, properties);
     }
 
     @Test
@@ -39,13 +62,18 @@ class ImageServiceTest {
         when(file.isEmpty()).thenReturn(false);
         when(file.getOriginalFilename()).thenReturn("pic.png");
         when(file.getContentType()).thenReturn("image/png");
-        when(file.getBytes()).thenReturn(new byte[]{1,2,3});
-        Image saved = new Image();
-        saved.setId(11L);
-        saved.setFilename("pic.png");
-        saved.setContentType("image/png");
-        saved.setData(new byte[]{1,2,3});
-        when(imageRepository.save(org.mockito.Mockito.any())).thenReturn(saved);
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{1,2,3}));
+        doAnswer(invocation -> {
+            Image image = invocation.getArgument(0);
+            image.setContentHash("abc");
+            image.setSizeBytes(3L);
+            return null;
+        }).when(fileSystemStorage).store(any(Image.class), any(InputStream.class));
+        when(imageRepository.save(org.mockito.Mockito.any())).thenAnswer(invocation -> {
+            Image image = invocation.getArgument(0);
+            image.setId(11L);
+            return image;
+        });
 
         // Mock static ServletUriComponentsBuilder
         try (MockedStatic<ServletUriComponentsBuilder> mocked = mockStatic(ServletUriComponentsBuilder.class)) {
@@ -60,7 +88,10 @@ class ImageServiceTest {
             assertThat(dto.getSize()).isEqualTo(3);
         }
 
-        verify(imageRepository).save(org.mockito.Mockito.any());
+        verify(imageRepository).save(argThat(image ->
+                image.getStorage() == ImageStorageType.FILESYSTEM && "abc".equals(image.getContentHash())));
+        verify(databaseStorage, never()).store(any(), any());
+        verify(imageVariantService).generateVariantsAsync(11L);
     }
 
     @Test
@@ -85,13 +116,73 @@ class ImageServiceTest {
         org.assertj.core.api.Assertions.assertThatThrownBy(() -> sut.getImageEntity(33L)).isInstanceOf(EntityNotFoundException.class);
     }
 
+    @Test
+    void getImageMetadata_shouldReturnOrThrow() {
+        ImageMetadata metadata = mock(ImageMetadata.class);
+        when(imageRepository.findMetadataById(22L)).thenReturn(Optional.of(metadata));
+        assertThat(sut.getImageMetadata(22L)).isSameAs(metadata);
+
+        when(imageRepository.findMetadataById(33L)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> sut.getImageMetadata(33L)).isInstanceOf(EntityNotFoundException.class);
+        verify(imageRepository, never()).findById(any());
+    }
+
+    @Test
+    void getImageMetadata_variant_shouldFallBackToOriginal() {
+        ImageMetadata original = metadata(22L, "aaa", ImageStorageType.FILESYSTEM);
+        ImageMetadata thumbnail = metadata(23L, "bbb", ImageStorageType.FILESYSTEM);
+        when(imageRepository.findMetadataByOriginalImageIdAndVariant(22L, ImageVariant.THUMBNAIL)).thenReturn(Optional.of(thumbnail));
+        when(imageRepository.findMetadataByOriginalImageIdAndVariant(22L, ImageVariant.MEDIUM)).thenReturn(Optional.empty());
+        when(imageRepository.findMetadataById(22L)).thenReturn(Optional.of(original));
+
+        assertThat(sut.getImageMetadata(22L, ImageVariant.THUMBNAIL)).isSameAs(thumbnail);
+        assertThat(sut.getImageMetadata(22L, ImageVariant.MEDIUM)).isSameAs(original);
+        assertThat(sut.getImageMetadata(22L, ImageVariant.FULL)).isSameAs(original);
+    }
+
+    @Test
+    void writeImageData_shouldUseStorageOfTheImage() throws IOException {
+        ImageMetadata legacy = metadata(22L, "aaa", ImageStorageType.DATABASE);
+        ImageMetadata migrated = metadata(23L, "bbb", ImageStorageType.FILESYSTEM);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        sut.writeImageData(legacy, out);
+        sut.writeImageData(migrated, out);
+
+        verify(databaseStorage).copyTo(legacy, out);
+        verify(fileSystemStorage).copyTo(migrated, out);
+    }
+
     @Test
     void deleteImage_shouldDeleteOrThrow() {
-        when(imageRepository.existsById(5L)).thenReturn(true);
+        ImageMetadata image = metadata(5L, "aaa", ImageStorageType.FILESYSTEM);
+        when(imageRepository.findMetadataById(5L)).thenReturn(Optional.of(image));
         sut.deleteImage(5L);
         verify(imageRepository).deleteById(5L);
 
-        when(imageRepository.existsById(6L)).thenReturn(false);
+        when(imageRepository.findMetadataById(6L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> sut.deleteImage(6L)).isInstanceOf(EntityNotFoundException.class);
     }
+
+    @Test
+    void deleteImage_shouldRemoveVariantsFirst() {
+        ImageMetadata image = metadata(5L, "aaa", ImageStorageType.FILESYSTEM);
+        ImageMetadata thumbnail = metadata(7L, "ccc", ImageStorageType.FILESYSTEM);
+        when(imageRepository.findMetadataById(5L)).thenReturn(Optional.of(image));
+        when(imageRepository.findMetadataByOriginalImageId(5L)).thenReturn(List.of(thumbnail));
+
+        sut.deleteImage(5L);
+
+        var inOrder = inOrder(imageRepository);
+        inOrder.verify(imageRepository).deleteById(7L);
+        inOrder.verify(imageRepository).deleteById(5L);
+    }
+
+    private static ImageMetadata metadata(Long id, String hash, ImageStorageType storage) {
+        ImageMetadata metadata = mock(ImageMetadata.class);
+        lenient().when(metadata.getId()).thenReturn(id);
+        lenient().when(metadata.getContentHash()).thenReturn(hash);
+        lenient().when(metadata.getStorage()).thenReturn(storage);
+        return metadata;
+    }
 }
@@ -0,0 +1,140 @@
+package fei.upce.nnpro.remax.images.service;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import fei.upce.nnpro.remax.images.entity.ImageVariant;
+import fei.upce.nnpro.remax.images.repository.ImageRepository;
+import fei.upce.nnpro.remax.images.storage.ImageStorage;
+import fei.upce.nnpro.remax.images.storage.ImageStorages;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceTest {
+
+    private static final long MAX_PIXELS = 4_000_000L;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageStorage storage;
+
+    private ImageVariantService sut;
+
+    @BeforeEach
+    void setUp() {
+        when(storage.getType()).thenReturn(ImageStorageType.FILESYSTEM);
+        ImageStorages storages = new ImageStorages(List.of(storage), new ImageProperties());
+        sut = new ImageVariantService(imageRepository, storages, Runnable::run, MAX_PIXELS);
+    }
+
+    @Test
+    void generateVariants_largeImage_shouldSaveThumbnailAndMedium() throws IOException {
+        ImageMetadata original = original(2000, 1500);
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        sut.generateVariantsAsync(original.getId());
+
+        ArgumentCaptor<Image> saved = ArgumentCaptor.forClass(Image.class);
+        verify(imageRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(Image::getVariant)
+                .containsExactly(ImageVariant.THUMBNAIL, ImageVariant.MEDIUM);
+        assertThat(saved.getAllValues()).allSatisfy(image -> {
+            assertThat(image.getStorage()).isEqualTo(ImageStorageType.FILESYSTEM);
+            assertThat(image.getContentType()).isEqualTo("image/jpeg");
+        });
+        verify(storage, times(2)).store(any(Image.class), any(InputStream.class));
+        verify(imageRepository).markVariantsGenerated(1L);
+    }
+
+    @Test
+    void generateVariants_smallImage_shouldOnlySaveThumbnail() throws IOException {
+        ImageMetadata original = original(800, 600);
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        sut.generateVariantsAsync(original.getId());
+
+        ArgumentCaptor<Image> saved = ArgumentCaptor.forClass(Image.class);
+        verify(imageRepository).save(saved.capture());
+        assertThat(saved.getValue().getVariant()).isEqualTo(ImageVariant.THUMBNAIL);
+        verify(imageRepository).markVariantsGenerated(1L);
+    }
+
+    @Test
+    void generateVariants_undecodableContent_shouldSaveNothing() throws IOException {
+        ImageMetadata original = metadata(1L);
+        when(imageRepository.findMetadataById(1L)).thenReturn(Optional.of(original));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("not an image".getBytes());
+            return null;
+        }).when(storage).copyTo(eq(original), any(OutputStream.class));
+
+        sut.generateVariantsAsync(1L);
+
+        verify(imageRepository, never()).save(any());
+        verify(imageRepository).markVariantsGenerated(1L);
+    }
+
+    @Test
+    void generateVariants_tooManyPixels_shouldNotDecode() throws IOException {
+        ImageMetadata original = original(2500, 2000);
+
+        sut.generateVariantsAsync(original.getId());
+
+        verify(imageRepository, never()).save(any());
+        verify(storage, never()).store(any(), any());
+        verify(imageRepository).markVariantsGenerated(1L);
+    }
+
+    @Test
+    void generateVariantsAsync_fullQueue_shouldNotFailUpload() {
+        ImageVariantService saturated = new ImageVariantService(imageRepository,
+                new ImageStorages(List.of(storage), new ImageProperties()),
+                task -> { throw new RejectedExecutionException("queue full"); }, MAX_PIXELS);
+
+        saturated.generateVariantsAsync(1L);
+
+        verifyNoInteractions(imageRepository);
+    }
+
+    private ImageMetadata original(int width, int height) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        ImageMetadata original = metadata(1L);
+        when(imageRepository.findMetadataById(1L)).thenReturn(Optional.of(original));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write(png.toByteArray());
+            return null;
+        }).when(storage).copyTo(eq(original), any(OutputStream.class));
+        return original;
+    }
+
+    private static ImageMetadata metadata(Long id) {
+        ImageMetadata metadata = mock(ImageMetadata.class);
+        lenient().when(metadata.getId()).thenReturn(id);
+        lenient().when(metadata.getFilename()).thenReturn("photo.png");
+        lenient().when(metadata.getStorage()).thenReturn(ImageStorageType.FILESYSTEM);
+        return metadata;
+    }
+}
@@ -0,0 +1,67 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.repository.ImageRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseImageStorageTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @InjectMocks
+    private DatabaseImageStorage sut;
+
+    @Test
+    void store_shouldKeepContentOnImage() throws IOException {
+        Image image = new Image();
+
+        sut.store(image, new ByteArrayInputStream("hello".getBytes()));
+
+        assertThat(image.getData()).isEqualTo("hello".getBytes());
+        assertThat(image.getContentHash()).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        assertThat(image.getSizeBytes()).isEqualTo(5L);
+    }
+
+    @Test
+    void copyTo_shouldCopyOrThrow() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(imageRepository.copyDataTo(22L, out)).thenReturn(true);
+        sut.copyTo(metadata(22L), out);
+        verify(imageRepository).copyDataTo(22L, out);
+
+        when(imageRepository.copyDataTo(33L, out)).thenReturn(false);
+        assertThatThrownBy(() -> sut.copyTo(metadata(33L), out)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void copyTo_shouldRethrowClientIoFailure() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOException broken = new IOException("Broken pipe");
+        when(imageRepository.copyDataTo(22L, out)).thenThrow(new UncheckedIOException(broken));
+
+        assertThatThrownBy(() -> sut.copyTo(metadata(22L), out)).isSameAs(broken);
+    }
+
+    private static ImageMetadata metadata(Long id) {
+        ImageMetadata metadata = mock(ImageMetadata.class);
+        when(metadata.getId()).thenReturn(id);
+        return metadata;
+    }
+}
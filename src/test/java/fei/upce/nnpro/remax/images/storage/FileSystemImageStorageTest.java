@@ -0,0 +1,156 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import fei.upce.nnpro.remax.images.dto.ImageMetadata;
+import fei.upce.nnpro.remax.images.entity.Image;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileSystemImageStorageTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO_HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path root;
+
+    private FileSystemImageStorage sut;
+
+    @BeforeEach
+    void setUp() {
+        ImageProperties properties = new ImageProperties();
+        properties.setStorageRoot(root.toString());
+        sut = new FileSystemImageStorage(properties);
+    }
+
+    @Test
+    void store_shouldKeepOnlyMetadataOnImage() throws IOException {
+        Image image = new Image();
+
+        sut.store(image, new ByteArrayInputStream("hello".getBytes()));
+
+        assertThat(image.getContentHash()).isEqualTo(HELLO_HASH);
+        assertThat(image.getSizeBytes()).isEqualTo(5L);
+        assertThat(image.getData()).isNull();
+        assertThat(sut.resolve(HELLO_HASH)).hasContent("hello");
+    }
+
+    @Test
+    void write_identicalContent_shouldBeStoredOnce() throws IOException {
+        StoredContent first = sut.write(new ByteArrayInputStream("hello".getBytes()));
+        StoredContent second = sut.write(new ByteArrayInputStream("hello".getBytes()));
+
+        assertThat(second).isEqualTo(first);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void copyTo_shouldTransferWholeFile() throws IOException {
+        byte[] content = new byte[200_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        StoredContent stored = sut.write(new ByteArrayInputStream(content));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        sut.copyTo(metadata(stored.hash()), out);
+
+        assertThat(out.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void copyRangeTo_shouldTransferOnlySlice() throws IOException {
+        StoredContent stored = sut.write(new ByteArrayInputStream("hello world".getBytes()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        sut.copyRangeTo(metadata(stored.hash()), 6, 5, out);
+
+        assertThat(out.toString()).isEqualTo("world");
+    }
+
+    @Test
+    void sweep_shouldDeleteOnlyOldUnreferencedFiles() throws IOException {
+        StoredContent unused = sut.write(new ByteArrayInputStream("unused".getBytes()));
+        StoredContent used = sut.write(new ByteArrayInputStream("used".getBytes()));
+        StoredContent recent = sut.write(new ByteArrayInputStream("recent".getBytes()));
+        age(sut.resolve(unused.hash()));
+        age(sut.resolve(used.hash()));
+
+        int deleted = sut.sweep(used.hash()::equals, Instant.now().minus(Duration.ofHours(1)));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(sut.resolve(unused.hash())).doesNotExist();
+        assertThat(sut.resolve(used.hash())).exists();
+        assertThat(sut.resolve(recent.hash())).exists();
+    }
+
+    @Test
+    void sweep_shouldKeepContentReusedByAnUpload() throws IOException {
+        sut.write(new ByteArrayInputStream("hello".getBytes()));
+        age(sut.resolve(HELLO_HASH));
+
+        // An upload of identical content reuses the file and refreshes its timestamp before its row commits
+        sut.write(new ByteArrayInputStream("hello".getBytes()));
+        int deleted = sut.sweep(hash -> false, Instant.now().minus(Duration.ofHours(1)));
+
+        assertThat(deleted).isZero();
+        assertThat(sut.resolve(HELLO_HASH)).hasContent("hello");
+    }
+
+    @Test
+    void sweep_shouldRestoreParkedFileThatIsReferencedAgain() throws IOException {
+        sut.write(new ByteArrayInputStream("hello".getBytes()));
+        Path parked = sut.resolve(HELLO_HASH).resolveSibling(HELLO_HASH + ".sweep");
+        Files.move(sut.resolve(HELLO_HASH), parked);
+        age(parked);
+
+        int deleted = sut.sweep(HELLO_HASH::equals, Instant.now().minus(Duration.ofHours(1)));
+
+        assertThat(deleted).isZero();
+        assertThat(parked).doesNotExist();
+        assertThat(sut.resolve(HELLO_HASH)).hasContent("hello");
+    }
+
+    @Test
+    void sweep_shouldDeleteAbandonedTemporaryFiles() throws IOException {
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        age(temp);
+
+        sut.sweep(hash -> false, Instant.now().minus(Duration.ofHours(1)));
+
+        assertThat(temp).doesNotExist();
+    }
+
+    @Test
+    void resolve_shouldRejectNonHashKeys() {
+        assertThatThrownBy(() -> sut.resolve("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void age(Path file) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+    }
+
+    private static ImageMetadata metadata(String hash) {
+        ImageMetadata metadata = mock(ImageMetadata.class);
+        when(metadata.getContentHash()).thenReturn(hash);
+        return metadata;
+    }
+}
@@ -0,0 +1,75 @@
+package fei.upce.nnpro.remax.images.storage;
+
+import fei.upce.nnpro.remax.images.config.ImageProperties;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.images.entity.ImageStorageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ImageStorageMigrationJobTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path root;
+
+    private FileSystemImageStorage fileSystemStorage;
+    private ImageStorageMigrationJob sut;
+
+    @BeforeEach
+    void setUp() {
+        ImageProperties properties = new ImageProperties();
+        properties.setStorageRoot(root.toString());
+        properties.getMigration().setBatchSize(2);
+        fileSystemStorage = new FileSystemImageStorage(properties);
+        sut = new ImageStorageMigrationJob(jdbcTemplate, transactionManager, fileSystemStorage, properties);
+    }
+
+    @Test
+    void migrateBatch_shouldMoveBlobsInBatchesAndDeduplicate() throws IOException {
+        Long first = persistDatabaseImage("same".getBytes());
+        Long second = persistDatabaseImage("same".getBytes());
+        Long third = persistDatabaseImage("other".getBytes());
+
+        assertThat(sut.migrateBatch()).isEqualTo(2);
+        assertThat(sut.migrateBatch()).isEqualTo(1);
+        assertThat(sut.migrateBatch()).isZero();
+
+        em.clear();
+        for (Long id : new Long[]{first, second, third}) {
+            Image image = em.find(Image.class, id);
+            assertThat(image.getStorage()).isEqualTo(ImageStorageType.FILESYSTEM);
+            assertThat(image.getData()).isNull();
+            assertThat(fileSystemStorage.resolve(image.getContentHash())).exists();
+        }
+        assertThat(em.find(Image.class, first).getContentHash()).isEqualTo(em.find(Image.class, second).getContentHash());
+        assertThat(em.find(Image.class, third).getSizeBytes()).isEqualTo(5L);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(2);
+        }
+    }
+
+    private Long persistDatabaseImage(byte[] data) {
+        Image image = new Image();
+        image.setFilename("legacy.jpg");
+        image.setContentType("image/jpeg");
+        image.setData(data);
+        return em.persistAndFlush(image).getId();
+    }
+}
@@ -1,45 +1,49 @@
 package fei.upce.nnpro.remax.mail;
 
-import fei.upce.nnpro.remax.mail.config.MailProperties;
+import fei.upce.nnpro.remax.mail.entity.OutboundMail;
+import fei.upce.nnpro.remax.mail.entity.OutboundMailStatus;
+import fei.upce.nnpro.remax.mail.repository.OutboundMailRepository;
+import fei.upce.nnpro.remax.mail.service.MailOutboxDispatcher;
 import fei.upce.nnpro.remax.mail.service.MailService;
-import jakarta.mail.internet.MimeMessage;
+import fei.upce.nnpro.remax.mail.template.MailTemplateEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
-import org.springframework.mail.javamail.JavaMailSender;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 public class MailServiceTest {
 
-    private JavaMailSender mailSender;
-    private MailProperties props;
+    private OutboundMailRepository outboundMailRepository;
+    private MailOutboxDispatcher dispatcher;
     private MailService mailService;
 
     @BeforeEach
     void setUp() {
-        mailSender = Mockito.mock(JavaMailSender.class);
-        props = new MailProperties();
-        props.setFrom("no-reply@test.example");
-        props.setReplyTo("reply@test.example");
-        MimeMessage msg = Mockito.mock(MimeMessage.class);
-        when(mailSender.createMimeMessage()).thenReturn(msg);
-        mailService = new MailService(mailSender, props);
+        outboundMailRepository = Mockito.mock(OutboundMailRepository.class);
+        dispatcher = Mockito.mock(MailOutboxDispatcher.class);
+        when(outboundMailRepository.save(any(OutboundMail.class))).thenAnswer(inv -> inv.getArgument(0));
+        mailService = new MailService(outboundMailRepository, dispatcher, new MailTemplateEngine());
     }
 
     @Test
-    void sendPasswordResetCode_shouldSendMessage() {
+    void sendPasswordResetCode_shouldQueueMessage() {
         String to = "user@example.com";
         String code = "ABC123";
 
         mailService.sendPasswordResetCode(to, code);
 
-        ArgumentCaptor<MimeMessage> captor = ArgumentCaptor.forClass(MimeMessage.class);
-        verify(mailSender, times(1)).send(captor.capture());
-        MimeMessage sent = captor.getValue();
-        assertThat(sent).isNotNull();
+        ArgumentCaptor<OutboundMail> captor = ArgumentCaptor.forClass(OutboundMail.class);
+        verify(outboundMailRepository, times(1)).save(captor.capture());
+        OutboundMail queued = captor.getValue();
+        assertThat(queued.getRecipient()).isEqualTo(to);
+        assertThat(queued.getBody()).contains(code).contains("Obnovení hesla").contains(to);
+        assertThat(queued.getStatus()).isEqualTo(OutboundMailStatus.PENDING);
+        assertThat(queued.getNextAttemptAt()).isNotNull();
+        // no surrounding transaction, so the dispatcher is woken up right away
+        verify(dispatcher).requestDispatch();
     }
 }
-
@@ -0,0 +1,177 @@
+package fei.upce.nnpro.remax.mail.service;
+
+import fei.upce.nnpro.remax.mail.config.MailProperties;
+import fei.upce.nnpro.remax.mail.entity.OutboundMail;
+import fei.upce.nnpro.remax.mail.entity.OutboundMailStatus;
+import fei.upce.nnpro.remax.mail.repository.OutboundMailRepository;
+import fei.upce.nnpro.remax.testutil.LocalSmtpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Outbox delivery against an in-process SMTP server. Not transactional, so the dispatcher's own
+ * transactions see the rows written by the test.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MailOutboxDispatcherTest {
+
+    @Autowired private OutboundMailRepository outboundMailRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private LocalSmtpServer smtpServer;
+    private MailProperties properties;
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new LocalSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.port());
+
+        properties = new MailProperties();
+        properties.setFrom("no-reply@test.example");
+        properties.getOutbox().setConnections(2);
+        properties.getOutbox().setMaxAttempts(2);
+        properties.getOutbox().setInitialBackoff(Duration.ofMinutes(1));
+        dispatcher = new MailOutboxDispatcher(outboundMailRepository, mailSender, properties, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        outboundMailRepository.deleteAll();
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("Dispatch: due mails are sent over the configured number of connections")
+    void dispatchDue_SendsBatchOverPooledConnections() {
+        for (int i = 0; i < 6; i++) {
+            enqueue("user" + i + "@example.com");
+        }
+
+        int claimed = dispatcher.dispatchDue();
+
+        assertThat(claimed).isEqualTo(6);
+        assertThat(smtpServer.received()).hasSize(6);
+        assertThat(smtpServer.received().getFirst().data()).contains("Subject: Test");
+        assertThat(smtpServer.connections()).isEqualTo(2);
+        assertThat(outboundMailRepository.findAll()).allSatisfy(mail -> {
+            assertThat(mail.getStatus()).isEqualTo(OutboundMailStatus.SENT);
+            assertThat(mail.getSentAt()).isNotNull();
+            assertThat(mail.getAttempts()).isEqualTo(1);
+            assertThat(mail.getBody()).isNull();
+        });
+        assertThat(dispatcher.dispatchDue()).isZero();
+    }
+
+    @Test
+    @DisplayName("Dispatch: rejected mail is retried with backoff and fails after the last attempt")
+    void dispatchDue_RetriesThenFails() {
+        smtpServer.reject("bad@example.com");
+        OutboundMail good = enqueue("good@example.com");
+        OutboundMail bad = enqueue("bad@example.com");
+
+        dispatcher.dispatchDue();
+
+        assertThat(outboundMailRepository.findById(good.getId()).orElseThrow().getStatus()).isEqualTo(OutboundMailStatus.SENT);
+        OutboundMail retried = outboundMailRepository.findById(bad.getId()).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(OutboundMailStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isNotBlank();
+        assertThat(retried.getBody()).isNotNull();
+        assertThat(retried.getNextAttemptAt()).isAfter(ZonedDateTime.now().plusSeconds(30));
+        // Not due yet
+        assertThat(dispatcher.dispatchDue()).isZero();
+
+        retried.setNextAttemptAt(ZonedDateTime.now().minusSeconds(1));
+        outboundMailRepository.save(retried);
+        assertThat(dispatcher.dispatchDue()).isEqualTo(1);
+
+        OutboundMail failed = outboundMailRepository.findById(bad.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboundMailStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getBody()).isNull();
+        assertThat(smtpServer.received()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Purge: finished mails past the retention are deleted, pending ones are kept")
+    void purgeFinished_DeletesOldFinishedMails() {
+        properties.getOutbox().setRetention(Duration.ofDays(30));
+        OutboundMail oldSent = enqueue("old-sent@example.com");
+        oldSent.setStatus(OutboundMailStatus.SENT);
+        oldSent.setCreatedAt(ZonedDateTime.now().minusDays(31));
+        outboundMailRepository.save(oldSent);
+        OutboundMail oldPending = enqueue("old-pending@example.com");
+        oldPending.setCreatedAt(ZonedDateTime.now().minusDays(31));
+        outboundMailRepository.save(oldPending);
+        OutboundMail recentSent = enqueue("recent-sent@example.com");
+        recentSent.setStatus(OutboundMailStatus.SENT);
+        outboundMailRepository.save(recentSent);
+
+        assertThat(dispatcher.purgeFinished()).isEqualTo(1);
+
+        assertThat(outboundMailRepository.findAll())
+                .extracting(OutboundMail::getRecipient)
+                .containsExactlyInAnyOrder("old-pending@example.com", "recent-sent@example.com");
+    }
+
+    @Test
+    @DisplayName("Lease: must outlast one connection's share of a batch")
+    void validateLease_RejectsLeaseShorterThanShare() {
+        MailProperties.Outbox outbox = properties.getOutbox();
+        outbox.setBatchSize(50);
+        outbox.setConnections(2);
+        outbox.setSendTimeout(Duration.ofSeconds(30));
+
+        outbox.setLease(Duration.ofMinutes(5));
+        assertThatThrownBy(() -> MailOutboxDispatcher.validateLease(outbox))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("25 mails");
+
+        outbox.setLease(Duration.ofMinutes(13));
+        assertThatCode(() -> MailOutboxDispatcher.validateLease(outbox)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Backoff: doubles per attempt up to the maximum")
+    void backoff_IsExponentialAndCapped() {
+        MailProperties.Outbox outbox = properties.getOutbox();
+        outbox.setMaxBackoff(Duration.ofMinutes(5));
+
+        assertThat(MailOutboxDispatcher.backoff(1, outbox)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(MailOutboxDispatcher.backoff(2, outbox)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(MailOutboxDispatcher.backoff(3, outbox)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(MailOutboxDispatcher.backoff(4, outbox)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(MailOutboxDispatcher.backoff(60, outbox)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private OutboundMail enqueue(String recipient) {
+        ZonedDateTime now = ZonedDateTime.now();
+        OutboundMail mail = new OutboundMail();
+        mail.setRecipient(recipient);
+        mail.setSubject("Test");
+        mail.setBody("<p>Hello</p>");
+        mail.setHtml(true);
+        mail.setCreatedAt(now);
+        mail.setNextAttemptAt(now.minusSeconds(1));
+        return outboundMailRepository.save(mail);
+    }
+}
@@ -0,0 +1,53 @@
+package fei.upce.nnpro.remax.mail.template;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation check of {@link MailTemplate}, excluded from the default test run because the numbers depend on the
+ * JVM and on whatever else runs in the same fork. Run with {@code mvn test -Dtest.excludedGroups= -Dgroups=benchmark}.
+ */
+@Tag("benchmark")
+class MailTemplateBenchmarkTest {
+
+    /**
+     * Poor man's microbenchmark: renders the password reset mail many times and checks the bytes allocated per
+     * render stay close to the size of the output itself. The previous implementation re-read the resource and
+     * copied the whole template once per parameter on every mail.
+     */
+    @Test
+    @DisplayName("Render: password reset mail allocates little more than its output")
+    void render_AllocationPerMail() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        MailTemplate template = new MailTemplateEngine().find("templates/password-reset.html").orElseThrow();
+        Map<String, String> params = new HashMap<>(Map.of("code", "0123456789ABCDEF0123456789ABCDEF", "email", "user@example.com"));
+        int outputChars = template.render(params).length();
+        for (int i = 0; i < 20_000; i++) {
+            template.render(params);
+        }
+
+        int renders = 50_000;
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long totalLength = 0;
+        for (int i = 0; i < renders; i++) {
+            totalLength += template.render(params).length();
+        }
+        long perRender = (threads.getThreadAllocatedBytes(threadId) - before) / renders;
+
+        assertThat(totalLength).isEqualTo((long) outputChars * renders);
+        // builder (inflated to UTF-16 by the Czech text) and the resulting string, plus some slack
+        assertThat(perRender).isLessThan(outputChars * 2L * 4);
+    }
+}
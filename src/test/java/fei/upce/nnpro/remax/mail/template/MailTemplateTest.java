@@ -0,0 +1,46 @@
+package fei.upce.nnpro.remax.mail.template;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailTemplateTest {
+
+    @Test
+    @DisplayName("Render: placeholders are replaced, missing ones render empty")
+    void render_ReplacesPlaceholders() {
+        MailTemplate template = MailTemplate.compile("t", "Hi {{ name }}, code {{code}}{{missing}}.");
+
+        assertThat(template.render(Map.of("name", "Jan", "code", "ABC"))).isEqualTo("Hi Jan, code ABC.");
+    }
+
+    @Test
+    @DisplayName("Render: parameter values are HTML-escaped, template text is not")
+    void render_EscapesParameters() {
+        MailTemplate template = MailTemplate.compile("t", "<p>{{v}}</p>");
+
+        assertThat(template.render(Map.of("v", "<script>alert('x') & \"y\"</script>")))
+                .isEqualTo("<p>&lt;script&gt;alert(&#39;x&#39;) &amp; &quot;y&quot;&lt;/script&gt;</p>");
+    }
+
+    @Test
+    @DisplayName("Compile: unterminated placeholder stays literal text")
+    void compile_UnterminatedPlaceholder() {
+        MailTemplate template = MailTemplate.compile("t", "a {{b}} c {{d");
+
+        assertThat(template.render(Map.of("b", "B", "d", "D"))).isEqualTo("a B c {{d");
+    }
+
+    @Test
+    @DisplayName("Engine: classpath templates are compiled at startup")
+    void engine_FindsPasswordResetTemplate() {
+        MailTemplateEngine engine = new MailTemplateEngine();
+
+        assertThat(engine.find("templates/password-reset.html")).isPresent();
+        assertThat(engine.find("/templates/password-reset.html")).isPresent();
+        assertThat(engine.find("templates/unknown.html")).isEmpty();
+    }
+}
@@ -1,7 +1,9 @@
 package fei.upce.nnpro.remax.meetings;
 
+import fei.upce.nnpro.remax.meetings.dto.MeetingCalendarFilterDto;
 import fei.upce.nnpro.remax.meetings.dto.MeetingDto;
 import fei.upce.nnpro.remax.meetings.dto.MeetingMapper;
+import fei.upce.nnpro.remax.meetings.dto.RealEstateSimplifiedDto;
 import fei.upce.nnpro.remax.meetings.entity.Meeting;
 import fei.upce.nnpro.remax.meetings.repository.MeetingRepository;
 import fei.upce.nnpro.remax.meetings.service.MeetingService;
@@ -15,19 +17,28 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import fei.upce.nnpro.remax.meetings.entity.enums.MeetingType;
 import fei.upce.nnpro.remax.meetings.entity.enums.MeetingStatus;
 
@@ -433,4 +444,85 @@ class MeetingServiceTest {
         assertThat(result.getTitle()).isEqualTo("New Title");
         verify(meetingRepository).save(existing);
     }
+
+    @Test
+    @DisplayName("Calendar: realtor calendar is queried by realtor id in chronological order")
+    void getMyCalendar_Realtor() {
+        Realtor realtor = new Realtor(); realtor.setId(2L);
+        when(remaxUserRepository.findByUsername("agent")).thenReturn(Optional.of(realtor));
+        MeetingCalendarFilterDto filter = window(ZonedDateTime.now(), 30);
+        filter.setStatus(MeetingStatus.CONFIRMED);
+        when(meetingRepository.findRealtorCalendar(eq(2L), eq(filter.getFrom()), eq(filter.getTo()),
+                eq(MeetingStatus.CONFIRMED), isNull(), any(Pageable.class))).thenReturn(Page.empty());
+
+        meetingService.getMyCalendar("agent", filter, PageRequest.of(1, 10, Sort.by("title")));
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(meetingRepository).findRealtorCalendar(eq(2L), any(), any(), any(), any(), captor.capture());
+        assertThat(captor.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(captor.getValue().getSort()).containsExactly(Sort.Order.asc("meetingTime"), Sort.Order.asc("id"));
+        verify(meetingRepository, never()).findClientCalendar(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Calendar: client calendar is queried by client id")
+    void getMyCalendar_Client() {
+        Client client = new Client(); client.setId(3L);
+        when(remaxUserRepository.findByUsername("client")).thenReturn(Optional.of(client));
+        MeetingCalendarFilterDto filter = window(ZonedDateTime.now(), 7);
+        when(meetingRepository.findClientCalendar(eq(3L), any(), any(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        meetingService.getMyCalendar("client", filter, PageRequest.of(0, 20));
+
+        verify(meetingRepository).findClientCalendar(eq(3L), any(), any(), isNull(), isNull(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Calendar: window must be bounded and ordered")
+    void getMyCalendar_InvalidWindow() {
+        MeetingCalendarFilterDto open = new MeetingCalendarFilterDto();
+        open.setFrom(ZonedDateTime.now());
+        MeetingCalendarFilterDto reversed = window(ZonedDateTime.now(), -1);
+        MeetingCalendarFilterDto tooLong = window(ZonedDateTime.now(), 400);
+
+        assertThatThrownBy(() -> meetingService.searchCalendar(open, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> meetingService.searchCalendar(reversed, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> meetingService.getMyCalendar("agent", tooLong, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Estate picker: prefix is lower-cased and LIKE wildcards are escaped")
+    void listRealEstatesSimplified_Prefix() {
+        when(realEstateRepository.findSimplifiedByNameLike(eq("byt\\_50\\%%"), any(Pageable.class))).thenReturn(Page.empty());
+
+        meetingService.listRealEstatesSimplified("  Byt_50% ", PageRequest.of(0, 500));
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(realEstateRepository).findSimplifiedByNameLike(eq("byt\\_50\\%%"), captor.capture());
+        assertThat(captor.getValue().getPageSize()).isEqualTo(100);
+        assertThat(captor.getValue().getSort()).containsExactly(Sort.Order.asc("name"), Sort.Order.asc("id"));
+    }
+
+    @Test
+    @DisplayName("Estate picker: blank query lists all estates")
+    void listRealEstatesSimplified_NoQuery() {
+        when(realEstateRepository.findSimplified(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new RealEstateSimplifiedDto(1L, "Byt"))));
+
+        Page<RealEstateSimplifiedDto> page = meetingService.listRealEstatesSimplified(" ", PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).extracting(RealEstateSimplifiedDto::getTitle).containsExactly("Byt");
+        verify(realEstateRepository, never()).findSimplifiedByNameLike(any(), any());
+    }
+
+    private static MeetingCalendarFilterDto window(ZonedDateTime from, int days) {
+        MeetingCalendarFilterDto filter = new MeetingCalendarFilterDto();
+        filter.setFrom(from);
+        filter.setTo(from.plusDays(days));
+        return filter;
+    }
 }
@@ -0,0 +1,111 @@
+package fei.upce.nnpro.remax.meetings.repository;
+
+import fei.upce.nnpro.remax.meetings.dto.MeetingDto;
+import fei.upce.nnpro.remax.meetings.entity.Meeting;
+import fei.upce.nnpro.remax.meetings.entity.enums.MeetingStatus;
+import fei.upce.nnpro.remax.meetings.entity.enums.MeetingType;
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.realestates.entity.RealEstate;
+import fei.upce.nnpro.remax.testutil.RealEstateTestData;
+import fei.upce.nnpro.remax.testutil.ReviewTestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class MeetingRepositoryTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2025, 10, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+    private static final Sort CALENDAR_ORDER = Sort.by(Sort.Order.asc("meetingTime"), Sort.Order.asc("id"));
+
+    @Autowired private MeetingRepository meetingRepository;
+    @Autowired private TestEntityManager em;
+
+    private Realtor realtor;
+    private Realtor otherRealtor;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        realtor = RealEstateTestData.persistRealtor(em, "realtor-calendar");
+        otherRealtor = RealEstateTestData.persistRealtor(em, "realtor-calendar-other");
+        client = ReviewTestData.persistClient(em, "client-calendar");
+        Client otherClient = ReviewTestData.persistClient(em, "client-calendar-other");
+        RealEstate apartment = RealEstateTestData.persistApartment(em, realtor, "Calendar flat", 3_000_000);
+
+        // one meeting per day for 60 days, alternating status and type, inserted in reverse order
+        for (int day = 59; day >= 0; day--) {
+            persistMeeting(apartment, realtor, client, START.plusDays(day),
+                    day % 2 == 0 ? MeetingStatus.CONFIRMED : MeetingStatus.PENDING,
+                    day % 3 == 0 ? MeetingType.ONLINE : MeetingType.OFFLINE);
+        }
+        persistMeeting(apartment, otherRealtor, otherClient, START.plusDays(1), MeetingStatus.CONFIRMED, MeetingType.ONLINE);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Realtor calendar: window is half-open and pages are chronological")
+    void findRealtorCalendar_WindowAndOrder() {
+        Page<MeetingDto> page = meetingRepository.findRealtorCalendar(realtor.getId(),
+                START.plusDays(10), START.plusDays(20), null, null, PageRequest.of(0, 4, CALENDAR_ORDER));
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).extracting(MeetingDto::getMeetingTime)
+                .extracting(time -> time.withZoneSameInstant(ZoneOffset.UTC).getDayOfMonth())
+                .containsExactly(11, 12, 13, 14);
+        assertThat(page.getContent()).allSatisfy(dto -> {
+            assertThat(dto.getRealtorId()).isEqualTo(realtor.getId());
+            assertThat(dto.getClientId()).isEqualTo(client.getId());
+        });
+    }
+
+    @Test
+    @DisplayName("Client calendar: status and type filters")
+    void findClientCalendar_Filters() {
+        Page<MeetingDto> page = meetingRepository.findClientCalendar(client.getId(),
+                START, START.plusDays(60), MeetingStatus.CONFIRMED, MeetingType.ONLINE, PageRequest.of(0, 100, CALENDAR_ORDER));
+
+        // days divisible by both 2 and 3
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).allSatisfy(dto -> {
+            assertThat(dto.getMeetingStatus()).isEqualTo(MeetingStatus.CONFIRMED);
+            assertThat(dto.getMeetingType()).isEqualTo(MeetingType.ONLINE);
+        });
+    }
+
+    @Test
+    @DisplayName("Calendar: other users' meetings only appear in the global calendar")
+    void findCalendar_IncludesEveryone() {
+        assertThat(meetingRepository.findRealtorCalendar(otherRealtor.getId(), START, START.plusDays(60),
+                null, null, PageRequest.of(0, 10, CALENDAR_ORDER)).getTotalElements()).isEqualTo(1);
+        assertThat(meetingRepository.findCalendar(START, START.plusDays(2),
+                null, null, PageRequest.of(0, 10, CALENDAR_ORDER)).getTotalElements()).isEqualTo(3);
+    }
+
+    private void persistMeeting(RealEstate realEstate, Realtor realtor, Client client, ZonedDateTime time,
+                                MeetingStatus status, MeetingType type) {
+        Meeting meeting = new Meeting();
+        meeting.setMeetingTime(time);
+        meeting.setTitle("Viewing");
+        meeting.setDescription("Viewing of " + realEstate.getName());
+        meeting.setMeetingStatus(status);
+        meeting.setMeetingType(type);
+        meeting.setRealEstate(realEstate);
+        meeting.setRealtor(realtor);
+        meeting.setClient(client);
+        em.persist(meeting);
+    }
+}
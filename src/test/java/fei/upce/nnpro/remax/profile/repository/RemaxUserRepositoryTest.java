@@ -0,0 +1,127 @@
+package fei.upce.nnpro.remax.profile.repository;
+
+import fei.upce.nnpro.remax.profile.dto.RemaxUserFilterDto;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSummaryDto;
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
+import fei.upce.nnpro.remax.profile.entity.enums.UserRole;
+import fei.upce.nnpro.remax.testutil.RealEstateTestData;
+import fei.upce.nnpro.remax.testutil.ReviewTestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RemaxUserRepositoryTest {
+
+    private static final int CLIENTS = 10;
+    private static final int REALTORS = 4;
+
+    @Autowired private RemaxUserRepository userRepository;
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = ReviewTestData.persistClient(em, "client_" + i);
+            if (i % 5 == 0) {
+                client.setAccountStatus(AccountStatus.BLOCKED);
+            }
+        }
+        for (int i = 0; i < REALTORS; i++) {
+            RealEstateTestData.persistRealtor(em, "realtor-" + i);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Summaries: keyset walk visits every user once in id order without loading entities")
+    void findSummaries_KeysetWalk() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> visited = new ArrayList<>();
+        Long afterId = null;
+        List<RemaxUserSummaryDto> slice;
+        do {
+            slice = userRepository.findSummaries(new RemaxUserFilterDto(), afterId, 3);
+            slice.forEach(dto -> visited.add(dto.getId()));
+            if (!slice.isEmpty()) {
+                afterId = slice.getLast().getId();
+            }
+        } while (!slice.isEmpty());
+
+        assertThat(visited).hasSize(CLIENTS + REALTORS).doesNotHaveDuplicates().isSorted();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Summaries: role, status and name prefix are filtered in the query")
+    void findSummaries_Filters() {
+        RemaxUserFilterDto agents = new RemaxUserFilterDto();
+        agents.setRole(UserRole.AGENT);
+        List<RemaxUserSummaryDto> realtors = userRepository.findSummaries(agents, null, 100);
+        assertThat(realtors).hasSize(REALTORS).allSatisfy(dto -> {
+            assertThat(dto.getRole()).isEqualTo("AGENT");
+            assertThat(dto.getLastName()).isEqualTo("Makléř");
+        });
+
+        RemaxUserFilterDto blockedClients = new RemaxUserFilterDto();
+        blockedClients.setRole(UserRole.CLIENT);
+        blockedClients.setStatus(AccountStatus.BLOCKED);
+        assertThat(userRepository.findSummaries(blockedClients, null, 100))
+                .extracting(RemaxUserSummaryDto::getUsername)
+                .containsExactly("client_0", "client_5");
+
+        RemaxUserFilterDto byName = new RemaxUserFilterDto();
+        byName.setName("CLIENT_1");
+        assertThat(userRepository.findSummaries(byName, null, 100))
+                .extracting(RemaxUserSummaryDto::getUsername)
+                .containsExactly("client_1");
+
+        // '_' is matched literally, not as a single-character wildcard
+        RemaxUserFilterDto wildcard = new RemaxUserFilterDto();
+        wildcard.setName("realtor_");
+        assertThat(userRepository.findSummaries(wildcard, null, 100)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Failed logins: counter is incremented in place and blocks at the threshold")
+    void recordFailedLogin_BlocksAtThreshold() {
+        Long id = userRepository.findByUsername("client_1").orElseThrow().getId();
+        ZonedDateTime blockedUntil = ZonedDateTime.now().plusHours(24);
+
+        userRepository.recordFailedLogin(id, 3, blockedUntil);
+        userRepository.recordFailedLogin(id, 3, blockedUntil);
+        em.clear();
+        Client afterTwo = (Client) userRepository.findById(id).orElseThrow();
+        assertThat(afterTwo.getFailedLoginAttempts()).isEqualTo(2);
+        assertThat(afterTwo.getAccountStatus()).isEqualTo(AccountStatus.NORMAL);
+        assertThat(afterTwo.getBlockedUntil()).isNull();
+        assertThat(userRepository.findFailedLoginAttempts(id)).contains(2);
+
+        userRepository.recordFailedLogin(id, 3, blockedUntil);
+        em.clear();
+        Client blocked = (Client) userRepository.findById(id).orElseThrow();
+        assertThat(blocked.getFailedLoginAttempts()).isEqualTo(3);
+        assertThat(blocked.getAccountStatus()).isEqualTo(AccountStatus.BLOCKED);
+        assertThat(blocked.getBlockedUntil()).isNotNull();
+
+        assertThat(userRepository.resetFailedLogins(id)).isEqualTo(1);
+        assertThat(userRepository.resetFailedLogins(id)).isZero();
+    }
+}
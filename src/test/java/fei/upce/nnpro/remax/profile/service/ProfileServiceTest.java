@@ -5,9 +5,12 @@ import fei.upce.nnpro.remax.address.service.AddressService;
 import fei.upce.nnpro.remax.profile.dto.ProfileUpdateRequest;
 import fei.upce.nnpro.remax.profile.entity.Client;
 import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
 import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
 import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,8 +18,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,11 +41,14 @@ class ProfileServiceTest {
     @Mock
     private PersonalInformationService personalInformationService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ProfileService sut;
 
     @BeforeEach
     void setUp() {
-        sut = new ProfileService(userRepository, addressService, personalInformationService);
+        sut = new ProfileService(userRepository, addressService, personalInformationService, new UserDetailsCache(new SecurityProperties()), eventPublisher);
     }
 
     // --------------------------------------------------------------------------------------
@@ -470,6 +478,24 @@ class ProfileServiceTest {
         verify(userRepository).delete(user);
     }
 
+    @Test
+    @DisplayName("deleteProfile: Should publish the realtor's cascaded listings")
+    void deleteProfile_Realtor_PublishesDeletedListings() {
+        // Arrange
+        RemaxUser realtor = new Realtor();
+        realtor.setUsername("realtor");
+        realtor.setId(3L);
+        when(userRepository.findByUsername("realtor")).thenReturn(Optional.of(realtor));
+        when(userRepository.findListingIdsByRealtorId(3L)).thenReturn(List.of(11L, 12L));
+
+        // Act
+        sut.deleteProfile("realtor");
+
+        // Assert
+        verify(userRepository).delete(realtor);
+        verify(eventPublisher).publishEvent(new RealtorDeletedEvent(3L, List.of(11L, 12L)));
+    }
+
     @Test
     @DisplayName("deleteProfile: Should throw exception when user not found")
     void deleteProfile_Fail_UserNotFound() {
@@ -6,13 +6,18 @@ import fei.upce.nnpro.remax.address.entity.Address;
 import fei.upce.nnpro.remax.address.service.AddressService;
 import fei.upce.nnpro.remax.profile.entity.Realtor;
 import fei.upce.nnpro.remax.profile.service.ProfileService;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateClusterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateCountMode;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateDto;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateFilterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateSummaryDto;
 import fei.upce.nnpro.remax.realestates.entity.Apartment;
 import fei.upce.nnpro.remax.realestates.entity.RealEstate;
 import fei.upce.nnpro.remax.realestates.factory.RealEstateFactory;
 import fei.upce.nnpro.remax.realestates.factory.strategy.RealEstateUpdateStrategy;
 import fei.upce.nnpro.remax.realestates.repository.RealEstateRepository;
+import fei.upce.nnpro.remax.realestates.search.RealEstateSearchDocument;
+import fei.upce.nnpro.remax.realestates.search.RealEstateSearchIndex;
 import fei.upce.nnpro.remax.realestates.service.RealEstateCommonUpdater;
 import fei.upce.nnpro.remax.realestates.service.RealEstateImageHelper;
 import fei.upce.nnpro.remax.realestates.service.RealEstatePriceHelper;
@@ -29,16 +34,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -57,6 +68,7 @@ class RealEstateServiceTest {
     @Mock private RealEstatePriceHelper priceHelper;
     @Mock private RealEstateImageHelper imageHelper;
     @Mock private List<RealEstateUpdateStrategy> updateStrategies;
+    @Mock private RealEstateSearchIndex searchIndex;
 
     // Helper mock for the strategy stream
     @Mock private RealEstateUpdateStrategy mockStrategy;
@@ -110,6 +122,9 @@ class RealEstateServiceTest {
         // 4. Verify Save (called at least once)
         verify(realEstateRepository, atLeastOnce()).save(mockEntity);
 
+        // 5. Verify the listing became searchable (no transaction here, so immediately)
+        verify(searchIndex).index(any(RealEstateSearchDocument.class));
+
         assertThat(result).isEqualTo(mockEntity);
     }
 
@@ -165,8 +180,9 @@ class RealEstateServiceTest {
         verify(imageHelper).handleImages(existing, dto.getImages());
         verify(addressService).update(any(Address.class), eq(existingAddress));
 
-        // 4. Verify Save
+        // 4. Verify Save, address changes are re-indexed with the rest of the listing
         verify(realEstateRepository).save(existing);
+        verify(searchIndex).index(any(RealEstateSearchDocument.class));
     }
 
     @Test
@@ -266,6 +282,244 @@ class RealEstateServiceTest {
         verify(realEstateRepository).findAll(any(Specification.class), eq(pageable));
     }
 
+    @Test
+    @DisplayName("Search: the overload without a count mode still applies the text query")
+    void searchRealEstates_WithoutCountModeKeepsTextQuery() {
+        RealEstateFilterDto filter = new RealEstateFilterDto();
+        filter.setQ("hrad");
+        when(searchIndex.match("hrad")).thenReturn(Map.of());
+
+        Page<RealEstate> result = realEstateService.searchRealEstates(filter, PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).isEmpty();
+        verifyNoInteractions(realEstateRepository);
+    }
+
+    @Test
+    @DisplayName("Search summaries: Should delegate to projection query")
+    void searchRealEstateSummaries() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<RealEstateSummaryDto> expectedPage = new PageImpl<>(Collections.emptyList());
+        when(realEstateRepository.findSummaries(any(Specification.class), eq(pageable))).thenReturn(expectedPage);
+
+        Slice<RealEstateSummaryDto> result = realEstateService.searchRealEstateSummaries(
+                new RealEstateFilterDto(), pageable, RealEstateCountMode.EXACT);
+
+        assertThat(result).isSameAs(expectedPage);
+        verify(realEstateRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Search without count: Should return the slice and never count")
+    void searchRealEstates_CountModeNone() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<RealEstate> expectedSlice = new SliceImpl<>(List.of(new Apartment()), pageable, true);
+        when(realEstateRepository.findSlice(any(Specification.class), eq(pageable))).thenReturn(expectedSlice);
+
+        Slice<RealEstate> result = realEstateService.searchRealEstates(
+                new RealEstateFilterDto(), pageable, RealEstateCountMode.NONE);
+
+        assertThat(result).isSameAs(expectedSlice);
+        verify(realEstateRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(realEstateRepository, never()).countUpTo(any(Specification.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Search with estimated count: Should report a total bounded by the cap")
+    void searchRealEstateSummaries_CountModeEstimated() {
+        Pageable pageable = PageRequest.of(0, 2);
+        List<RealEstateSummaryDto> rows = List.of(new RealEstateSummaryDto(), new RealEstateSummaryDto());
+        when(realEstateRepository.findSummarySlice(any(Specification.class), eq(pageable)))
+                .thenReturn(new SliceImpl<>(rows, pageable, true));
+        when(realEstateRepository.countUpTo(any(Specification.class), eq(10_000))).thenReturn(10_000L);
+
+        Slice<RealEstateSummaryDto> result = realEstateService.searchRealEstateSummaries(
+                new RealEstateFilterDto(), pageable, RealEstateCountMode.ESTIMATED);
+
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<RealEstateSummaryDto>) result).getTotalElements()).isEqualTo(10_000L);
+        assertThat(result.getContent()).hasSize(2);
+        verify(realEstateRepository, never()).findSummaries(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Text search: filtered matches are paged in relevance order")
+    void searchRealEstateSummaries_TextQueryKeepsRelevanceOrder() {
+        RealEstateFilterDto filter = new RealEstateFilterDto();
+        filter.setQ("byt pardubice");
+        when(searchIndex.match("byt pardubice")).thenReturn(Map.of(7L, 4.0, 3L, 3.0, 9L, 2.0, 5L, 1.0));
+        // Listing 9 does not pass the other filters
+        when(realEstateRepository.findIds(any(Specification.class), eq(Sort.unsorted()))).thenReturn(List.of(3L, 5L, 7L));
+        when(realEstateRepository.findSummaries(any(Specification.class), eq(Pageable.unpaged())))
+                .thenReturn(new PageImpl<>(List.of(summary(3L), summary(7L))));
+
+        Slice<RealEstateSummaryDto> result = realEstateService.searchRealEstateSummaries(
+                filter, PageRequest.of(0, 2), RealEstateCountMode.NONE);
+
+        // First page of [7, 3, 5], loaded in id order and put back into relevance order
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<RealEstateSummaryDto>) result).getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).extracting(RealEstateSummaryDto::getId).containsExactly(7L, 3L);
+    }
+
+    @Test
+    @DisplayName("Text search: no index match short-circuits without touching the database")
+    void searchRealEstates_TextQueryWithoutMatches() {
+        RealEstateFilterDto filter = new RealEstateFilterDto();
+        filter.setQ("hrad");
+        when(searchIndex.match("hrad")).thenReturn(Map.of());
+
+        Slice<RealEstate> result = realEstateService.searchRealEstates(
+                filter, PageRequest.of(0, 10), RealEstateCountMode.EXACT);
+
+        assertThat(result.getContent()).isEmpty();
+        verifyNoInteractions(realEstateRepository);
+    }
+
+    @Test
+    @DisplayName("Text search: a broad term keeps every match that passes a selective filter")
+    void searchRealEstateSummaries_BroadTextQueryIsNotTruncated() {
+        RealEstateFilterDto filter = new RealEstateFilterDto();
+        filter.setQ("byt");
+        filter.setCity("Pardubice");
+        Map<Long, Double> scores = new HashMap<>();
+        for (long id = 1; id <= 6_000; id++) {
+            scores.put(id, 10_000.0 - id);
+        }
+        // Too many matches to bind: the ids passing the filter are scanned, and listing 7000 does not match the text.
+        // The only listings in Pardubice are the least relevant matches
+        when(searchIndex.match("byt")).thenReturn(scores);
+        when(realEstateRepository.findIds(any(Specification.class), eq(Sort.unsorted())))
+                .thenReturn(List.of(5_999L, 6_000L, 7_000L));
+        when(realEstateRepository.findSummaries(any(Specification.class), eq(Pageable.unpaged())))
+                .thenReturn(new PageImpl<>(List.of(summary(6_000L), summary(5_999L))));
+
+        Slice<RealEstateSummaryDto> result = realEstateService.searchRealEstateSummaries(
+                filter, PageRequest.of(0, 10), RealEstateCountMode.EXACT);
+
+        assertThat(((Page<RealEstateSummaryDto>) result).getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(RealEstateSummaryDto::getId).containsExactly(5_999L, 6_000L);
+    }
+
+    @Test
+    @DisplayName("Text search: an explicit sort orders the matches through the id query")
+    void searchRealEstateSummaries_TextQueryWithSort() {
+        RealEstateFilterDto filter = new RealEstateFilterDto();
+        filter.setQ("byt");
+        Sort byPrice = Sort.by("currentPrice");
+        when(searchIndex.match("byt")).thenReturn(Map.of(3L, 1.0, 5L, 9.0, 7L, 5.0));
+        when(realEstateRepository.findIds(any(Specification.class), eq(byPrice))).thenReturn(List.of(7L, 3L, 5L));
+        when(realEstateRepository.findSummaries(any(Specification.class), eq(Pageable.unpaged())))
+                .thenReturn(new PageImpl<>(List.of(summary(3L), summary(7L))));
+
+        Slice<RealEstateSummaryDto> result = realEstateService.searchRealEstateSummaries(
+                filter, PageRequest.of(0, 2, byPrice), RealEstateCountMode.EXACT);
+
+        assertThat(((Page<RealEstateSummaryDto>) result).getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).extracting(RealEstateSummaryDto::getId).containsExactly(7L, 3L);
+        verify(realEstateRepository).findIds(any(Specification.class), eq(byPrice));
+    }
+
+    private static RealEstateSummaryDto summary(Long id) {
+        RealEstateSummaryDto dto = new RealEstateSummaryDto();
+        dto.setId(id);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Clusters: zoom level selects the geohash cell length")
+    void getClusters_CellLengthFollowsZoom() {
+        RealEstateFilterDto viewport = new RealEstateFilterDto();
+        viewport.setMinLatitude(49.9);
+        viewport.setMaxLatitude(50.2);
+        viewport.setMinLongitude(15.5);
+        viewport.setMaxLongitude(16.0);
+        RealEstateFilterDto street = new RealEstateFilterDto();
+        street.setMinLatitude(50.033);
+        street.setMaxLatitude(50.035);
+        street.setMinLongitude(15.780);
+        street.setMaxLongitude(15.782);
+        List<RealEstateClusterDto> clusters = List.of(new RealEstateClusterDto("u2gh", 3L, 50.03, 15.78, 2e6, 4e6));
+        when(realEstateRepository.findClusters(any(Specification.class), eq(4))).thenReturn(clusters);
+        when(realEstateRepository.findClusters(any(Specification.class), eq(8))).thenReturn(List.of());
+
+        assertThat(realEstateService.getClusters(viewport, 7)).isSameAs(clusters);
+        assertThat(realEstateService.getClusters(street, 22)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Clusters: a viewport too large for the zoom is clustered with coarser cells")
+    void getClusters_LargeViewportCoarsensCells() {
+        RealEstateFilterDto world = new RealEstateFilterDto();
+        world.setMinLatitude(-90.0);
+        world.setMaxLatitude(90.0);
+        world.setMinLongitude(-180.0);
+        world.setMaxLongitude(180.0);
+        RealEstateFilterDto viewport = new RealEstateFilterDto();
+        viewport.setMinLatitude(49.9);
+        viewport.setMaxLatitude(50.2);
+        viewport.setMinLongitude(15.5);
+        viewport.setMaxLongitude(16.0);
+        when(realEstateRepository.findClusters(any(Specification.class), anyInt())).thenReturn(List.of());
+
+        realEstateService.getClusters(world, 22);
+        realEstateService.getClusters(viewport, 22);
+
+        verify(realEstateRepository).findClusters(any(Specification.class), eq(1));
+        // 0.3 x 0.5 degrees span 104 cells of length 5 but 2585 cells of length 6
+        verify(realEstateRepository).findClusters(any(Specification.class), eq(5));
+    }
+
+    @Test
+    @DisplayName("Clusters: text matches are clustered in chunks and merged per cell")
+    void getClusters_TextQueryMergesChunks() {
+        RealEstateFilterDto viewport = new RealEstateFilterDto();
+        viewport.setMinLatitude(49.9);
+        viewport.setMaxLatitude(50.2);
+        viewport.setMinLongitude(15.5);
+        viewport.setMaxLongitude(16.0);
+        viewport.setQ("byt");
+        Map<Long, Double> scores = new HashMap<>();
+        List<Long> inViewport = new ArrayList<>();
+        for (long id = 1; id <= 1_500; id++) {
+            scores.put(id, 1.0);
+            inViewport.add(id);
+        }
+        when(searchIndex.match("byt")).thenReturn(scores);
+        when(realEstateRepository.findIds(any(Specification.class), eq(Sort.unsorted()))).thenReturn(inViewport);
+        when(realEstateRepository.findClusters(any(Specification.class), eq(4))).thenReturn(
+                List.of(new RealEstateClusterDto("u2gh", 1_000L, 50.0, 15.7, 2e6, 4e6)),
+                List.of(new RealEstateClusterDto("u2gh", 500L, 50.3, 15.4, 1e6, 3e6)));
+
+        List<RealEstateClusterDto> clusters = realEstateService.getClusters(viewport, 7);
+
+        assertThat(clusters).hasSize(1);
+        RealEstateClusterDto cluster = clusters.getFirst();
+        assertThat(cluster.getCount()).isEqualTo(1_500L);
+        assertThat(cluster.getLatitude()).isCloseTo(50.1, within(1e-9));
+        assertThat(cluster.getLongitude()).isCloseTo(15.6, within(1e-9));
+        assertThat(cluster.getMinPrice()).isEqualTo(1e6);
+        assertThat(cluster.getMaxPrice()).isEqualTo(4e6);
+        verify(realEstateRepository, times(2)).findClusters(any(Specification.class), eq(4));
+    }
+
+    @Test
+    @DisplayName("Clusters: Should reject a missing viewport or an invalid zoom")
+    void getClusters_InvalidInput() {
+        RealEstateFilterDto noViewport = new RealEstateFilterDto();
+        RealEstateFilterDto viewport = new RealEstateFilterDto();
+        viewport.setMinLatitude(49.9);
+        viewport.setMaxLatitude(50.2);
+        viewport.setMinLongitude(15.5);
+        viewport.setMaxLongitude(16.0);
+
+        assertThatThrownBy(() -> realEstateService.getClusters(noViewport, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> realEstateService.getClusters(viewport, 23))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(realEstateRepository, never()).findClusters(any(Specification.class), anyInt());
+    }
+
     @Test
     @DisplayName("List by Realtor: Should invoke repository")
     void listRealEstatesByRealtor() {
@@ -1,9 +1,12 @@
 package fei.upce.nnpro.remax.realestates.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateClusterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateCountMode;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateDto;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateFilterDto;
 import fei.upce.nnpro.remax.realestates.dto.RealEstateMapper;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateSummaryDto;
 import fei.upce.nnpro.remax.realestates.entity.Apartment;
 import fei.upce.nnpro.remax.realestates.service.RealEstateService;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +19,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.TestingAuthenticationToken;
@@ -27,6 +31,7 @@ import org.springframework.validation.Validator;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -101,7 +106,8 @@ class RealEstateControllerTest {
         e.setName("estate");
         RealEstateDto dto = new RealEstateDto();
         dto.setName("p");
-        Mockito.when(realEstateService.searchRealEstates(any(RealEstateFilterDto.class), any(Pageable.class)))
+        Mockito.when(realEstateService.searchRealEstates(any(RealEstateFilterDto.class), any(Pageable.class),
+                        eq(RealEstateCountMode.EXACT)))
                 .thenReturn(new PageImpl<>(List.of(e)));
         Mockito.when(realEstateMapper.toDto(e)).thenReturn(dto);
 
@@ -109,4 +115,52 @@ class RealEstateControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].name").value("p"));
     }
+
+    @Test
+    void searchRealEstates_summaryView_returnsProjectedRows() throws Exception {
+        RealEstateSummaryDto summary = new RealEstateSummaryDto();
+        summary.setName("s");
+        Mockito.when(realEstateService.searchRealEstateSummaries(any(RealEstateFilterDto.class), any(Pageable.class),
+                        eq(RealEstateCountMode.EXACT)))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+
+        mockMvc.perform(get("/api/real-estates").param("view", "SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("s"));
+
+        Mockito.verifyNoInteractions(realEstateMapper);
+    }
+
+    @Test
+    void searchRealEstates_withoutCount_returnsSliceWithoutTotal() throws Exception {
+        RealEstateSummaryDto summary = new RealEstateSummaryDto();
+        summary.setName("s");
+        Mockito.when(realEstateService.searchRealEstateSummaries(any(RealEstateFilterDto.class), any(Pageable.class),
+                        eq(RealEstateCountMode.NONE)))
+                .thenReturn(new SliceImpl<>(List.of(summary), Pageable.ofSize(1), true));
+
+        mockMvc.perform(get("/api/real-estates").param("view", "SUMMARY").param("count", "NONE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("s"))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getClusters_bindsViewportAndZoom() throws Exception {
+        Mockito.when(realEstateService.getClusters(any(RealEstateFilterDto.class), eq(12)))
+                .thenReturn(List.of(new RealEstateClusterDto("u2ghx", 3L, 50.03, 15.78, 2e6, 4e6)));
+
+        mockMvc.perform(get("/api/real-estates/clusters")
+                        .param("zoom", "12")
+                        .param("minLatitude", "49.9").param("maxLatitude", "50.2")
+                        .param("minLongitude", "15.5").param("maxLongitude", "16.0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cell").value("u2ghx"))
+                .andExpect(jsonPath("$[0].count").value(3));
+
+        Mockito.verify(realEstateService).getClusters(
+                Mockito.argThat(filter -> filter.getMinLatitude() == 49.9 && filter.getMaxLongitude() == 16.0),
+                eq(12));
+    }
 }
@@ -65,6 +65,7 @@ class RealEstateMapperTest {
         PriceHistory priceHistory = new PriceHistory();
         priceHistory.setPrice(250000.0);
         apartment.setPriceHistory(List.of(priceHistory));
+        apartment.setCurrentPrice(250000.0);
 
         Image image1 = new Image();
         image1.setId(10L);
@@ -120,6 +121,7 @@ class RealEstateMapperTest {
         PriceHistory priceHistory = new PriceHistory();
         priceHistory.setPrice(2000.0);
         house.setPriceHistory(List.of(priceHistory));
+        house.setCurrentPrice(2000.0);
 
         RealEstateDto dto = mapper.toDto(house);
 
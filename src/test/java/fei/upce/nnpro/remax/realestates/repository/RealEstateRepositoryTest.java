@@ -0,0 +1,355 @@
+package fei.upce.nnpro.remax.realestates.repository;
+
+import fei.upce.nnpro.remax.address.dto.AddressMapper;
+import fei.upce.nnpro.remax.address.geo.GeoHash;
+import fei.upce.nnpro.remax.meetings.dto.RealEstateSimplifiedDto;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateClusterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateFilterDto;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateMapper;
+import fei.upce.nnpro.remax.realestates.dto.RealEstateSummaryDto;
+import fei.upce.nnpro.remax.realestates.entity.Apartment;
+import fei.upce.nnpro.remax.realestates.entity.CivicAmenities;
+import fei.upce.nnpro.remax.realestates.entity.RealEstate;
+import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
+import fei.upce.nnpro.remax.realestates.entity.enums.CivicAmenity;
+import fei.upce.nnpro.remax.realestates.entity.enums.RealEstateType;
+import fei.upce.nnpro.remax.realestates.entity.enums.Status;
+import fei.upce.nnpro.remax.realestates.entity.enums.TransportPossibility;
+import fei.upce.nnpro.remax.realestates.entity.enums.UtilityType;
+import fei.upce.nnpro.remax.realestates.service.RealEstateCommonUpdater;
+import fei.upce.nnpro.remax.realestates.service.RealEstateSpecification;
+import fei.upce.nnpro.remax.testutil.CapturingStatementInspector;
+import fei.upce.nnpro.remax.testutil.RealEstateTestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "fei.upce.nnpro.remax.testutil.CapturingStatementInspector"
+})
+class RealEstateRepositoryTest {
+
+    private static final int LISTINGS = 30;
+
+    @Autowired private RealEstateRepository realEstateRepository;
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private final RealEstateMapper mapper = new RealEstateMapper(new AddressMapper());
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Realtor realtor = RealEstateTestData.persistRealtor(em, "realtor-fetch-plan");
+        for (int i = 0; i < LISTINGS; i++) {
+            RealEstateTestData.persistApartment(em, realtor, "Listing " + i, 1_000_000 + i);
+        }
+        em.flush();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Search page: statement count does not grow with page size")
+    void searchPage_StatementCountIsConstant() {
+        long smallPage = countStatementsForPage(5);
+        long fullPage = countStatementsForPage(25);
+
+        assertThat(fullPage).isEqualTo(smallPage);
+    }
+
+    @Test
+    @DisplayName("Summaries: projection fills listing fields without managing entities")
+    void findSummaries_ProjectsWithoutHydratingEntities() {
+        em.clear();
+
+        Page<RealEstateSummaryDto> page = realEstateRepository.findSummaries(
+                RealEstateSpecification.filterBy(new RealEstateFilterDto()),
+                PageRequest.of(0, 10, Sort.by("currentPrice")));
+
+        assertThat(page.getTotalElements()).isEqualTo(LISTINGS);
+        assertThat(page.getContent()).hasSize(10);
+        RealEstateSummaryDto first = page.getContent().getFirst();
+        assertThat(first.getName()).isEqualTo("Listing 0");
+        assertThat(first.getType()).isEqualTo(RealEstateType.APARTMENT);
+        assertThat(first.getPrice()).isEqualTo(1_000_000.0);
+        assertThat(first.getCity()).isEqualTo("Pardubice");
+        assertThat(first.getUsableArea()).isEqualTo(70.0);
+        assertThat(first.getStatus()).isEqualTo(Status.AVAILABLE);
+        assertThat(first.getThumbnailImageId()).isNotNull();
+
+        Session session = em.getEntityManager().unwrap(Session.class);
+        assertThat(session.getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Picker: id/name projection with case-insensitive prefix and escaped wildcards")
+    void findSimplified_ByNamePrefix() {
+        Realtor realtor = RealEstateTestData.persistRealtor(em, "realtor-picker");
+        RealEstateTestData.persistApartment(em, realtor, "Listing_special", 2_000_000);
+        em.flush();
+        em.clear();
+        PageRequest byName = PageRequest.of(0, 5, Sort.by("name", "id"));
+
+        Page<RealEstateSimplifiedDto> all = realEstateRepository.findSimplified(byName);
+        Page<RealEstateSimplifiedDto> prefixed = realEstateRepository.findSimplifiedByNameLike("listing 1%", byName);
+        Page<RealEstateSimplifiedDto> underscore = realEstateRepository.findSimplifiedByNameLike("listing\\_%", byName);
+
+        assertThat(all.getTotalElements()).isEqualTo(LISTINGS + 1);
+        assertThat(all.getContent()).hasSize(5).allSatisfy(dto -> assertThat(dto.getId()).isNotNull());
+        // "Listing 1" and "Listing 10".."Listing 19"
+        assertThat(prefixed.getTotalElements()).isEqualTo(11);
+        assertThat(prefixed.getContent()).extracting(RealEstateSimplifiedDto::getTitle)
+                .containsExactly("Listing 1", "Listing 10", "Listing 11", "Listing 12", "Listing 13");
+        assertThat(underscore.getContent()).extracting(RealEstateSimplifiedDto::getTitle)
+                .containsExactly("Listing_special");
+        Session session = em.getEntityManager().unwrap(Session.class);
+        assertThat(session.getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Feature filters: contains-all is answered from the masks, not the collection tables")
+    void filterByFeatures_UsesMasks() {
+        Set<CivicAmenity> fiveAmenities = EnumSet.of(CivicAmenity.BUS_STOP, CivicAmenity.ATM,
+                CivicAmenity.KINDERGARTEN, CivicAmenity.SUPERMARKET, CivicAmenity.PLAYGROUND);
+        Realtor realtor = RealEstateTestData.persistRealtor(em, "realtor-features");
+        Apartment wellEquipped = RealEstateTestData.persistApartment(em, realtor, "Well equipped", 3_000_000);
+        RealEstateDto update = new RealEstateDto();
+        update.setCivicAmenities(new CivicAmenities());
+        update.getCivicAmenities().getAmenities().addAll(fiveAmenities);
+        new RealEstateCommonUpdater().updateCommonFields(wellEquipped, update);
+        em.flush();
+        em.clear();
+
+        // Same bits as the 018 backfill: BUS_STOP=1, ATM=16, KINDERGARTEN=256, SUPERMARKET=512, PLAYGROUND=8192
+        assertThat(em.find(Apartment.class, wellEquipped.getId()).getCivicAmenitiesMask()).isEqualTo(8977L);
+        em.clear();
+
+        RealEstateFilterDto allFive = new RealEstateFilterDto();
+        allFive.setCivicAmenities(fiveAmenities);
+        allFive.setTransportPossibilities(Set.of(TransportPossibility.BUS));
+        allFive.setUtilityTypes(Set.of(UtilityType.WATER, UtilityType.ELECTRICITY));
+        RealEstateFilterDto commonTwo = new RealEstateFilterDto();
+        commonTwo.setCivicAmenities(Set.of(CivicAmenity.SUPERMARKET, CivicAmenity.PLAYGROUND));
+        RealEstateFilterDto missingUtility = new RealEstateFilterDto();
+        missingUtility.setUtilityTypes(Set.of(UtilityType.WATER, UtilityType.GAS));
+        CapturingStatementInspector.clear();
+
+        Page<RealEstate> matchingAll = realEstateRepository.findAll(
+                RealEstateSpecification.filterBy(allFive), PageRequest.of(0, 10));
+        Page<RealEstate> matchingCommon = realEstateRepository.findAll(
+                RealEstateSpecification.filterBy(commonTwo), PageRequest.of(0, 10));
+        Page<RealEstate> matchingNone = realEstateRepository.findAll(
+                RealEstateSpecification.filterBy(missingUtility), PageRequest.of(0, 10));
+
+        assertThat(matchingAll.getContent()).extracting(RealEstate::getName).containsExactly("Well equipped");
+        assertThat(matchingCommon.getTotalElements()).isEqualTo(LISTINGS + 1);
+        assertThat(matchingNone.getContent()).isEmpty();
+        assertThat(CapturingStatementInspector.statements())
+                .isNotEmpty()
+                .noneMatch(sql -> sql.matches("(?is).*\\breal_estate_(civic_amenities|transport_possibilities|utilities)\\b.*"));
+    }
+
+    @Test
+    @DisplayName("Search: location and feature filters run as semi-joins, neither query uses DISTINCT")
+    void search_DoesNotUseDistinct() {
+        RealEstateFilterDto filter = new RealEstateFilterDto();
+        filter.setRegion(AddressRegion.PARDUBICKY);
+        filter.setCity("pardu");
+        filter.setCivicAmenities(Set.of(CivicAmenity.SUPERMARKET));
+        em.clear();
+        CapturingStatementInspector.clear();
+
+        Page<RealEstate> entities = realEstateRepository.findAll(
+                RealEstateSpecification.filterBy(filter), PageRequest.of(0, 10));
+        Page<RealEstateSummaryDto> summaries = realEstateRepository.findSummaries(
+                RealEstateSpecification.filterBy(filter), PageRequest.of(0, 10));
+
+        assertThat(entities.getTotalElements()).isEqualTo(LISTINGS);
+        assertThat(summaries.getTotalElements()).isEqualTo(LISTINGS);
+        List<String> statements = CapturingStatementInspector.statements();
+        assertThat(statements).noneMatch(sql -> sql.matches("(?is).*\\bdistinct\\b.*"));
+        // Page and count query of each search
+        assertThat(searchStatements(statements))
+                .hasSize(4)
+                .allMatch(sql -> sql.matches("(?is).*\\bexists\\b.*"))
+                .filteredOn(sql -> sql.matches("(?is).*\\bcount\\s*\\(.*")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Slices: one extra row instead of a count query; capped count stops at the cap")
+    void findSlice_SkipsCountQuery() {
+        RealEstateFilterDto filter = new RealEstateFilterDto();
+        filter.setRegion(AddressRegion.PARDUBICKY);
+        em.clear();
+        CapturingStatementInspector.clear();
+
+        Slice<RealEstate> first = realEstateRepository.findSlice(
+                RealEstateSpecification.filterBy(filter), PageRequest.of(0, 25, Sort.by("id")));
+        Slice<RealEstateSummaryDto> last = realEstateRepository.findSummarySlice(
+                RealEstateSpecification.filterBy(filter), PageRequest.of(1, 25, Sort.by("id")));
+
+        assertThat(first.getContent()).hasSize(25);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent().getFirst().getAddress().getCity()).isEqualTo("Pardubice");
+        assertThat(last.getContent()).hasSize(LISTINGS - 25);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(searchStatements(CapturingStatementInspector.statements()))
+                .hasSize(2)
+                .noneMatch(sql -> sql.matches("(?is).*\\bcount\\s*\\(.*"));
+
+        CapturingStatementInspector.clear();
+        assertThat(realEstateRepository.countUpTo(RealEstateSpecification.filterBy(filter), 10)).isEqualTo(10);
+        assertThat(realEstateRepository.countUpTo(RealEstateSpecification.filterBy(filter), 100)).isEqualTo(LISTINGS);
+        assertThat(searchStatements(CapturingStatementInspector.statements()))
+                .hasSize(2)
+                .allMatch(sql -> sql.matches("(?is)\\s*select\\s+count\\s*\\(.*"));
+    }
+
+    @Test
+    @DisplayName("Geo filters: geohash cell pruning plus exact radius and box checks")
+    void filterByRadiusAndBoundingBox() {
+        double centerLat = 50.0343;
+        double centerLon = 15.7812;
+        Realtor realtor = RealEstateTestData.persistRealtor(em, "realtor-geo");
+        List<Apartment> geocoded = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // Spiral around the centre, 0.3 km further out per listing
+            double distanceKm = i * 0.3;
+            double bearing = Math.toRadians(i * 37);
+            Apartment apartment = RealEstateTestData.persistApartment(em, realtor, "Geo " + i, 2_000_000);
+            apartment.getAddress().setLatitude(
+                    centerLat + Math.toDegrees(distanceKm / GeoHash.EARTH_RADIUS_KM) * Math.cos(bearing));
+            apartment.getAddress().setLongitude(centerLon + Math.toDegrees(distanceKm / GeoHash.EARTH_RADIUS_KM)
+                    / Math.cos(Math.toRadians(centerLat)) * Math.sin(bearing));
+            geocoded.add(apartment);
+        }
+        em.flush();
+        em.clear();
+
+        RealEstateFilterDto radius = new RealEstateFilterDto();
+        radius.setLatitude(centerLat);
+        radius.setLongitude(centerLon);
+        radius.setRadiusKm(4.05);
+        RealEstateFilterDto box = new RealEstateFilterDto();
+        box.setMinLatitude(centerLat);
+        box.setMaxLatitude(centerLat + 0.05);
+        box.setMinLongitude(centerLon);
+        box.setMaxLongitude(centerLon + 0.05);
+        CapturingStatementInspector.clear();
+
+        List<String> withinRadius = realEstateRepository.findAll(RealEstateSpecification.filterBy(radius))
+                .stream().map(RealEstate::getName).toList();
+        List<String> withinBox = realEstateRepository.findAll(RealEstateSpecification.filterBy(box))
+                .stream().map(RealEstate::getName).toList();
+
+        List<String> expectedRadius = geocoded.stream()
+                .filter(a -> GeoHash.distanceKm(centerLat, centerLon,
+                        a.getAddress().getLatitude(), a.getAddress().getLongitude()) <= 4.05)
+                .map(RealEstate::getName).toList();
+        List<String> expectedBox = geocoded.stream()
+                .filter(a -> a.getAddress().getLatitude() >= centerLat && a.getAddress().getLatitude() <= centerLat + 0.05
+                        && a.getAddress().getLongitude() >= centerLon && a.getAddress().getLongitude() <= centerLon + 0.05)
+                .map(RealEstate::getName).toList();
+        assertThat(expectedRadius).hasSize(14);
+        assertThat(withinRadius).containsExactlyInAnyOrderElementsOf(expectedRadius);
+        assertThat(withinBox).isNotEmpty().containsExactlyInAnyOrderElementsOf(expectedBox);
+        assertThat(searchStatements(CapturingStatementInspector.statements()))
+                .hasSize(2)
+                .allMatch(sql -> sql.matches("(?is).*\\bgeohash\\s+like\\b.*"));
+    }
+
+    @Test
+    @DisplayName("Clusters: one aggregated row per geohash cell, listings without coordinates left out")
+    void findClusters_AggregatesPerCell() {
+        Realtor realtor = RealEstateTestData.persistRealtor(em, "realtor-clusters");
+        persistGeocoded(realtor, "Pardubice A", 2_000_000, 50.0343, 15.7812);
+        persistGeocoded(realtor, "Pardubice B", 4_000_000, 50.0363, 15.7772);
+        persistGeocoded(realtor, "Pardubice C", 3_000_000, 50.0323, 15.7852);
+        persistGeocoded(realtor, "Praha A", 9_000_000, 50.0755, 14.4378);
+        persistGeocoded(realtor, "Praha B", 7_000_000, 50.0875, 14.4213);
+        em.flush();
+        em.clear();
+        RealEstateFilterDto viewport = new RealEstateFilterDto();
+        viewport.setMinLatitude(49.5);
+        viewport.setMaxLatitude(50.5);
+        viewport.setMinLongitude(14.0);
+        viewport.setMaxLongitude(16.5);
+        RealEstateFilterDto cheapOnly = new RealEstateFilterDto();
+        cheapOnly.setMinLatitude(49.5);
+        cheapOnly.setMaxLatitude(50.5);
+        cheapOnly.setMinLongitude(14.0);
+        cheapOnly.setMaxLongitude(16.5);
+        cheapOnly.setMaxPrice(3_500_000.0);
+
+        List<RealEstateClusterDto> clusters = realEstateRepository.findClusters(
+                RealEstateSpecification.filterBy(viewport), 4);
+        List<RealEstateClusterDto> cheap = realEstateRepository.findClusters(
+                RealEstateSpecification.filterBy(cheapOnly), 4);
+
+        assertThat(clusters).hasSize(2);
+        RealEstateClusterDto pardubice = clusters.stream()
+                .filter(c -> c.getCell().equals(GeoHash.encode(50.0343, 15.7812, 4))).findFirst().orElseThrow();
+        assertThat(pardubice.getCount()).isEqualTo(3);
+        assertThat(pardubice.getLatitude()).isCloseTo(50.0343, within(1e-9));
+        assertThat(pardubice.getLongitude()).isCloseTo(15.7812, within(1e-9));
+        assertThat(pardubice.getMinPrice()).isEqualTo(2_000_000.0);
+        assertThat(pardubice.getMaxPrice()).isEqualTo(4_000_000.0);
+        assertThat(cheap).singleElement().satisfies(c -> assertThat(c.getCount()).isEqualTo(2));
+    }
+
+    private void persistGeocoded(Realtor realtor, String name, double price, double latitude, double longitude) {
+        Apartment apartment = RealEstateTestData.persistApartment(em, realtor, name, price);
+        apartment.getAddress().setLatitude(latitude);
+        apartment.getAddress().setLongitude(longitude);
+    }
+
+    private long countStatementsForPage(int size) {
+        em.clear();
+        statistics.clear();
+
+        Page<RealEstate> page = realEstateRepository.findAll(
+                RealEstateSpecification.filterBy(new RealEstateFilterDto()), PageRequest.of(0, size));
+        // Touch everything the JSON serializer would touch
+        page.map(mapper::toDto).forEach(this::touchCollections);
+
+        assertThat(page.getContent()).hasSize(size);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Statements that query the listings themselves, not the lazy loads they trigger
+    private static List<String> searchStatements(List<String> statements) {
+        return statements.stream()
+                .filter(sql -> sql.matches("(?is).*\\bfrom\\s+real_estate\\s.*"))
+                .toList();
+    }
+
+    private void touchCollections(RealEstateDto dto) {
+        assertThat(dto.getImages()).hasSize(2);
+        assertThat(dto.getUtilities().getAvailableUtilities()).isNotEmpty();
+        assertThat(dto.getTransportPossibilities().getPossibilities()).isNotEmpty();
+        assertThat(dto.getCivicAmenities().getAmenities()).isNotEmpty();
+    }
+}
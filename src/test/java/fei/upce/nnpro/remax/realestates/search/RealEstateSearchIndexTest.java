@@ -0,0 +1,172 @@
+package fei.upce.nnpro.remax.realestates.search;
+
+import fei.upce.nnpro.remax.profile.service.RealtorDeletedEvent;
+import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
+import fei.upce.nnpro.remax.realestates.repository.RealEstateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RealEstateSearchIndexTest {
+
+    @Mock private RealEstateRepository realEstateRepository;
+
+    private RealEstateSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RealEstateSearchIndex(realEstateRepository);
+        index.index(document(1L, "Byt 2+kk s balkonem", "Světlý byt nedaleko centra.", "Pardubice"));
+        index.index(document(2L, "Rodinný dům se zahradou", "Dům s garáží, v obci je škola.", "Chrudim"));
+        index.index(document(3L, "Pozemek", "Stavební pozemek, možnost postavit byt nebo dům.", "Pardubice"));
+    }
+
+    @Test
+    @DisplayName("Search: every query term must match, diacritics and case are ignored")
+    void search_MatchesAllTerms() {
+        assertThat(ranked(index, "BYT pardubice")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ranked(index, "dum zahrada")).isEmpty();
+        assertThat(ranked(index, "dům zahradou")).containsExactly(2L);
+        assertThat(ranked(index, "a v")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Search: query terms match as prefixes, exact matches rank higher")
+    void search_PrefixMatches() {
+        assertThat(ranked(index, "zahr")).containsExactly(2L);
+        assertThat(ranked(index, "pardub")).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Search: a term in the name outranks the same term in the description")
+    void search_NameOutranksDescription() {
+        assertThat(ranked(index, "byt")).containsExactly(1L, 3L);
+        assertThat(ranked(index, "pozemek")).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Index: re-indexing a listing replaces its old terms")
+    void index_UpdateReplacesTerms() {
+        index.index(document(1L, "Kancelář", "Kancelářské prostory.", "Pardubice"));
+
+        assertThat(ranked(index, "balkonem")).isEmpty();
+        assertThat(ranked(index, "kancelar")).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(3);
+
+        index.removeAll(List.of(1L));
+        assertThat(ranked(index, "kancelar")).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Realtor deleted: drops the listings carried by the event")
+    void realtorDeleted_RemovesListings() {
+        index.realtorDeleted(new RealtorDeletedEvent(7L, List.of(1L, 3L)));
+
+        assertThat(ranked(index, "byt")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rebuild: pages through the repository by id in batches")
+    void rebuild_LoadsAllBatches() {
+        List<RealEstateSearchDocument> firstBatch = LongStream.rangeClosed(1, 1_000)
+                .mapToObj(id -> document(id, "Byt " + id, "Popis", "Brno"))
+                .toList();
+        when(realEstateRepository.findSearchDocumentsAfter(eq(0L), any(Limit.class))).thenReturn(firstBatch);
+        when(realEstateRepository.findSearchDocumentsAfter(eq(1_000L), any(Limit.class)))
+                .thenReturn(List.of(document(1_001L, "Dům", "Popis", "Jihlava")));
+        RealEstateSearchIndex rebuilt = new RealEstateSearchIndex(realEstateRepository);
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.size()).isEqualTo(1_001);
+        assertThat(ranked(rebuilt, "jihlava")).containsExactly(1_001L);
+        verify(realEstateRepository, times(2)).findSearchDocumentsAfter(any(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Rebuild: searches use the previous index until the new one is complete")
+    void rebuild_SwapsInWhenComplete() {
+        when(realEstateRepository.findSearchDocumentsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            assertThat(ranked(index, "pardubice")).containsExactlyInAnyOrder(1L, 3L);
+            return List.of(document(4L, "Chata", "Chata u lesa.", "Jihlava"));
+        });
+
+        index.rebuild();
+
+        assertThat(ranked(index, "pardubice")).isEmpty();
+        assertThat(ranked(index, "chata")).containsExactly(4L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rebuild: changes committed while it runs are not overwritten by older batches")
+    void rebuild_KeepsConcurrentChanges() {
+        RealEstateSearchIndex rebuilt = new RealEstateSearchIndex(realEstateRepository);
+        when(realEstateRepository.findSearchDocumentsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // Committed after the batch below was read
+            rebuilt.index(document(1L, "Kancelář", "Kancelářské prostory.", "Pardubice"));
+            rebuilt.removeAll(List.of(2L));
+            return List.of(document(1L, "Byt", "Starý popis.", "Pardubice"),
+                    document(2L, "Dům", "Smazaný.", "Chrudim"),
+                    document(3L, "Pozemek", "Stavební pozemek.", "Pardubice"));
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(ranked(rebuilt, "kancelar")).containsExactly(1L);
+        assertThat(ranked(rebuilt, "byt")).isEmpty();
+        assertThat(ranked(rebuilt, "dum")).isEmpty();
+        assertThat(ranked(rebuilt, "pozemek")).containsExactly(3L);
+        assertThat(rebuilt.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Scale: 20k listings index and query with the expected results")
+    void index_ManyListings() {
+        String[] cities = {"Praha", "Brno", "Ostrava", "Plzeň", "Olomouc", "Pardubice", "Hradec Králové"};
+        String[] kinds = {"Byt", "Dům", "Pozemek", "Chata"};
+        RealEstateSearchIndex large = new RealEstateSearchIndex(realEstateRepository);
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            String city = cities[(int) (id % cities.length)];
+            String kind = kinds[(int) (id % kinds.length)];
+            large.index(document(id, kind + " " + id % 7 + "+kk", "Nabízíme " + kind.toLowerCase()
+                    + " v lokalitě " + city + ", sklep a parkování u domu.", city));
+            if (city.equals("Hradec Králové") && kind.equals("Byt")) {
+                expected.add(id);
+            }
+        }
+
+        List<Long> found = List.copyOf(large.match("byt hradec kralove").keySet());
+
+        assertThat(large.size()).isEqualTo(20_000);
+        assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private static List<Long> ranked(RealEstateSearchIndex index, String query) {
+        Map<Long, Double> scores = index.match(query);
+        return scores.keySet().stream().sorted(RealEstateSearchIndex.byRelevance(scores)).toList();
+    }
+
+    private static RealEstateSearchDocument document(Long id, String name, String description, String city) {
+        return new RealEstateSearchDocument(id, name, description, "Hlavní " + id, city, "530 02",
+                AddressRegion.JIHOMORAVSKY);
+    }
+}
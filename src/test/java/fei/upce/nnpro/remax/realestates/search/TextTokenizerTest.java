@@ -0,0 +1,27 @@
+package fei.upce.nnpro.remax.realestates.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextTokenizerTest {
+
+    @Test
+    @DisplayName("Tokenize: Czech diacritics folded, case ignored, punctuation splits terms")
+    void tokenize_FoldsDiacritics() {
+        assertThat(TextTokenizer.tokenize("Prostorný byt 3+1, Hradec Králové – Nový Hradec"))
+                .containsExactly("prostorny", "byt", "hradec", "kralove", "novy", "hradec");
+        assertThat(TextTokenizer.tokenize("ŽLUŤOUČKÝ kůň úpěl ďábelské ódy"))
+                .containsExactly("zlutoucky", "kun", "upel", "dabelske", "ody");
+    }
+
+    @Test
+    @DisplayName("Tokenize: one-letter words and stop words are dropped")
+    void tokenize_DropsStopWords() {
+        assertThat(TextTokenizer.tokenize("Dům v klidné části, blízko k lesu a na kraji obce"))
+                .containsExactly("dum", "klidne", "casti", "blizko", "lesu", "kraji", "obce");
+        assertThat(TextTokenizer.tokenize("  ")).isEmpty();
+        assertThat(TextTokenizer.tokenize(null)).isEmpty();
+    }
+}
@@ -34,6 +34,7 @@ class RealEstatePriceHelperTest {
         assertThat(history.getPrice()).isEqualTo(5000.0);
         assertThat(history.getRealEstate()).isEqualTo(estate);
         assertThat(history.getTimestamp()).isNotNull();
+        assertThat(estate.getCurrentPrice()).isEqualTo(5000.0);
     }
 
     @Test
@@ -58,6 +59,20 @@ class RealEstatePriceHelperTest {
 
         assertThat(estate.getPriceHistory()).hasSize(2);
         assertThat(estate.getPriceHistory().getLast().getPrice()).isEqualTo(1500.0);
+        assertThat(estate.getCurrentPrice()).isEqualTo(1500.0);
+    }
+
+    @Test
+    @DisplayName("Update: Should compare against the denormalized current price")
+    void updatePrice_UsesCurrentPriceColumn() {
+        RealEstate estate = new Apartment();
+        estate.setPriceHistory(new ArrayList<>(List.of(new PriceHistory(1000.0, estate))));
+        estate.setCurrentPrice(1000.0);
+
+        helper.updatePrice(estate, 1000.0);
+
+        assertThat(estate.getPriceHistory()).hasSize(1);
+        assertThat(estate.getCurrentPrice()).isEqualTo(1000.0);
     }
 
     @Test
@@ -52,6 +52,24 @@ class RealEstateSpecificationTest {
         });
     }
 
+    @Test
+    void filterBy_withIncompleteRadius_throwsIllegalArgument() {
+        RealEstateFilterDto criteria = new RealEstateFilterDto();
+        criteria.setLatitude(50.03);
+        criteria.setRadiusKm(5.0);
+        assertThrows(IllegalArgumentException.class, () -> RealEstateSpecification.filterBy(criteria));
+    }
+
+    @Test
+    void filterBy_withInvertedBoundingBox_throwsIllegalArgument() {
+        RealEstateFilterDto criteria = new RealEstateFilterDto();
+        criteria.setMinLatitude(50.2);
+        criteria.setMaxLatitude(49.9);
+        criteria.setMinLongitude(15.5);
+        criteria.setMaxLongitude(16.0);
+        assertThrows(IllegalArgumentException.class, () -> RealEstateSpecification.filterBy(criteria));
+    }
+
     // ...existing code for all other test cases as previously generated...
 }
 
@@ -2,6 +2,7 @@ package fei.upce.nnpro.remax.review.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import fei.upce.nnpro.remax.review.dto.ReviewDto;
+import fei.upce.nnpro.remax.review.dto.ReviewSliceDto;
 import fei.upce.nnpro.remax.review.dto.ReviewStatisticsDto;
 import fei.upce.nnpro.remax.review.service.ReviewService;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +12,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
@@ -39,6 +44,7 @@ class ReviewControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(reviewController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .build();
     }
 
@@ -100,4 +106,26 @@ class ReviewControllerTest {
         mockMvc.perform(get("/api/reviews/stats/3"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getReviewSliceByRealtor_passesCursorAndReturnsNextCursor() throws Exception {
+        ReviewDto r = new ReviewDto();
+        r.setId(5L);
+        Mockito.when(reviewService.getReviewSlice(2L, "abc", 10)).thenReturn(new ReviewSliceDto(List.of(r), "next"));
+
+        mockMvc.perform(get("/api/reviews/realtor/2/slice").param("cursor", "abc").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(5))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getReviewPage_passesPageable() throws Exception {
+        Mockito.when(reviewService.listReviews(any(Pageable.class))).thenReturn(Page.empty());
+
+        mockMvc.perform(get("/api/reviews/page").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(reviewService).listReviews(PageRequest.of(1, 5));
+    }
 }
@@ -0,0 +1,152 @@
+package fei.upce.nnpro.remax.review.repository;
+
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.review.dto.RealtorReviewAggregate;
+import fei.upce.nnpro.remax.review.dto.ReviewDto;
+import fei.upce.nnpro.remax.review.entity.Review;
+import fei.upce.nnpro.remax.testutil.RealEstateTestData;
+import fei.upce.nnpro.remax.testutil.ReviewTestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReviewRepositoryTest {
+
+    private static final int REVIEWS = 2_000;
+
+    @Autowired private ReviewRepository reviewRepository;
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Realtor realtor;
+    private Realtor otherRealtor;
+    private final int[][] ratings = new int[REVIEWS][];
+
+    @BeforeEach
+    void setUp() {
+        realtor = RealEstateTestData.persistRealtor(em, "realtor-stats");
+        otherRealtor = RealEstateTestData.persistRealtor(em, "realtor-other");
+        Client client = ReviewTestData.persistClient(em, "client-stats");
+
+        Random random = new Random(42);
+        for (int i = 0; i < REVIEWS; i++) {
+            ratings[i] = new int[]{random.nextInt(6), random.nextInt(6), random.nextInt(6), random.nextInt(6), random.nextInt(6)};
+            ReviewTestData.persistReview(em, client, realtor, ratings[i]);
+            if (i % 100 == 0) {
+                em.flush();
+                em.clear();
+                client = em.find(Client.class, client.getId());
+                realtor = em.find(Realtor.class, realtor.getId());
+            }
+        }
+        ReviewTestData.persistReview(em, client, em.find(Realtor.class, otherRealtor.getId()), 0, 0, 0, 0, 0);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Aggregate: matches averages computed from the loaded entities")
+    void aggregateByRealtorId_MatchesInMemoryAverages() {
+        RealtorReviewAggregate aggregate = reviewRepository.aggregateByRealtorId(realtor.getId());
+
+        assertThat(aggregate.count()).isEqualTo(REVIEWS);
+        assertThat(aggregate.averageOverall()).isCloseTo(average(r -> r[0]), within(1e-9));
+        assertThat(aggregate.averageSpeed()).isCloseTo(average(r -> r[1]), within(1e-9));
+        assertThat(aggregate.averageCommunication()).isCloseTo(average(r -> r[2]), within(1e-9));
+        assertThat(aggregate.averageProfessionality()).isCloseTo(average(r -> r[3]), within(1e-9));
+        assertThat(aggregate.averageFairness()).isCloseTo(average(r -> r[4]), within(1e-9));
+
+        // Same result as the previous implementation that streamed the loaded entities
+        assertThat(aggregate.averageOverall()).isCloseTo(
+                reviewRepository.findAllByRealtorId(realtor.getId()).stream().mapToInt(Review::getOverall).average().orElseThrow(),
+                within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Aggregate: single statement, no review entities loaded")
+    void aggregateByRealtorId_DoesNotLoadEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        reviewRepository.aggregateByRealtorId(realtor.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Aggregate: realtor without reviews has zero count and no averages")
+    void aggregateByRealtorId_NoReviews() {
+        Realtor lonely = RealEstateTestData.persistRealtor(em, "realtor-lonely");
+
+        RealtorReviewAggregate aggregate = reviewRepository.aggregateByRealtorId(lonely.getId());
+
+        assertThat(aggregate.count()).isZero();
+        assertThat(aggregate.averageOverall()).isNull();
+    }
+
+    @Test
+    @DisplayName("Slices: walking the cursor visits every review once, newest first")
+    void findDtoSliceByRealtorIdBefore_VisitsEveryReviewOnce() {
+        List<Long> visited = new ArrayList<>();
+        long beforeId = Long.MAX_VALUE;
+        List<ReviewDto> slice;
+        do {
+            slice = reviewRepository.findDtoSliceByRealtorIdBefore(realtor.getId(), beforeId, Limit.of(150));
+            slice.forEach(dto -> assertThat(dto.getRealtorId()).isEqualTo(realtor.getId()));
+            slice.forEach(dto -> visited.add(dto.getId()));
+            if (!slice.isEmpty()) {
+                beforeId = slice.getLast().getId();
+            }
+        } while (!slice.isEmpty());
+
+        assertThat(visited).hasSize(REVIEWS).doesNotHaveDuplicates();
+        assertThat(visited).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("Page: DTO projection of one realtor without loading review entities")
+    void findDtoPageByRealtorId_ProjectsDtos() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ReviewDto> page = reviewRepository.findDtoPageByRealtorId(otherRealtor.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        ReviewDto dto = page.getContent().getFirst();
+        assertThat(dto.getRealtorId()).isEqualTo(otherRealtor.getId());
+        assertThat(dto.getAuthorClientId()).isNotNull();
+        assertThat(dto.getText()).isEqualTo("Review by client-stats");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private double average(ToIntFunction<int[]> dimension) {
+        long sum = 0;
+        for (int[] rating : ratings) {
+            sum += dimension.applyAsInt(rating);
+        }
+        return (double) sum / REVIEWS;
+    }
+}
@@ -0,0 +1,142 @@
+package fei.upce.nnpro.remax.review.service;
+
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.review.dto.ReviewDto;
+import fei.upce.nnpro.remax.review.dto.ReviewMapper;
+import fei.upce.nnpro.remax.review.entity.RealtorRatingSummary;
+import fei.upce.nnpro.remax.review.repository.RealtorRatingSummaryRepository;
+import fei.upce.nnpro.remax.review.repository.ReviewRepository;
+import fei.upce.nnpro.remax.testutil.RealEstateTestData;
+import fei.upce.nnpro.remax.testutil.ReviewTestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ReviewService.class, ReviewMapper.class, RealtorRatingSummaryService.class, RealtorRatingSummaryReconciliationJob.class})
+class RealtorRatingSummaryServiceTest {
+
+    @Autowired private ReviewService reviewService;
+    @Autowired private RealtorRatingSummaryReconciliationJob reconciliationJob;
+    @Autowired private RealtorRatingSummaryRepository summaryRepository;
+    @Autowired private ReviewRepository reviewRepository;
+    @Autowired private TestEntityManager em;
+
+    private final List<Realtor> realtors = new ArrayList<>();
+    private final List<Client> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            realtors.add(RealEstateTestData.persistRealtor(em, "realtor-summary-" + i));
+            clients.add(ReviewTestData.persistClient(em, "client-summary-" + i));
+        }
+        em.flush();
+    }
+
+    @Test
+    @DisplayName("Random create/update/delete sequences keep summaries equal to the review rows")
+    void randomOperations_KeepSummariesConsistent() {
+        Random random = new Random(7);
+        List<ReviewDto> reviews = new ArrayList<>();
+        List<String> authors = new ArrayList<>();
+
+        for (int step = 0; step < 300; step++) {
+            int operation = reviews.isEmpty() ? 0 : random.nextInt(3);
+            if (operation == 0) {
+                String author = clients.get(random.nextInt(clients.size())).getUsername();
+                ReviewDto dto = randomReview(random);
+                dto.setRealtorId(realtors.get(random.nextInt(realtors.size())).getId());
+                reviews.add(reviewService.createReview(dto, author));
+                authors.add(author);
+            } else if (operation == 1) {
+                int index = random.nextInt(reviews.size());
+                reviewService.updateReview(reviews.get(index).getId(), randomReview(random), authors.get(index));
+            } else {
+                int index = random.nextInt(reviews.size());
+                reviewService.deleteReview(reviews.remove(index).getId(), authors.remove(index), false);
+            }
+            em.flush();
+            em.clear();
+
+            for (Realtor realtor : realtors) {
+                assertConsistent(realtor.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Reconciliation repairs a corrupted summary and creates missing ones")
+    void reconcileAll_RepairsDrift() {
+        Realtor first = realtors.get(0);
+        Realtor second = realtors.get(1);
+        ReviewTestData.persistReview(em, clients.get(0), first, 5, 4, 3, 2, 1);
+        ReviewTestData.persistReview(em, clients.get(1), first, 1, 2, 3, 4, 5);
+        // inserted behind the service's back, so no summary exists for the second realtor
+        ReviewTestData.persistReview(em, clients.get(2), second, 3, 3, 3, 3, 3);
+        em.persist(new RealtorRatingSummary(first.getId(), 7L, 1L, 1L, 1L, 1L, 1L));
+        em.flush();
+        em.clear();
+
+        int corrected = reconciliationJob.reconcileAll();
+        em.flush();
+        em.clear();
+
+        assertThat(corrected).isEqualTo(2);
+        assertConsistent(first.getId());
+        assertConsistent(second.getId());
+        assertThat(reconciliationJob.reconcileAll()).isZero();
+    }
+
+    @Test
+    @DisplayName("Creating a summary that exists already leaves the existing row alone")
+    void insertFromReviewsIfAbsent_SkipsExistingRow() {
+        Realtor realtor = realtors.get(0);
+        ReviewTestData.persistReview(em, clients.get(0), realtor, 5, 4, 3, 2, 1);
+        em.flush();
+
+        assertThat(summaryRepository.insertFromReviewsIfAbsent(realtor.getId())).isEqualTo(1);
+        ReviewTestData.persistReview(em, clients.get(1), realtor, 1, 2, 3, 4, 5);
+        em.flush();
+        assertThat(summaryRepository.insertFromReviewsIfAbsent(realtor.getId())).isZero();
+        em.clear();
+
+        RealtorRatingSummary stored = summaryRepository.findById(realtor.getId()).orElseThrow();
+        assertThat(stored.getReviewCount()).isEqualTo(1);
+        assertThat(stored.getSumOverall()).isEqualTo(5);
+        assertThat(summaryRepository.insertFromReviewsIfAbsent(realtors.get(1).getId())).isZero();
+    }
+
+    private void assertConsistent(Long realtorId) {
+        RealtorRatingSummary expected = reviewRepository.summarizeByRealtorId(realtorId)
+                .orElseGet(() -> new RealtorRatingSummary(realtorId, 0L, 0L, 0L, 0L, 0L, 0L));
+        RealtorRatingSummary stored = summaryRepository.findById(realtorId)
+                .orElseGet(() -> new RealtorRatingSummary(realtorId, 0L, 0L, 0L, 0L, 0L, 0L));
+        assertThat(stored.sameTotalsAs(expected))
+                .as("summary of realtor %d: stored count=%d, actual count=%d",
+                        realtorId, stored.getReviewCount(), expected.getReviewCount())
+                .isTrue();
+    }
+
+    private static ReviewDto randomReview(Random random) {
+        ReviewDto dto = new ReviewDto();
+        dto.setOverall(random.nextInt(6));
+        dto.setSpeed(random.nextInt(6));
+        dto.setCommunication(random.nextInt(6));
+        dto.setProfessionality(random.nextInt(6));
+        dto.setFairness(random.nextInt(6));
+        dto.setText("Random review");
+        return dto;
+    }
+}
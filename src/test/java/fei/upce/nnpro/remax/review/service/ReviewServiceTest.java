@@ -6,7 +6,10 @@ import fei.upce.nnpro.remax.profile.entity.Realtor;
 import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
 import fei.upce.nnpro.remax.review.dto.ReviewDto;
 import fei.upce.nnpro.remax.review.dto.ReviewMapper;
+import fei.upce.nnpro.remax.review.dto.RealtorReviewAggregate;
+import fei.upce.nnpro.remax.review.dto.ReviewSliceDto;
 import fei.upce.nnpro.remax.review.dto.ReviewStatisticsDto;
+import fei.upce.nnpro.remax.review.entity.RealtorRatingSummary;
 import fei.upce.nnpro.remax.review.entity.Review;
 import fei.upce.nnpro.remax.review.repository.ReviewRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -17,15 +20,19 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +47,9 @@ class ReviewServiceTest {
     @Mock
     private ReviewMapper reviewMapper;
 
+    @Mock
+    private RealtorRatingSummaryService ratingSummaryService;
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -98,6 +108,7 @@ class ReviewServiceTest {
         assertThat(captured.getAuthor()).isEqualTo(client);
         assertThat(captured.getRealtor()).isEqualTo(realtor);
         assertThat(captured.getClientDisplayName()).isEqualTo("John Doe");
+        verify(ratingSummaryService).reviewAdded(reviewEntity);
     }
 
     @Test
@@ -218,6 +229,7 @@ class ReviewServiceTest {
 
         // Assert
         verify(reviewRepository).delete(review);
+        verify(ratingSummaryService).reviewRemoved(review);
     }
 
     @Test
@@ -293,24 +305,9 @@ class ReviewServiceTest {
 
         when(userRepository.existsById(realtorId)).thenReturn(true);
 
-        Review r1 = new Review();
-        r1.setOverall(5);
-        r1.setSpeed(5);
-        r1.setCommunication(5);
-        r1.setProfessionality(5);
-        r1.setFairness(5);
-
-        Review r2 = new Review();
-        r2.setOverall(3);
-        r2.setSpeed(1);
-        r2.setCommunication(3);
-        r2.setProfessionality(3);
-        r2.setFairness(3);
-
-        // Avg Overall: (5+3)/2 = 4
-        // Avg Speed: (5+1)/2 = 3
-
-        when(reviewRepository.findAllByRealtorId(realtorId)).thenReturn(List.of(r1, r2));
+        // Two reviews: overall (5+3)/2 = 4, speed (5+1)/2 = 3, communication (5+3)/2 = 4
+        when(reviewRepository.aggregateByRealtorId(realtorId))
+                .thenReturn(new RealtorReviewAggregate(2L, 4.0, 3.0, 4.0, 4.0, 4.0));
 
         // Act
         ReviewStatisticsDto stats = reviewService.getRealtorStatistics(realtorId);
@@ -322,13 +319,33 @@ class ReviewServiceTest {
         assertThat(stats.getAverageCommunication()).isEqualTo(4.0);
     }
 
+    @Test
+    @DisplayName("Stats: Should read averages from the maintained summary")
+    void getRealtorStatistics_FromSummary() {
+        Long realtorId = 1L;
+        when(userRepository.existsById(realtorId)).thenReturn(true);
+        when(ratingSummaryService.getSummary(realtorId))
+                .thenReturn(Optional.of(new RealtorRatingSummary(realtorId, 4L, 18L, 12L, 16L, 20L, 8L)));
+
+        ReviewStatisticsDto stats = reviewService.getRealtorStatistics(realtorId);
+
+        assertThat(stats.getTotalReviews()).isEqualTo(4);
+        assertThat(stats.getAverageOverall()).isEqualTo(4.5);
+        assertThat(stats.getAverageSpeed()).isEqualTo(3.0);
+        assertThat(stats.getAverageCommunication()).isEqualTo(4.0);
+        assertThat(stats.getAverageProfessionality()).isEqualTo(5.0);
+        assertThat(stats.getAverageFairness()).isEqualTo(2.0);
+        verify(reviewRepository, never()).aggregateByRealtorId(any());
+    }
+
     @Test
     @DisplayName("Stats: Should return zeros when no reviews exist")
     void getRealtorStatistics_Empty() {
         // Arrange
         Long realtorId = 1L;
         when(userRepository.existsById(realtorId)).thenReturn(true);
-        when(reviewRepository.findAllByRealtorId(realtorId)).thenReturn(new ArrayList<>());
+        when(reviewRepository.aggregateByRealtorId(realtorId))
+                .thenReturn(new RealtorReviewAggregate(0L, null, null, null, null, null));
 
         // Act
         ReviewStatisticsDto stats = reviewService.getRealtorStatistics(realtorId);
@@ -347,4 +364,73 @@ class ReviewServiceTest {
         assertThatThrownBy(() -> reviewService.getRealtorStatistics(realtorId))
                 .isInstanceOf(EntityNotFoundException.class);
     }
-}
\ No newline at end of file
+
+    // --------------------------------------------------------------------------------------
+    // PAGINATION TESTS
+    // --------------------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("Slice: Should fetch one extra row and return a cursor pointing at the last item")
+    void getReviewSlice_ReturnsNextCursor() {
+        List<ReviewDto> rows = List.of(review(30L), review(20L), review(10L));
+        when(reviewRepository.findDtoSliceByRealtorIdBefore(eq(1L), eq(Long.MAX_VALUE), argThat(limit -> limit.max() == 3)))
+                .thenReturn(rows);
+
+        ReviewSliceDto slice = reviewService.getReviewSlice(1L, null, 2);
+
+        assertThat(slice.getItems()).extracting(ReviewDto::getId).containsExactly(30L, 20L);
+        assertThat(ReviewService.decodeCursor(slice.getNextCursor())).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("Slice: Should seek past the cursor and end without a next cursor")
+    void getReviewSlice_LastSlice() {
+        when(reviewRepository.findDtoSliceBefore(eq(20L), argThat(limit -> limit.max() == 3)))
+                .thenReturn(List.of(review(10L)));
+
+        ReviewSliceDto slice = reviewService.getReviewSlice(null, ReviewService.encodeCursor(20L), 2);
+
+        assertThat(slice.getItems()).hasSize(1);
+        assertThat(slice.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Slice: Should reject a malformed cursor")
+    void getReviewSlice_InvalidCursor() {
+        assertThatThrownBy(() -> reviewService.getReviewSlice(1L, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reviewService.getReviewSlice(1L, "%%%", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Page: Should add the id as a tiebreaker to the requested order")
+    void getReviewsByRealtor_Paged_AddsIdTiebreaker() {
+        when(reviewRepository.findDtoPageByRealtorId(eq(1L), any(Pageable.class))).thenReturn(Page.empty());
+
+        reviewService.getReviewsByRealtor(1L, PageRequest.of(2, 10, Sort.by("overall")));
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(reviewRepository).findDtoPageByRealtorId(eq(1L), captor.capture());
+        assertThat(captor.getValue().getPageNumber()).isEqualTo(2);
+        assertThat(captor.getValue().getSort())
+                .containsExactly(Sort.Order.asc("overall"), Sort.Order.desc("id"));
+    }
+
+    @Test
+    @DisplayName("Page: Should reject sorting by anything but the review ratings and id")
+    void listReviews_Paged_RejectsUnknownSort() {
+        assertThatThrownBy(() -> reviewService.listReviews(PageRequest.of(0, 10, Sort.by("author.password"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reviewService.getReviewsByRealtor(1L, PageRequest.of(0, 10, Sort.by("text"))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(reviewRepository);
+    }
+
+    private static ReviewDto review(Long id) {
+        ReviewDto dto = new ReviewDto();
+        dto.setId(id);
+        return dto;
+    }
+}
@@ -1,9 +1,15 @@
 package fei.upce.nnpro.remax.security.admin;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserFilterDto;
 import fei.upce.nnpro.remax.profile.dto.RemaxUserResponse;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSliceDto;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSummaryDto;
 import fei.upce.nnpro.remax.profile.entity.Admin;
 import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
+import fei.upce.nnpro.remax.profile.entity.enums.UserRole;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -71,6 +77,39 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.username").value("testuser"));
     }
 
+    @Test
+    void userDetailsCacheStats_returnsCounters() throws Exception {
+        Mockito.when(adminService.userDetailsCacheStats())
+                .thenReturn(new UserDetailsCache.Stats(2, 8, 2, 0, 0.8));
+
+        mockMvc.perform(get("/api/admin/user-details-cache").principal(new TestingAuthenticationToken("admin", "p", "ROLE_ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hitRatio").value(0.8));
+    }
+
+    @Test
+    void searchUsers_bindsFilterAndReturnsSlice() throws Exception {
+        RemaxUserSummaryDto row = new RemaxUserSummaryDto();
+        row.setId(7L);
+        row.setUsername("agent007");
+        Mockito.when(adminService.searchUsers(any(RemaxUserFilterDto.class), eq(5L), eq(10)))
+                .thenReturn(new RemaxUserSliceDto(List.of(row), 7L));
+
+        mockMvc.perform(get("/api/admin/users/search")
+                        .param("role", "AGENT")
+                        .param("status", "NORMAL")
+                        .param("afterId", "5")
+                        .param("size", "10")
+                        .principal(new TestingAuthenticationToken("admin", "p", "ROLE_ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].username").value("agent007"))
+                .andExpect(jsonPath("$.nextAfterId").value(7));
+
+        Mockito.verify(adminService).searchUsers(Mockito.argThat(f -> f.getRole() == UserRole.AGENT
+                && f.getStatus() == AccountStatus.NORMAL), eq(5L), eq(10));
+    }
+
     // Tests for unblockUser endpoint - Success Case
     @Test
     void unblockUser_withValidUser_returnsOk() throws Exception {
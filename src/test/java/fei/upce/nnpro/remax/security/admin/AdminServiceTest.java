@@ -2,7 +2,10 @@ package fei.upce.nnpro.remax.security.admin;
 
 import fei.upce.nnpro.remax.address.entity.Address;
 import fei.upce.nnpro.remax.address.service.AddressService;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserFilterDto;
 import fei.upce.nnpro.remax.profile.dto.RemaxUserResponse;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSliceDto;
+import fei.upce.nnpro.remax.profile.dto.RemaxUserSummaryDto;
 import fei.upce.nnpro.remax.profile.entity.Admin;
 import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
 import fei.upce.nnpro.remax.profile.entity.Realtor;
@@ -10,9 +13,14 @@ import fei.upce.nnpro.remax.profile.entity.RemaxUser;
 import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
 import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
 import fei.upce.nnpro.remax.profile.service.PersonalInformationService;
+import fei.upce.nnpro.remax.profile.service.ProfileService;
+import fei.upce.nnpro.remax.profile.service.RealtorDeletedEvent;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.ZonedDateTime;
@@ -28,6 +36,7 @@ class AdminServiceTest {
     private AddressService addressService;
     private PersonalInformationService piService;
     private PasswordEncoder encoder;
+    private ApplicationEventPublisher eventPublisher;
     private AdminService adminService;
 
     @BeforeEach
@@ -36,7 +45,11 @@ class AdminServiceTest {
         addressService = Mockito.mock(AddressService.class);
         piService = Mockito.mock(PersonalInformationService.class);
         encoder = Mockito.mock(PasswordEncoder.class);
-        adminService = new AdminService(userRepo, addressService, piService, encoder);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        UserDetailsCache userDetailsCache = new UserDetailsCache(new SecurityProperties());
+        ProfileService profileService = new ProfileService(userRepo, addressService, piService, userDetailsCache,
+                eventPublisher);
+        adminService = new AdminService(userRepo, addressService, piService, encoder, userDetailsCache, profileService);
     }
 
     // Tests for blockUser
@@ -113,6 +126,20 @@ class AdminServiceTest {
         Mockito.verify(userRepo).delete(user);
     }
 
+    @Test
+    void deleteUser_withRealtor_publishesDeletedListings() {
+        Realtor realtor = new Realtor();
+        realtor.setId(3L);
+        realtor.setUsername("realtor");
+        Mockito.when(userRepo.findByUsername("realtor")).thenReturn(Optional.of(realtor));
+        Mockito.when(userRepo.findListingIdsByRealtorId(3L)).thenReturn(List.of(11L, 12L));
+
+        adminService.deleteUser("realtor");
+
+        Mockito.verify(userRepo).delete(realtor);
+        Mockito.verify(eventPublisher).publishEvent(new RealtorDeletedEvent(3L, List.of(11L, 12L)));
+    }
+
     @Test
     void deleteUser_withNonExistentUser_throwsException() {
         Mockito.when(userRepo.findByUsername("nonexistent")).thenReturn(Optional.empty());
@@ -385,6 +412,10 @@ class AdminServiceTest {
 
         assertNotNull(result);
         assertEquals(2, result.size());
+        assertEquals("********", result.get(0).getPassword());
+        // the managed entities must keep their real password hashes
+        assertEquals("actualpassword1", user1.getPassword());
+        assertEquals("actualpassword2", user2.getPassword());
     }
 
     @Test
@@ -396,6 +427,44 @@ class AdminServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
 
+    // Tests for searchUsers
+    @Test
+    void searchUsers_withMoreRowsThanSize_returnsNextAfterId() {
+        RemaxUserFilterDto filter = new RemaxUserFilterDto();
+        List<RemaxUserSummaryDto> rows = List.of(summary(1L), summary(2L), summary(3L));
+        Mockito.when(userRepo.findSummaries(filter, null, 3)).thenReturn(rows);
+
+        RemaxUserSliceDto slice = adminService.searchUsers(filter, null, 2);
+
+        assertEquals(2, slice.getItems().size());
+        assertEquals(2L, slice.getNextAfterId());
+    }
+
+    @Test
+    void searchUsers_lastSlice_hasNoNextAfterId() {
+        RemaxUserFilterDto filter = new RemaxUserFilterDto();
+        Mockito.when(userRepo.findSummaries(filter, 2L, 51)).thenReturn(List.of(summary(3L)));
+
+        RemaxUserSliceDto slice = adminService.searchUsers(filter, 2L, 50);
+
+        assertEquals(1, slice.getItems().size());
+        assertNull(slice.getNextAfterId());
+    }
+
+    @Test
+    void searchUsers_clampsSize() {
+        RemaxUserFilterDto filter = new RemaxUserFilterDto();
+        Mockito.when(userRepo.findSummaries(filter, null, AdminService.MAX_USER_SLICE_SIZE + 1)).thenReturn(List.of());
 
+        adminService.searchUsers(filter, null, 1_000_000);
+
+        Mockito.verify(userRepo).findSummaries(filter, null, AdminService.MAX_USER_SLICE_SIZE + 1);
+    }
+
+    private static RemaxUserSummaryDto summary(Long id) {
+        RemaxUserSummaryDto dto = new RemaxUserSummaryDto();
+        dto.setId(id);
+        return dto;
+    }
+}
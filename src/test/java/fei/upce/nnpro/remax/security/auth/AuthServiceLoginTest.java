@@ -0,0 +1,96 @@
+package fei.upce.nnpro.remax.security.auth;
+
+import fei.upce.nnpro.remax.address.service.AddressService;
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
+import fei.upce.nnpro.remax.profile.service.PersonalInformationService;
+import fei.upce.nnpro.remax.security.auth.response.AuthResponse;
+import fei.upce.nnpro.remax.security.auth.service.AuthService;
+import fei.upce.nnpro.remax.security.auth.service.LoginRateLimitedException;
+import fei.upce.nnpro.remax.security.auth.service.LoginRateLimiter;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
+import fei.upce.nnpro.remax.security.jwt.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AuthServiceLoginTest {
+
+    private RemaxUserRepository userRepo;
+    private AuthenticationManager authManager;
+    private JwtUtil jwt;
+    private UserDetailsCache userDetailsCache;
+    private AuthService service;
+    private Client user;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = Mockito.mock(RemaxUserRepository.class);
+        authManager = Mockito.mock(AuthenticationManager.class);
+        jwt = Mockito.mock(JwtUtil.class);
+        userDetailsCache = Mockito.mock(UserDetailsCache.class);
+        SecurityProperties props = new SecurityProperties();
+        props.setFailedLoginThreshold(3);
+        props.setLoginRateLimitUsernameCapacity(2);
+        props.setLoginRateLimitIpCapacity(0);
+
+        service = new AuthService(userRepo, Mockito.mock(AddressService.class), Mockito.mock(PersonalInformationService.class),
+                authManager, jwt, Mockito.mock(PasswordEncoder.class), props, null, userDetailsCache, new LoginRateLimiter(props));
+
+        user = new Client();
+        user.setId(7L);
+        user.setUsername("john");
+        when(userRepo.findByUsername("john")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void failedLogin_updatesCounterWithSingleStatement() {
+        when(authManager.authenticate(any())).thenThrow(new BadCredentialsException("bad"));
+
+        assertThatThrownBy(() -> service.login("john", "wrong", "10.0.0.1")).isInstanceOf(BadCredentialsException.class);
+
+        InOrder inOrder = inOrder(userRepo);
+        inOrder.verify(userRepo).recordFailedLogin(eq(7L), eq(3), any(ZonedDateTime.class));
+        inOrder.verify(userRepo).findFailedLoginAttempts(7L);
+        verify(userRepo, never()).save(any());
+        verify(userDetailsCache).invalidate("john");
+    }
+
+    @Test
+    void successfulLogin_resetsCounterWithoutSave() {
+        when(jwt.generateToken("john")).thenReturn("token");
+
+        AuthResponse response = service.login("john", "secret", "10.0.0.1");
+
+        assertThat(response.getToken()).isEqualTo("token");
+        verify(userRepo).resetFailedLogins(7L);
+        verify(userRepo, never()).save(any());
+    }
+
+    @Test
+    void throttledLogin_skipsDatabaseAndPasswordCheck() {
+        when(authManager.authenticate(any())).thenThrow(new BadCredentialsException("bad"));
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.login("john", "wrong", "10.0.0.1")).isInstanceOf(BadCredentialsException.class);
+        }
+        clearInvocations(userRepo, authManager);
+
+        assertThatThrownBy(() -> service.login("john", "wrong", "10.0.0.1")).isInstanceOf(LoginRateLimitedException.class);
+
+        verifyNoInteractions(userRepo, authManager);
+    }
+}
@@ -9,6 +9,7 @@ import fei.upce.nnpro.remax.security.auth.request.PasswordResetRequest;
 import fei.upce.nnpro.remax.security.auth.request.RegisterRequest;
 import fei.upce.nnpro.remax.security.auth.response.AuthResponse;
 import fei.upce.nnpro.remax.security.auth.service.AuthService;
+import fei.upce.nnpro.remax.security.auth.service.LoginRateLimitedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -54,7 +55,7 @@ class AuthControllerTest {
         req.setUsername("john");
         req.setPassword("secret");
 
-        Mockito.when(authService.login("john", "secret"))
+        Mockito.when(authService.login("john", "secret", "127.0.0.1"))
                 .thenReturn(new AuthResponse("token", 123L, "USER"));
 
         mockMvc.perform(post("/api/auth/login")
@@ -65,6 +66,24 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.role").value("USER"));
     }
 
+    @Test
+    void login_rateLimited_returns429() throws Exception {
+        AuthRequest req = new AuthRequest();
+        req.setUsername("john");
+        req.setPassword("secret");
+        MockMvc withAdvice = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new RestApiExceptionHandler())
+                .build();
+
+        Mockito.when(authService.login(any(), any(), any())).thenThrow(new LoginRateLimitedException());
+
+        withAdvice.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
     @Test
     @Disabled
     void register_happyPath_returnsUser() throws Exception {
@@ -0,0 +1,142 @@
+package fei.upce.nnpro.remax.security.auth.service;
+
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private LoginRateLimiter limiter(int usernameCapacity, int ipCapacity, int maxKeys) {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setLoginRateLimitUsernameCapacity(usernameCapacity);
+        properties.setLoginRateLimitIpCapacity(ipCapacity);
+        properties.setLoginRateLimitRefillPeriod(Duration.ofMinutes(1));
+        properties.setLoginRateLimitMaxKeys(maxKeys);
+        return new LoginRateLimiter(properties, clock::get);
+    }
+
+    @Test
+    @DisplayName("Username bucket: capacity attempts, then rejected; other usernames unaffected")
+    void usernameBucket() {
+        LoginRateLimiter limiter = limiter(3, 0, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("john", "10.0.0." + i)).isTrue();
+        }
+        assertThat(limiter.tryAcquire("JOHN", "10.0.0.9")).isFalse();
+        assertThat(limiter.tryAcquire("jane", "10.0.0.9")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Bucket refills proportionally over the refill period")
+    void refill() {
+        LoginRateLimiter limiter = limiter(3, 0, 1000);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("john", null);
+        }
+
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+        assertThat(limiter.tryAcquire("john", null)).isTrue();
+        assertThat(limiter.tryAcquire("john", null)).isFalse();
+
+        clock.addAndGet(Duration.ofMinutes(5).toNanos());
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("john", null)).isTrue();
+        }
+        assertThat(limiter.tryAcquire("john", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("IP bucket limits attempts across usernames")
+    void ipBucket() {
+        LoginRateLimiter limiter = limiter(100, 5, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("user" + i, "192.168.1.1")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("user-next", "192.168.1.1")).isFalse();
+        assertThat(limiter.tryAcquire("user-next", "192.168.1.2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reset after successful login refills the username bucket")
+    void reset() {
+        LoginRateLimiter limiter = limiter(2, 0, 1000);
+        limiter.tryAcquire("john", null);
+        limiter.tryAcquire("john", null);
+
+        limiter.reset("John");
+
+        assertThat(limiter.tryAcquire("john", null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Idle buckets are evicted once the key limit is reached")
+    void eviction() {
+        LoginRateLimiter limiter = limiter(5, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("user" + i, null);
+        }
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        limiter.tryAcquire("another", null);
+
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    /**
+     * Load test in miniature: 32 threads hammer one account while legitimate users keep logging in from
+     * their own addresses. The attack gets exactly its bucket, every legitimate attempt passes.
+     */
+    @Test
+    @DisplayName("Under attack: attacker gets only its capacity, other users keep logging in")
+    void underAttack() throws Exception {
+        LoginRateLimiter limiter = limiter(10, 0, 100_000);
+        int threads = 32;
+        int attemptsPerThread = 5_000;
+        AtomicInteger attackerPassed = new AtomicInteger();
+        AtomicInteger legitimatePassed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> tasks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (thread % 4 == 0) {
+                            if (limiter.tryAcquire("user-" + thread + "-" + i, "10.1." + thread + "." + (i % 250))) {
+                                legitimatePassed.incrementAndGet();
+                            }
+                        } else if (limiter.tryAcquire("victim", "203.0.113." + (i % 250))) {
+                            attackerPassed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+
+        assertThat(attackerPassed.get()).isEqualTo(10);
+        assertThat(legitimatePassed.get()).isEqualTo(threads / 4 * attemptsPerThread);
+    }
+}
@@ -0,0 +1,102 @@
+package fei.upce.nnpro.remax.security.auth.service;
+
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDetailsCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserDetails> loader = username -> {
+        loads.incrementAndGet();
+        return User.withUsername(username).password("secret").roles("USER").build();
+    };
+
+    private static UserDetailsCache cache(Duration ttl, int maxSize) {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setUserDetailsCacheTtl(ttl);
+        properties.setUserDetailsCacheMaxSize(maxSize);
+        return new UserDetailsCache(properties);
+    }
+
+    @Test
+    void warmCacheDoesNotCallLoader() {
+        UserDetailsCache cache = cache(Duration.ofMinutes(5), 100);
+
+        UserDetails first = cache.getOrLoad("alice", loader);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(cache.getOrLoad("alice", loader)).isSameAs(first);
+        }
+
+        assertThat(loads).hasValue(1);
+        UserDetailsCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1000);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        UserDetailsCache cache = cache(Duration.ofMinutes(5), 100);
+        cache.getOrLoad("alice", loader);
+
+        cache.invalidate("alice");
+        cache.getOrLoad("alice", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        UserDetailsCache cache = cache(Duration.ofNanos(1), 100);
+        cache.getOrLoad("alice", loader);
+
+        cache.getOrLoad("alice", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void zeroTtlDisablesCaching() {
+        UserDetailsCache cache = cache(Duration.ZERO, 100);
+        cache.getOrLoad("alice", loader);
+        cache.getOrLoad("alice", loader);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    void sizeIsBounded() {
+        UserDetailsCache cache = cache(Duration.ofMinutes(5), 3);
+        for (int i = 0; i < 10; i++) {
+            cache.getOrLoad("user" + i, loader);
+        }
+
+        UserDetailsCache.Stats stats = cache.stats();
+        assertThat(stats.size()).isLessThanOrEqualTo(3);
+        assertThat(stats.evictions()).isEqualTo(7);
+    }
+
+    @Test
+    void loadRacingWithInvalidationIsNotCached() {
+        UserDetailsCache cache = cache(Duration.ofMinutes(5), 100);
+        Function<String, UserDetails> racingLoader = username -> {
+            UserDetails details = loader.apply(username);
+            cache.invalidate(username);
+            return details;
+        };
+
+        cache.getOrLoad("alice", racingLoader);
+        cache.getOrLoad("alice", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,76 @@
+package fei.upce.nnpro.remax.security.jwt;
+
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
+import fei.upce.nnpro.remax.profile.repository.RemaxUserRepository;
+import fei.upce.nnpro.remax.security.auth.service.CustomUserDetailsService;
+import fei.upce.nnpro.remax.security.auth.service.UserDetailsCache;
+import fei.upce.nnpro.remax.security.config.SecurityProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void warmCacheAuthenticatesWithoutRepositoryCalls() throws Exception {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setJwtSecret("testsecretkeywhichislongenough123456testsecretkeywhichislongenough123456");
+        properties.setJwtExpirationMs(3600_000);
+        JwtUtil jwtUtil = new JwtUtil(properties);
+
+        Client user = new Client();
+        user.setUsername("alice");
+        user.setPassword("secret");
+        user.setAccountStatus(AccountStatus.NORMAL);
+        RemaxUserRepository repository = Mockito.mock(RemaxUserRepository.class);
+        Mockito.when(repository.findByUsername("alice")).thenReturn(Optional.of(user));
+
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil,
+                new CustomUserDetailsService(repository), new UserDetailsCache(properties));
+        String token = jwtUtil.generateToken("alice");
+
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/profile");
+            request.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("alice");
+            SecurityContextHolder.clearContext();
+        }
+
+        Mockito.verify(repository, Mockito.times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void invalidTokenLeavesRequestUnauthenticated() throws Exception {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setJwtSecret("testsecretkeywhichislongenough123456testsecretkeywhichislongenough123456");
+        RemaxUserRepository repository = Mockito.mock(RemaxUserRepository.class);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(new JwtUtil(properties),
+                new CustomUserDetailsService(repository), new UserDetailsCache(properties));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/profile");
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        Mockito.verifyNoInteractions(repository);
+    }
+}
@@ -1,16 +1,22 @@
 package fei.upce.nnpro.remax.security.jwt;
 
 import fei.upce.nnpro.remax.security.config.SecurityProperties;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.HashSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class JwtUtilTest {
 
+    private static final Instant ISSUED_AT = Instant.parse("2026-01-01T12:00:00Z");
+
     @Test
     void generateAndValidateToken() {
         SecurityProperties p = new SecurityProperties();
@@ -23,15 +29,54 @@ public class JwtUtilTest {
     }
 
     @Test
-    void expiredTokenIsInvalid() throws InterruptedException {
+    void expiredTokenIsInvalid() {
+        String token = new JwtUtil(properties(1000), clockAt(ISSUED_AT)).generateToken("bob");
+        assertNotNull(token);
+
+        JwtUtil later = new JwtUtil(properties(1000), clockAt(ISSUED_AT.plusSeconds(2)));
+        assertFalse(later.validateToken(token, createUserDetails("bob")));
+        assertTrue(new JwtUtil(properties(1000), clockAt(ISSUED_AT)).validateToken(token, createUserDetails("bob")));
+    }
+
+    @Test
+    void parseClaimsReturnsVerifiedClaims() {
+        JwtUtil util = new JwtUtil(properties(3600_000));
+        String token = util.generateToken("carol");
+
+        Claims claims = util.parseClaims(token).orElseThrow();
+
+        assertEquals("carol", claims.getSubject());
+        assertTrue(util.validateClaims(claims, createUserDetails("carol")));
+        assertFalse(util.validateClaims(claims, createUserDetails("mallory")));
+    }
+
+    @Test
+    void parseClaimsRejectsTamperedToken() {
+        JwtUtil util = new JwtUtil(properties(3600_000));
+        String token = util.generateToken("carol");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(util.parseClaims(tampered).isEmpty());
+        assertTrue(util.parseClaims("not-a-jwt").isEmpty());
+    }
+
+    @Test
+    void parseClaimsRejectsExpiredToken() {
+        String token = new JwtUtil(properties(1000), clockAt(ISSUED_AT)).generateToken("dave");
+
+        assertTrue(new JwtUtil(properties(1000), clockAt(ISSUED_AT.plusSeconds(2))).parseClaims(token).isEmpty());
+        assertTrue(new JwtUtil(properties(1000), clockAt(ISSUED_AT)).parseClaims(token).isPresent());
+    }
+
+    private static Clock clockAt(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+
+    private SecurityProperties properties(long expirationMs) {
         SecurityProperties p = new SecurityProperties();
         p.setJwtSecret("testsecretkeywhichislongenough123456testsecretkeywhichislongenough123456");
-        p.setJwtExpirationMs(1);
-        JwtUtil util = new JwtUtil(p);
-        String token = util.generateToken("bob");
-        assertNotNull(token);
-        Thread.sleep(1500);
-        assertFalse(util.validateToken(token, createUserDetails("bob")));
+        p.setJwtExpirationMs(expirationMs);
+        return p;
     }
 
     private UserDetails createUserDetails(String username) {
@@ -0,0 +1,115 @@
+package fei.upce.nnpro.remax.testutil;
+
+import fei.upce.nnpro.remax.address.entity.Address;
+import fei.upce.nnpro.remax.images.entity.Image;
+import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
+import fei.upce.nnpro.remax.realestates.entity.*;
+import fei.upce.nnpro.remax.realestates.entity.enums.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+
+/**
+ * Persists minimal but fully valid entity graphs for repository (@DataJpaTest) tests.
+ */
+public final class RealEstateTestData {
+
+    private RealEstateTestData() {
+    }
+
+    public static Address address(String city, AddressRegion region) {
+        Address address = new Address();
+        address.setStreet("Testovací 1");
+        address.setCity(city);
+        address.setPostalCode("530 02");
+        address.setCountry("Česká republika");
+        address.setRegion(region);
+        return address;
+    }
+
+    public static Realtor persistRealtor(TestEntityManager em, String username) {
+        PersonalInformation pi = new PersonalInformation();
+        pi.setFirstName("Petr");
+        pi.setLastName("Makléř");
+        pi.setPhoneNumber("+420 777 888 999");
+        pi.setBirthDate(ZonedDateTime.now().minusYears(35));
+        pi.setAddress(em.persist(address("Brno", AddressRegion.JIHOMORAVSKY)));
+        em.persist(pi);
+
+        Realtor realtor = new Realtor();
+        realtor.setUsername(username);
+        realtor.setPassword("secret");
+        realtor.setEmail(username + "@remax.cz");
+        realtor.setCreatedAt(OffsetDateTime.now());
+        realtor.setAccountStatus(AccountStatus.NORMAL);
+        realtor.setLicenseNumber(Math.abs(username.hashCode()));
+        realtor.setPersonalInformation(pi);
+        return em.persist(realtor);
+    }
+
+    /**
+     * Apartment with two price changes, two images and populated amenity/utility/transport sets.
+     */
+    public static Apartment persistApartment(TestEntityManager em, Realtor realtor, String name, double price) {
+        Apartment apartment = new Apartment();
+        apartment.setName(name);
+        apartment.setDescription("Description of " + name);
+        apartment.setListedAt(ZonedDateTime.now());
+        apartment.setRealtor(realtor);
+        apartment.setStatus(Status.AVAILABLE);
+        apartment.setUsableArea(70.0);
+        apartment.setContractType(ContractType.SALE);
+        apartment.setPriceDisclosure(PriceDisclosure.ASK);
+        apartment.setCommission(Commission.INCLUDED);
+        apartment.setTaxes(Taxes.INCLUDED);
+        apartment.setEquipment(Equipment.FURNISHED);
+        apartment.setAddress(em.persist(address("Pardubice", AddressRegion.PARDUBICKY)));
+        apartment.setOwnershipType(ApartmentOwnershipType.OWNERSHIP);
+        apartment.setFloor(2);
+        apartment.setTotalFloors(5);
+        apartment.setRooms(3);
+
+        BuildingProperties buildingProperties = new BuildingProperties();
+        buildingProperties.setConstructionMaterial(ConstructionMaterial.BRICK);
+        buildingProperties.setBuildingCondition(BuildingCondition.GOOD);
+        buildingProperties.setEnergyEfficiencyClass(EnergyEfficiencyClass.B);
+        buildingProperties.setBuildingLocation(BuildingLocation.CITY_CENTER);
+        apartment.setBuildingProperties(buildingProperties);
+
+        Utilities utilities = new Utilities();
+        utilities.setInternetConnection(InternetConnectionType.FIBER_OPTIC);
+        utilities.getAvailableUtilities().add(UtilityType.WATER);
+        utilities.getAvailableUtilities().add(UtilityType.ELECTRICITY);
+        apartment.setUtilities(utilities);
+
+        TransportPossibilities transport = new TransportPossibilities();
+        transport.getPossibilities().add(TransportPossibility.BUS);
+        apartment.setTransportPossibilities(transport);
+
+        CivicAmenities amenities = new CivicAmenities();
+        amenities.getAmenities().add(CivicAmenity.SUPERMARKET);
+        amenities.getAmenities().add(CivicAmenity.PLAYGROUND);
+        apartment.setCivicAmenities(amenities);
+
+        apartment.setPriceHistory(new ArrayList<>());
+        apartment.getPriceHistory().add(new PriceHistory(price * 1.1, apartment));
+        apartment.getPriceHistory().add(new PriceHistory(price, apartment));
+        apartment.setCurrentPrice(price);
+
+        apartment.setImages(new ArrayList<>());
+        for (int i = 0; i < 2; i++) {
+            Image image = new Image();
+            image.setFilename(name + "-" + i + ".jpg");
+            image.setContentType("image/jpeg");
+            image.setData(new byte[]{1, 2, 3});
+            image.setRealEstate(apartment);
+            apartment.getImages().add(image);
+        }
+
+        return em.persist(apartment);
+    }
+}
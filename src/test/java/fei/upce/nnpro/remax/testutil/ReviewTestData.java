@@ -0,0 +1,58 @@
+package fei.upce.nnpro.remax.testutil;
+
+import fei.upce.nnpro.remax.profile.entity.Client;
+import fei.upce.nnpro.remax.profile.entity.PersonalInformation;
+import fei.upce.nnpro.remax.profile.entity.Realtor;
+import fei.upce.nnpro.remax.profile.entity.enums.AccountStatus;
+import fei.upce.nnpro.remax.realestates.entity.enums.AddressRegion;
+import fei.upce.nnpro.remax.review.entity.Review;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Persists clients and reviews for repository (@DataJpaTest) tests.
+ */
+public final class ReviewTestData {
+
+    private ReviewTestData() {
+    }
+
+    public static Client persistClient(TestEntityManager em, String username) {
+        PersonalInformation pi = new PersonalInformation();
+        pi.setFirstName("Jana");
+        pi.setLastName("Klientová");
+        pi.setPhoneNumber("+420 777 111 222");
+        pi.setBirthDate(ZonedDateTime.now().minusYears(30));
+        pi.setAddress(em.persist(RealEstateTestData.address("Pardubice", AddressRegion.PARDUBICKY)));
+        em.persist(pi);
+
+        Client client = new Client();
+        client.setUsername(username);
+        client.setPassword("secret");
+        client.setEmail(username + "@example.com");
+        client.setCreatedAt(OffsetDateTime.now());
+        client.setAccountStatus(AccountStatus.NORMAL);
+        client.setPersonalInformation(pi);
+        return em.persist(client);
+    }
+
+    /**
+     * Review with all five dimensions set; {@code ratings} are overall, speed, communication,
+     * professionality and fairness.
+     */
+    public static Review persistReview(TestEntityManager em, Client author, Realtor realtor, int... ratings) {
+        Review review = new Review();
+        review.setOverall(ratings[0]);
+        review.setSpeed(ratings[1]);
+        review.setCommunication(ratings[2]);
+        review.setProfessionality(ratings[3]);
+        review.setFairness(ratings[4]);
+        review.setText("Review by " + author.getUsername());
+        review.setClientDisplayName("Jana Klientová");
+        review.setAuthor(author);
+        review.setRealtor(realtor);
+        return em.persist(review);
+    }
+}